@@ -1,7 +1,6 @@
 package com.example.inventoryapplication;
 
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.util.Log;
 import android.widget.Button;
@@ -17,8 +16,9 @@ import org.json.JSONObject;
 /**
  * ActivityLogin is the login screen for the inventory application.
  * It handles the authentication process by sending a login request to the server with the user's credentials.
- * On successful login, it stores the authentication token and user role in SharedPreferences,
- * and navigates the user to the InventoryListActivity.
+ * On successful login, it stores the authentication token through {@link TokenManager},
+ * and navigates the user to the InventoryListActivity. While a stored token is still valid,
+ * the screen is skipped altogether.
  */
 public class ActivityLogin extends AppCompatActivity {
 
@@ -36,6 +36,16 @@ public class ActivityLogin extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+
+        // A stored token that has not expired needs no login round trip; go straight to the list
+        TokenManager tokens = TokenManager.getInstance(this);
+        if (tokens.isLoggedIn()) {
+            InventoryListActivity.prefetch(getApplicationContext(), tokens.getToken());
+            startActivity(new Intent(getApplicationContext(), InventoryListActivity.class));
+            finish();
+            return;
+        }
+
         setContentView(R.layout.activity_login);
 
         // Initialize UI elements
@@ -81,7 +91,7 @@ public class ActivityLogin extends AppCompatActivity {
         }
 
         // Define the backend URL for the login request
-        String url = "http://192.168.86.33:3000/api/login";
+        String url = BuildConfig.API_BASE_URL + "/login";
 
         // Create a JSON object request using the Volley library to send the login request
         JsonObjectRequest loginRequestObject = new JsonObjectRequest(Request.Method.POST, url, loginRequest,
@@ -91,15 +101,11 @@ public class ActivityLogin extends AppCompatActivity {
                         if (response.has("token")) {
                             String token = response.getString("token");
 
-                            // Retrieve the user role, default to "User" if not provided
-                            String role = response.has("role") ? response.getString("role") : "User";
+                            // Store the token (and the role it carries) for future use, and schedule its renewal
+                            TokenManager.getInstance(ActivityLogin.this).setToken(token);
 
-                            // Store the authentication token and user role in SharedPreferences for future use
-                            SharedPreferences sharedPreferences = getSharedPreferences("user_prefs", MODE_PRIVATE);
-                            SharedPreferences.Editor editor = sharedPreferences.edit();
-                            editor.putString("auth_token", token);
-                            editor.putString("user_role", role);
-                            editor.apply();
+                            // Start loading the inventory now, overlapping the transition to the list screen
+                            InventoryListActivity.prefetch(getApplicationContext(), token);
 
                             // Show a success message to the user
                             Toast.makeText(ActivityLogin.this, "Login successful", Toast.LENGTH_SHORT).show();
@@ -1,7 +1,7 @@
 package com.example.inventoryapplication;
 
+import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
@@ -10,18 +10,11 @@ import android.widget.EditText;
 import android.widget.ImageButton;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
-import com.android.volley.Request;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
-import org.json.JSONException;
-import org.json.JSONObject;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * AddItemActivity is responsible for allowing the user to add a new item to the inventory.
- * This activity provides input fields for the item name, code, and quantity, and handles
- * communication with the backend API to store the new item.
+ * This activity provides input fields for the item name, code, and quantity, and hands
+ * the new item to {@link InventoryRepository}, which stores it through the backend API.
  * The activity also provides features to increment and decrement the item quantity with
  * validation in place to prevent invalid entries.
  */
@@ -30,9 +23,6 @@ public class AddItemActivity extends AppCompatActivity {
     /** UI components for the item name, code, and quantity input */
     private EditText addItemName, addItemCode, addQuantity;
 
-    /** The authorization token used to authenticate the API request */
-    private String authToken;
-
     /**
      * This method is called when the activity is first created.
      * It initializes the user interface components and sets up the event listeners for
@@ -52,10 +42,6 @@ public class AddItemActivity extends AppCompatActivity {
             ImageButton increaseQuantityBtn = findViewById(R.id.increaseQuantityBtn_add);  // From XML
             ImageButton decreaseQuantityBtn = findViewById(R.id.decreaseQuantityBtn_add);  // From XML
 
-            // Retrieve the stored authentication token from SharedPreferences
-            SharedPreferences sharedPreferences = getSharedPreferences("user_prefs", MODE_PRIVATE);
-            authToken = sharedPreferences.getString("auth_token", "");
-
             // Set listeners to handle quantity increment and decrement actions
             increaseQuantityBtn.setOnClickListener(this::incrementQuantity);
             decreaseQuantityBtn.setOnClickListener(this::decrementQuantity);
@@ -127,10 +113,10 @@ public class AddItemActivity extends AppCompatActivity {
     }
 
     /**
-     * Handles saving the item details and sending them to the backend API.
-     * This method validates the input fields, creates a JSON object, and makes a POST request
-     * to the API to add the item to the inventory. If the item is successfully added, the activity
-     * returns to the previous screen.
+     * Handles saving the item details.
+     * This method validates the input fields and adds the item through the repository, which
+     * shows it immediately and sends it to the API. The activity returns to the previous
+     * screen straight away; a rejected item is removed again and reported with a toast.
      * @param view The view (button) that was clicked to trigger this method.
      */
     public void handleSaveItem(View view) {
@@ -145,59 +131,26 @@ public class AddItemActivity extends AppCompatActivity {
                 return;
             }
 
-            // API URL to create a new item
-            String url = "http://192.168.86.33:3000/api/items";
-
-            // Prepare the JSON object with item details to send in the POST request
-            JSONObject itemData = new JSONObject();
-            try {
-                itemData.put("name", name);
-                itemData.put("code", code);
-                itemData.put("quantity", quantity);
-            } catch (JSONException e) {
-                // Catch JSON-related exceptions (e.g., invalid JSON format)
-                Log.e("AddItemActivity", "JSON Error: " + e.getMessage());
-                Toast.makeText(this, "Failed to create item data", Toast.LENGTH_SHORT).show();
-                return;
-            }
+            // Added optimistically: the list shows the item at once and drops it again if the API refuses it
+            Context appContext = getApplicationContext();
+            String authToken = TokenManager.getInstance(this).getToken();
+            InventoryRepository.getInstance(this).add(code, name, quantity, authToken, new InventoryRepository.Callback() {
+                @Override
+                public void onSuccess() {
+                    Toast.makeText(appContext, "Item added successfully!", Toast.LENGTH_SHORT).show();
+                }
 
-            // Create a POST request using Volley to send item data to the backend API
-            JsonObjectRequest request = new JsonObjectRequest(Request.Method.POST, url, itemData,
-                    response -> {
-                        try {
-                            // Notify the user if the item is successfully added
-                            Toast.makeText(this, "Item added successfully!", Toast.LENGTH_SHORT).show();
-                            // Return to the previous screen
-                            Intent resultIntent = new Intent();
-                            setResult(RESULT_OK, resultIntent);
-                            finish();
-                        } catch (Exception e) {
-                            // Handle any errors during the response handling
-                            Log.e("AddItemActivity", "Error processing successful response", e);
-                            Toast.makeText(this, "Failed to process server response", Toast.LENGTH_SHORT).show();
-                        }
-                    },
-                    error -> {
-                        // Handle any errors during the API request
-                        Log.e("AddItemActivity", "Error: " + error.toString());
-                        Toast.makeText(this, "Failed to add item", Toast.LENGTH_SHORT).show();
-                    }
-            ) {
-                /**
-                 * Adds authorization headers to the request.
-                 * @return The headers to be included in the request.
-                 */
                 @Override
-                public Map<String, String> getHeaders() {
-                    Map<String, String> headers = new HashMap<>();
-                    headers.put("Authorization", "Bearer " + authToken);  // Add the auth token to the headers
-                    headers.put("Content-Type", "application/json");  // Set content type to JSON
-                    return headers;
+                public void onFailure(Exception error) {
+                    // This screen may already be gone, so report through the application context
+                    Log.e("AddItemActivity", "Error: " + error);
+                    Toast.makeText(appContext, "Failed to add item", Toast.LENGTH_SHORT).show();
                 }
-            };
+            });
 
-            // Add the request to the Volley request queue for execution
-            Volley.newRequestQueue(this).add(request);
+            // Return to the previous screen without waiting for the server
+            setResult(RESULT_OK, new Intent());
+            finish();
 
         } catch (Exception e) {
             // Catch any errors during the item-saving process
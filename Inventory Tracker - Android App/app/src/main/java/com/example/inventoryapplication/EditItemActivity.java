@@ -2,35 +2,32 @@ package com.example.inventoryapplication;
 
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
-import android.telephony.SmsManager;
 import android.util.Log;
 import android.view.View;
 import android.widget.EditText;
 import android.widget.ImageButton;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
-import com.android.volley.Request;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
-import org.json.JSONException;
-import org.json.JSONObject;
-import java.util.HashMap;
-import java.util.Map;
+import com.android.volley.VolleyError;
 
 /**
  * Activity class for editing an inventory item.
  * This activity allows users to edit the name and quantity of an item in the inventory.
  * It includes functionality to increment or decrement the item quantity and submit the changes
- * to the backend API via a PUT request. The activity also provides error handling and ensures
- * the input data is valid before saving.
+ * through {@link InventoryRepository}, which applies them at once and sends them to the
+ * backend API. The activity also provides error handling and ensures the input data is
+ * valid before saving.
  */
 public class EditItemActivity extends AppCompatActivity {
 
+    /** Intent extra carrying the id of the item to edit; the item itself is read from the repository. */
+    public static final String EXTRA_ITEM_ID = "ITEM_ID";
+
     private EditText editItemName, editQuantity;
-    private String authToken;  // Authentication token used for API request authorization
+    private String itemId;     // MongoDB id of the item being edited
     private String itemCode;   // Unique code of the item being edited
+    private Item loadedItem;   // Item as the editor opened it; the edit is sent relative to it and its version
 
     /**
      * Called when the activity is created.
@@ -51,24 +48,24 @@ public class EditItemActivity extends AppCompatActivity {
             ImageButton increaseQuantityBtn = findViewById(R.id.increaseQuantityBtn_edit);
             ImageButton decreaseQuantityBtn = findViewById(R.id.decreaseQuantityBtn_edit);
 
-            // Retrieve authentication token from SharedPreferences for authorization in API requests
-            SharedPreferences sharedPreferences = getSharedPreferences("user_prefs", MODE_PRIVATE);
-            authToken = sharedPreferences.getString("auth_token", "");
-
-            // Extract item data from the Intent
-            Intent intent = getIntent();
-            itemCode = intent.getStringExtra("ITEM_CODE");
-            String itemName = intent.getStringExtra("ITEM_NAME");
-            int itemQuantity = intent.getIntExtra("ITEM_QUANTITY", 0);
+            // Look up the item named by the Intent in the shared repository
+            itemId = getIntent().getStringExtra(EXTRA_ITEM_ID);
+            Item item = itemId == null ? null : InventoryRepository.getInstance(this).get(itemId);
+            if (item == null) {
+                Log.e("EditItemActivity", "Item not loaded: " + itemId);
+                Toast.makeText(this, "Item is no longer available", Toast.LENGTH_SHORT).show();
+                finish();
+                return;
+            }
+            itemCode = item.getCode();
 
             // Debug logging to verify received item details
-            Log.d("EditItemActivity", "Item Code: " + itemCode);
-            Log.d("EditItemActivity", "Item Name: " + itemName);
-            Log.d("EditItemActivity", "Item Quantity: " + itemQuantity);
+            Log.d("EditItemActivity", "Item Id: " + itemId + ", Code: " + itemCode);
 
             // Populate the views with the item data
-            editItemName.setText(itemName);
-            editQuantity.setText(String.valueOf(itemQuantity));
+            editItemName.setText(item.getName());
+            editQuantity.setText(String.valueOf(item.getQuantity()));
+            loadedItem = item;
 
             // Set up event listeners for quantity increment and decrement buttons
             increaseQuantityBtn.setOnClickListener(this::incrementQuantity);
@@ -147,10 +144,10 @@ public class EditItemActivity extends AppCompatActivity {
     }
 
     /**
-     * Handles saving the edited item data to the backend API.
+     * Handles saving the edited item data.
      * This method is triggered when the user presses the "Save Item" button.
-     * It validates the input, constructs a JSON object with the updated data,
-     * and sends a PUT request to the backend API to update the item details.
+     * It validates the input and hands the change to the repository, which updates every
+     * screen immediately and sends it to the backend API, then returns to the list.
      * @param view The view that triggered the event (not used in this case).
      */
     public void handleSaveItem(View view) {
@@ -159,105 +156,43 @@ public class EditItemActivity extends AppCompatActivity {
             String name = editItemName.getText().toString().trim();
             int quantity = getCurrentQuantity();
 
-            // Check if the quantity is zero and send SMS if true
-            if (getCurrentQuantity() == 0) {
-                sendSmsNotification(this, editItemName.getText().toString());
-            }
-
             // Validate input: name cannot be empty
             if (name.isEmpty()) {
                 Toast.makeText(this, "Please enter an item name", Toast.LENGTH_SHORT).show();
                 return;
             }
 
-            // Define the URL for the PUT request with the item code
-            String url = "http://192.168.86.33:3000/api/items/" + itemCode;
-
-            // Create a JSON object to hold the updated item data
-            JSONObject itemData = new JSONObject();
-            try {
-                itemData.put("name", name);
-                itemData.put("quantity", quantity);
-            } catch (JSONException e) {
-                // Handle JSON creation errors (e.g., if the JSON object cannot be constructed)
-                Log.e("EditItemActivity", "JSON Error: " + e.getMessage());
-                Toast.makeText(this, "Failed to create update data", Toast.LENGTH_SHORT).show();
-                return;
-            }
-
-            // Create a request to update the item via the API
-            JsonObjectRequest request = new JsonObjectRequest(Request.Method.PUT, url, itemData,
-                    response -> {
-                        try {
-                            // If the update is successful, notify the user and return the result
-                            Toast.makeText(this, "Item updated successfully!", Toast.LENGTH_SHORT).show();
-                            Intent resultIntent = new Intent();
-                            resultIntent.putExtra("updated", true);
-                            setResult(RESULT_OK, resultIntent);
-                            finish();
-                        } catch (Exception e) {
-                            // Handle any errors that occur while processing the response
-                            Log.e("EditItemActivity", "Error processing response", e);
-                            Toast.makeText(this, "Failed to process server response", Toast.LENGTH_SHORT).show();
-                        }
-                    },
-                    error -> {
-                        // Log and handle network or server errors during the request
-                        Log.e("EditItemActivity", "Error: " + error.toString());
-                        Toast.makeText(this, "Failed to update item", Toast.LENGTH_SHORT).show();
-                    }
-            ) {
+            // Applied optimistically: every screen sees the edit at once and it is reverted if the API refuses it
+            Context appContext = getApplicationContext();
+            String authToken = TokenManager.getInstance(this).getToken();
+            InventoryRepository.getInstance(this).update(loadedItem, name, quantity, authToken, new InventoryRepository.Callback() {
                 @Override
-                public Map<String, String> getHeaders() {
-                    // Add necessary headers for authorization and content type
-                    Map<String, String> headers = new HashMap<>();
-                    headers.put("Authorization", "Bearer " + authToken);
-                    headers.put("Content-Type", "application/json");
-                    return headers;
+                public void onSuccess() {
+                    Toast.makeText(appContext, "Item updated successfully!", Toast.LENGTH_SHORT).show();
                 }
-            };
 
-            // Add the request to the Volley request queue for execution
-            Volley.newRequestQueue(this).add(request);
+                @Override
+                public void onFailure(Exception error) {
+                    // This screen may already be gone, so report through the application context
+                    Log.e("EditItemActivity", "Error: " + error);
+                    // 409: someone else changed the item in a way this edit cannot be merged with
+                    boolean conflict = error instanceof VolleyError && ((VolleyError) error).networkResponse != null
+                            && ((VolleyError) error).networkResponse.statusCode == 409;
+                    Toast.makeText(appContext, conflict ? "Item was changed by someone else; showing their changes"
+                            : "Failed to update item", Toast.LENGTH_SHORT).show();
+                }
+            });
+
+            // Return to the list without waiting for the server
+            Intent resultIntent = new Intent();
+            resultIntent.putExtra("updated", true);
+            resultIntent.putExtra(EXTRA_ITEM_ID, itemId);
+            setResult(RESULT_OK, resultIntent);
+            finish();
         } catch (Exception e) {
             // Catch any exceptions during the save process (e.g., network issues, JSON formatting)
             Log.e("EditItemActivity", "Error in handleSaveItem", e);
             Toast.makeText(this, "An error occurred while saving the item", Toast.LENGTH_SHORT).show();
         }
     }
-
-    /**
-     * Sends an SMS alert to a predefined number if the quantity reaches zero.
-     * SMS notifications only fire if the user has enabled the option in preferences.
-     * This method requires the {@code SEND_SMS} permission.
-     * @param context Android context used to access SharedPreferences and SMS system service
-     * @param itemName Name of the item that reached zero quantity
-     */
-    void sendSmsNotification(Context context, String itemName) {
-        try {
-            SharedPreferences preferences = context.getSharedPreferences(
-                    SmsNotificationsActivity.PREFS_NAME, Context.MODE_PRIVATE);
-            boolean receiveNotifications = preferences.getBoolean(
-                    SmsNotificationsActivity.KEY_RECEIVE_NOTIFICATIONS, false);
-
-            if (!receiveNotifications) {
-                Log.d("ItemAdapter", "User has opted out of SMS notifications.");
-                return;
-            }
-
-            String phoneNumber = "15551234567";  // TODO: Replace with dynamic recipient
-            String message = "The item '" + itemName + "' has reached a quantity of 0.";
-
-            SmsManager smsManager = SmsManager.getDefault();
-            smsManager.sendTextMessage(phoneNumber, null, message, null, null);
-            Log.d("ItemAdapter", "SMS sent: " + message);
-
-        } catch (SecurityException se) {
-            Log.e("ItemAdapter", "Missing SMS permission: " + se.getMessage(), se);
-        } catch (NullPointerException ne) {
-            Log.e("ItemAdapter", "SMS service not available: " + ne.getMessage(), ne);
-        } catch (Exception e) {
-            Log.e("ItemAdapter", "Error sending SMS: " + e.getMessage(), e);
-        }
-    }
 }
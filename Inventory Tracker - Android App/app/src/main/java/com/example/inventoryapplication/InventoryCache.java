@@ -0,0 +1,134 @@
+package com.example.inventoryapplication;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk copy of the last catalog downloaded from {@code GET /api/items}, so the list can
+ * be shown at startup without waiting for the network.
+ * The response body is stored as-is in the app's files directory; when it was written,
+ * a checksum of it, and the current background sync interval are kept in SharedPreferences.
+ * {@link #read}, {@link #write} and {@link #clear} block on file access, so they must not be
+ * called on the main thread.
+ */
+public class InventoryCache {
+
+    private static final String FILE_NAME = "inventory.json";
+    private static final String PREFS_NAME = "inventory_cache";
+    private static final String KEY_SYNCED_AT = "synced_at";
+    private static final String KEY_CHECKSUM = "checksum";
+    private static final String KEY_INTERVAL = "sync_interval_ms";
+
+    private final File file;
+    private final SharedPreferences prefs;
+
+    public InventoryCache(Context context) {
+        file = new File(context.getFilesDir(), FILE_NAME);
+        prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Reads the cached response body.
+     * @return The body, or null if nothing is cached or it cannot be read
+     */
+    public String read() {
+        if (!file.exists()) {
+            return null;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] data = new byte[(int) file.length()];
+            int read = 0;
+            while (read < data.length) {
+                int n = in.read(data, read, data.length - read);
+                if (n < 0) {
+                    break;
+                }
+                read += n;
+            }
+            return new String(data, 0, read, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            Log.e("InventoryCache", "Failed to read cached inventory", e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a freshly downloaded response body, replacing the cached one.
+     * The file is written beside the old one and renamed over it, so a crash never
+     * leaves a partial copy behind.
+     * @param body Response body of {@code GET /api/items}
+     * @return True if the body differs from the one cached before
+     */
+    public boolean write(String body) {
+        byte[] data = body.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        long checksum = crc.getValue();
+        boolean changed = checksum != prefs.getLong(KEY_CHECKSUM, -1);
+
+        if (changed || !file.exists()) {
+            File temp = new File(file.getPath() + ".tmp");
+            try (OutputStream out = new FileOutputStream(temp)) {
+                out.write(data);
+            } catch (IOException e) {
+                Log.e("InventoryCache", "Failed to write cached inventory", e);
+                return changed;
+            }
+            if (!temp.renameTo(file)) {
+                Log.e("InventoryCache", "Failed to replace cached inventory");
+                return changed;
+            }
+        }
+        prefs.edit()
+                .putLong(KEY_CHECKSUM, checksum)
+                .putLong(KEY_SYNCED_AT, System.currentTimeMillis())
+                .apply();
+        return changed;
+    }
+
+    /**
+     * Returns how long ago the cache was last confirmed against the server, or -1 if never.
+     */
+    public long ageMs() {
+        long syncedAt = prefs.getLong(KEY_SYNCED_AT, 0);
+        return syncedAt == 0 ? -1 : System.currentTimeMillis() - syncedAt;
+    }
+
+    /**
+     * Records that the server has changed since the cached copy was written, so the copy
+     * must not be treated as fresh.
+     */
+    public void markStale() {
+        prefs.edit().remove(KEY_SYNCED_AT).apply();
+    }
+
+    /**
+     * Returns the background sync interval last chosen by {@link AdaptiveSyncPolicy}, or 0 if none.
+     */
+    public long syncInterval() {
+        return prefs.getLong(KEY_INTERVAL, 0);
+    }
+
+    public void setSyncInterval(long intervalMs) {
+        prefs.edit().putLong(KEY_INTERVAL, intervalMs).apply();
+    }
+
+    /**
+     * Deletes the cached copy, e.g. on logout.
+     */
+    public void clear() {
+        if (file.exists() && !file.delete()) {
+            Log.e("InventoryCache", "Failed to delete cached inventory");
+        }
+        prefs.edit().clear().apply();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.inventoryapplication;
 
+import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.os.Bundle;
@@ -17,17 +18,14 @@ import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import com.android.volley.Request;
-import com.android.volley.toolbox.JsonArrayRequest;
-import com.android.volley.toolbox.Volley;
-import org.json.JSONException;
-import org.json.JSONObject;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.function.UnaryOperator;
 
 /**
  * InventoryListActivity is responsible for displaying and managing inventory items.
@@ -43,7 +41,8 @@ import java.util.Map;
 public class InventoryListActivity extends AppCompatActivity {
 
     // Current page size and index for paginated item display
-    private int pageSize = 10;
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private int pageSize = DEFAULT_PAGE_SIZE;
     private int currentPage = 1;
 
     // UI components for pagination and empty list display
@@ -51,16 +50,59 @@ public class InventoryListActivity extends AppCompatActivity {
     private Button prevButton;
     private Button nextButton;
 
-    // Token for user authentication
-    private String authToken;
-
-    // Item list containers
-    private final List<Item> mItemList = new ArrayList<>();     // Full dataset from API
-    private final List<Item> filteredList = new ArrayList<>();  // Filtered by search query
-    private final List<Item> pageList = new ArrayList<>();      // Current page only
+    // Login token, read at the time of each request so renewals are picked up
+    private TokenManager tokens;
+
+    // Single source of truth for the dataset (columnar; Item objects exist only for rendered rows)
+    private InventoryRepository repository;
+    private InventoryRepository.Listener repositoryListener;
+    private DocView filteredView = DocView.of(); // Store documents after search, filter and sort
+
+    // Trigram index over the store's names and codes, rebuilt whenever the dataset is reloaded
+    // and updated in place when an item is renamed or its code changes
+    private TrigramIndex searchIndex = TrigramIndex.build(new ArrayList<>(), new ArrayList<>());
+
+    // Latest text typed into the search box, re-applied whenever the dataset is reloaded
+    private String currentQuery = "";
+
+    // Runs keystroke searches off the UI thread; only the newest query's result is delivered
+    private SearchDebouncer<int[]> searchDebouncer;
+    private static final long SEARCH_DEBOUNCE_MS = 250;
+
+    // Number of ranked suggestions shown when a query has no exact match (e.g. a typo)
+    private static final int FUZZY_TOP_K = 20;
+
+    // Precomputed sort orders and low-stock ranges over the store, rebuilt on reload
+    private SortedItemViews sortedViews = new SortedItemViews(new ArrayList<>(), new ArrayList<>(), new int[0]);
+    private SortedItemViews.SortKey sortKey = SortedItemViews.SortKey.SERVER;
+    private int lowStockThreshold = -1; // Negative shows all stock levels
+    private boolean lowStockRules;      // Show only the repository's live low-stock set
+
+    // Result of the latest search (null when the query is empty), kept so sort/threshold changes skip the search
+    private int[] currentMatches;
+
+    // Server-side search mode: the backend filters and pages instead of downloading the full catalog
+    private boolean serverSearch;
+    private int serverTotal;
+    private RemoteItemSearch remoteSearch;
+    private SearchDebouncer<RemoteItemSearch.SearchPage> remoteDebouncer;
+    private static final String KEY_SERVER_SEARCH = "server_search";
+
+    // Infinite-scroll mode: a bounded window of pages follows the scroll position instead of prev/next paging
+    private boolean infiniteScroll;
+    private SlidingWindow<Item> window;
+    private LinearLayoutManager layoutManager;
+    private View paginationControls;
+    private static final String KEY_INFINITE_SCROLL = "infinite_scroll";
+    private static final int INFINITE_PAGE_SIZE = 50;
+    private static final int WINDOW_PAGES = 5;        // At most 250 items held at once
+    private static final int PREFETCH_DISTANCE = 15;  // Load the next page this many rows before the edge
 
     private ItemAdapter adapter;
 
+    // Set once the first inventory page has been shown, so startup is reported fully drawn only once
+    private boolean reportedFullyDrawn;
+
     /**
      * Initializes the activity, sets up the UI components, and handles the setup of
      * authentication, data retrieval, pagination, search, and filtering.
@@ -73,21 +115,23 @@ public class InventoryListActivity extends AppCompatActivity {
         setContentView(R.layout.activity_inventory_list);
 
         try {
-            // Load the auth token from persistent storage (SharedPreferences)
+            tokens = TokenManager.getInstance(this);
             SharedPreferences prefs = getSharedPreferences("user_prefs", MODE_PRIVATE);
-            authToken = prefs.getString("auth_token", "");
+            serverSearch = prefs.getBoolean(KEY_SERVER_SEARCH, false);
+            infiniteScroll = prefs.getBoolean(KEY_INFINITE_SCROLL, false);
+
+            // The user's role (e.g., Admin or User), decoded once from the token by the token manager
+            String userRole = tokens.getRole();
 
-            // Decode token to extract the user's role (e.g., Admin or User)
-            String userRole = getUserRoleFromToken(authToken);
+            searchDebouncer = new SearchDebouncer<>(SEARCH_DEBOUNCE_MS, ContextCompat.getMainExecutor(this));
+            remoteDebouncer = new SearchDebouncer<>(SEARCH_DEBOUNCE_MS, ContextCompat.getMainExecutor(this));
+            remoteSearch = RemoteItemSearch.getInstance(this);
+            repository = InventoryRepository.getInstance(this);
 
-            // Setup an activity launcher to refresh the item list when returning from editing
+            // Launcher for the editor; its changes arrive through the repository listener, not the result
             ActivityResultLauncher<Intent> editItemLauncher = registerForActivityResult(
                     new ActivityResultContracts.StartActivityForResult(),
-                    result -> {
-                        if (result.getResultCode() == RESULT_OK) {
-                            fetchInventoryItems(); // Refresh on successful edit
-                        }
-                    }
+                    result -> Log.d("InventoryListActivity", "Editor closed with result " + result.getResultCode())
             );
 
             // Link XML views to Java objects
@@ -95,10 +139,14 @@ public class InventoryListActivity extends AppCompatActivity {
             emptyListView = findViewById(R.id.emptyListView);
             SearchView searchView = findViewById(R.id.searchView);
             Spinner pageSizeSpinner = findViewById(R.id.pageSizeSpinner);
+            Spinner sortSpinner = findViewById(R.id.sortSpinner);
+            Spinner lowStockSpinner = findViewById(R.id.lowStockSpinner);
             Button refreshButton = findViewById(R.id.refreshButton);
             Button addButton = findViewById(R.id.addButton);
             prevButton = findViewById(R.id.prevButton);
             nextButton = findViewById(R.id.nextButton);
+            paginationControls = findViewById(R.id.paginationControls);
+            paginationControls.setVisibility(infiniteScroll ? View.GONE : View.VISIBLE);
 
             // If user is not an Admin, restrict access to the Add button (RBAC)
             if (!"Admin".equalsIgnoreCase(userRole)) {
@@ -106,10 +154,27 @@ public class InventoryListActivity extends AppCompatActivity {
             }
 
             // Setup the RecyclerView to show inventory items
-            itemListView.setLayoutManager(new LinearLayoutManager(this));
-            adapter = new ItemAdapter(pageList, this, authToken, userRole, editItemLauncher);
+            layoutManager = new LinearLayoutManager(this);
+            itemListView.setLayoutManager(layoutManager);
+            adapter = new ItemAdapter(this, userRole, editItemLauncher);
             itemListView.setAdapter(adapter);
 
+            // In infinite-scroll mode the window loads and evicts pages around the scroll position
+            window = new SlidingWindow<>(INFINITE_PAGE_SIZE, WINDOW_PAGES, PREFETCH_DISTANCE,
+                    (items, windowStart, total) -> {
+                        emptyListView.setVisibility(total == 0 ? View.VISIBLE : View.GONE);
+                        adapter.submitList(items);
+                    });
+            itemListView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+                @Override
+                public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                    if (infiniteScroll) {
+                        window.onVisibleRange(layoutManager.findFirstVisibleItemPosition(),
+                                layoutManager.findLastVisibleItemPosition());
+                    }
+                }
+            });
+
             // Spinner lets user choose page size (e.g., 10, 50, 100)
             pageSizeSpinner.setSelection(1); // Default to 10
             pageSizeSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
@@ -118,7 +183,14 @@ public class InventoryListActivity extends AppCompatActivity {
                     try {
                         String selectedValue = (String) parent.getItemAtPosition(position);
                         pageSize = Integer.parseInt(selectedValue); // Convert selection to int
-                        updatePage(); // Refresh pagination
+                        if (infiniteScroll) {
+                            return; // Page size only applies to prev/next paging
+                        }
+                        if (serverSearch) {
+                            loadServerPage(1, 0); // Page boundaries changed on the server side
+                        } else {
+                            updatePage(); // Refresh pagination
+                        }
                     } catch (NumberFormatException e) {
                         Log.e("InventoryListActivity", "Invalid page size selected", e);
                     }
@@ -128,18 +200,58 @@ public class InventoryListActivity extends AppCompatActivity {
                 public void onNothingSelected(AdapterView<?> parent) {}
             });
 
+            // Sort order: positions match the sort_options array (Default, Name, Code, Quantity)
+            sortSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+                @Override
+                public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                    sortKey = SortedItemViews.SortKey.values()[position];
+                    applyView(); // Reads a precomputed order; no re-sort
+                }
+
+                @Override
+                public void onNothingSelected(AdapterView<?> parent) {}
+            });
+
+            // Low-stock filter: first entry shows everything, the second the items low under the
+            // user's rules, the rest are quantity thresholds
+            lowStockSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+                @Override
+                public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                    try {
+                        lowStockRules = position == 1;
+                        lowStockThreshold = position <= 1
+                                ? -1
+                                : Integer.parseInt((String) parent.getItemAtPosition(position));
+                        applyView();
+                    } catch (NumberFormatException e) {
+                        Log.e("InventoryListActivity", "Invalid low-stock threshold selected", e);
+                    }
+                }
+
+                @Override
+                public void onNothingSelected(AdapterView<?> parent) {}
+            });
+
             // Pagination controls
             prevButton.setOnClickListener(v -> {
                 if (currentPage > 1) {
-                    currentPage--;
-                    updatePage();
+                    if (serverSearch) {
+                        loadServerPage(currentPage - 1, 0);
+                    } else {
+                        currentPage--;
+                        updatePage();
+                    }
                 }
             });
 
             nextButton.setOnClickListener(v -> {
-                if (currentPage * pageSize < filteredList.size()) {
-                    currentPage++;
-                    updatePage();
+                if (currentPage * pageSize < visibleTotal()) {
+                    if (serverSearch) {
+                        loadServerPage(currentPage + 1, 0);
+                    } else {
+                        currentPage++;
+                        updatePage();
+                    }
                 }
             });
 
@@ -147,7 +259,10 @@ public class InventoryListActivity extends AppCompatActivity {
             nextButton.setEnabled(false);
 
             // Manual refresh and new item entry handlers
-            refreshButton.setOnClickListener(v -> fetchInventoryItems());
+            refreshButton.setOnClickListener(v -> {
+                remoteSearch.invalidateCache(); // An explicit refresh must not be answered from cache
+                refreshList();
+            });
             addButton.setOnClickListener(v -> startActivity(new Intent(this, AddItemActivity.class)));
 
             // Listen for real-time search queries
@@ -157,13 +272,56 @@ public class InventoryListActivity extends AppCompatActivity {
 
                 @Override
                 public boolean onQueryTextChange(String newText) {
-                    filterItems(newText); // Apply filtering based on query
+                    scheduleFilter(newText); // Debounced, evaluated off the UI thread
                     return true;
                 }
             });
 
-            // Load inventory list from backend
-            fetchInventoryItems();
+            // Follow every add, edit and delete made anywhere in the app
+            repositoryListener = new InventoryRepository.Listener() {
+                @Override
+                public void onCatalogChanged() {
+                    showCatalogChange();
+                }
+
+                @Override
+                public void onItemChanged(String id, boolean relabeled) {
+                    showItemChange(id, relabeled);
+                }
+            };
+            repository.addListener(repositoryListener);
+
+            // Start watching for items that run out, for the SMS digest
+            LowStockAlerts.getInstance(this);
+
+            // Keep the disk cache warm in the background so later launches need no blocking fetch
+            SyncWorker.ensureScheduled(this);
+
+            // Show what is already loaded or cached at once. A catalog loaded in this process
+            // is kept current by the change stream, so it is fetched only if it may be out of
+            // date; a cached copy is always refreshed in the background, because the stream
+            // cannot replay changes made elsewhere since the cache was written.
+            if (serverSearch) {
+                refreshList();
+            } else if (repository.isLoaded()) {
+                showCatalogChange();
+                if (!repository.isCacheFresh()) {
+                    refreshList();
+                }
+            } else {
+                repository.loadCached(new InventoryRepository.Callback() {
+                    @Override
+                    public void onSuccess() {
+                        reportListDrawn();
+                    }
+
+                    @Override
+                    public void onFailure(Exception error) {
+                        // Nothing usable on disk; the download below fills the list
+                    }
+                });
+                refreshList();
+            }
 
         } catch (Exception e) {
             Log.e("InventoryListActivity", "Unexpected error during initialization", e);
@@ -172,12 +330,62 @@ public class InventoryListActivity extends AppCompatActivity {
     }
 
     /**
-     * Refreshes the inventory list every time the activity regains focus.
+     * Starts loading what this screen shows first, so that the download overlaps the
+     * transition from the login screen; the screen then waits for that download instead
+     * of starting its own. In server-side search mode this is the first page of all items,
+     * otherwise the full catalog (or just the cached copy, if it is still fresh).
+     * @param context   Any context
+     * @param authToken Bearer token for the API
+     */
+    static void prefetch(Context context, String authToken) {
+        SharedPreferences prefs = context.getSharedPreferences("user_prefs", MODE_PRIVATE);
+        if (prefs.getBoolean(KEY_SERVER_SEARCH, false)) {
+            int size = prefs.getBoolean(KEY_INFINITE_SCROLL, false) ? INFINITE_PAGE_SIZE : DEFAULT_PAGE_SIZE;
+            RemoteItemSearch.getInstance(context).prefetch("", 1, size, authToken);
+        } else {
+            InventoryRepository.getInstance(context).prefetch(authToken);
+        }
+    }
+
+    /**
+     * Starts receiving changes made on other devices while the list is visible.
+     */
+    @Override
+    protected void onStart() {
+        super.onStart();
+        if (repository != null) {
+            repository.startChanges();
+        }
+    }
+
+    /**
+     * Sends inline quantity taps still waiting to be coalesced, since the process may be
+     * killed once the screen is in the background, and closes the change stream.
      */
     @Override
-    protected void onResume() {
-        super.onResume();
-        fetchInventoryItems(); // Reload data every time the screen regains focus
+    protected void onStop() {
+        if (repository != null) {
+            repository.flushAdjustments();
+            repository.stopChanges();
+        }
+        super.onStop();
+    }
+
+    /**
+     * Stops the background search thread and the repository subscription when the activity is destroyed.
+     */
+    @Override
+    protected void onDestroy() {
+        if (repository != null) {
+            repository.removeListener(repositoryListener);
+        }
+        if (searchDebouncer != null) {
+            searchDebouncer.shutdown();
+        }
+        if (remoteDebouncer != null) {
+            remoteDebouncer.shutdown();
+        }
+        super.onDestroy();
     }
 
     /**
@@ -189,6 +397,8 @@ public class InventoryListActivity extends AppCompatActivity {
     public boolean onCreateOptionsMenu(Menu menu) {
         // Inflate top-right options (Notifications & Logout)
         getMenuInflater().inflate(R.menu.appbar_menu, menu);
+        menu.findItem(R.id.action_server_search).setChecked(serverSearch);
+        menu.findItem(R.id.action_infinite_scroll).setChecked(infiniteScroll);
         return true;
     }
 
@@ -206,11 +416,35 @@ public class InventoryListActivity extends AppCompatActivity {
                 // Launch SMS notifications settings
                 startActivity(new Intent(this, SmsNotificationsActivity.class));
                 return true;
+            } else if (id == R.id.action_server_search) {
+                // Switch between on-device filtering and server-side search, and remember the choice
+                serverSearch = !item.isChecked();
+                item.setChecked(serverSearch);
+                getSharedPreferences("user_prefs", MODE_PRIVATE).edit()
+                        .putBoolean(KEY_SERVER_SEARCH, serverSearch)
+                        .apply();
+                refreshList();
+                return true;
+            } else if (id == R.id.action_infinite_scroll) {
+                // Switch between prev/next paging and infinite scrolling, and remember the choice
+                infiniteScroll = !item.isChecked();
+                item.setChecked(infiniteScroll);
+                getSharedPreferences("user_prefs", MODE_PRIVATE).edit()
+                        .putBoolean(KEY_INFINITE_SCROLL, infiniteScroll)
+                        .apply();
+                paginationControls.setVisibility(infiniteScroll ? View.GONE : View.VISIBLE);
+                if (serverSearch) {
+                    loadServerPage(1, 0);
+                } else {
+                    applyView();
+                }
+                return true;
             } else if (id == R.id.action_logout) {
-                // Clear login token and return to login screen
-                SharedPreferences.Editor editor = getSharedPreferences("user_prefs", MODE_PRIVATE).edit();
-                editor.remove("auth_token");
-                editor.apply();
+                // Clear login token, stop background sync and drop this user's data, then return to login screen
+                tokens.clear();
+                SyncWorker.cancel(this);
+                repository.clear();
+                LowStockAlerts.getInstance(this).clear();
 
                 Intent intent = new Intent(this, ActivityLogin.class);
                 startActivity(intent);
@@ -225,114 +459,367 @@ public class InventoryListActivity extends AppCompatActivity {
     }
 
     /**
-     * Requests the inventory list from the backend API.
-     * Parses the JSON response and updates the internal data list.
+     * Reloads whatever the current search mode displays: the full catalog for on-device
+     * filtering, or only the current page of the server-side search.
      */
-    private void fetchInventoryItems() {
-        String url = "http://192.168.86.33:3000/api/items";
+    private void refreshList() {
+        if (serverSearch) {
+            loadServerPage(currentPage, 0);
+        } else {
+            fetchInventoryItems();
+        }
+    }
 
-        Map<String, String> headers = new HashMap<>();
-        headers.put("Authorization", "Bearer " + authToken);
+    /**
+     * Asks the repository to download the inventory list from the backend API.
+     * The new data is shown through the repository listener.
+     */
+    private void fetchInventoryItems() {
+        repository.refresh(tokens.getToken(), new InventoryRepository.Callback() {
+            @Override
+            public void onSuccess() {
+                reportListDrawn();
+            }
 
-        JsonArrayRequest req = new JsonArrayRequest(
-                Request.Method.GET, url, null,
-                response -> {
-                    try {
-                        mItemList.clear(); // Clear old data
-                        for (int i = 0; i < response.length(); i++) {
-                            JSONObject o = response.getJSONObject(i);
-                            Item item = new Item("", "", "", 0);
-                            item.setId(o.getString("_id"));
-                            item.setCode(o.getString("code"));
-                            item.setName(o.getString("name"));
-                            item.setQuantity(o.getInt("quantity"));
-                            mItemList.add(item);
-                        }
-                        filterItems(""); // Trigger display of all items
-                    } catch (JSONException e) {
-                        Log.e("InventoryListActivity", "Failed to parse API response", e);
-                        Toast.makeText(this, "Data parsing error", Toast.LENGTH_SHORT).show();
-                    }
-                },
-                error -> {
-                    Log.e("InventoryListActivity", "API request failed", error);
-                    Toast.makeText(this, "Unable to load items", Toast.LENGTH_SHORT).show();
-                }
-        ) {
             @Override
-            public Map<String, String> getHeaders() {
-                return headers; // Attach Bearer token for authorization
+            public void onFailure(Exception error) {
+                Log.e("InventoryListActivity", "API request failed", error);
+                Toast.makeText(InventoryListActivity.this, "Unable to load items", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the trigram search index and the sorted views from the current store.
+     * Must be called every time the store is replaced so document numbers stay aligned.
+     */
+    private void rebuildIndexes() {
+        ItemStore store = repository.getStore();
+        List<String> names = store.names();
+        List<String> codes = store.codes();
+        searchIndex = TrigramIndex.build(names, codes);
+        sortedViews = new SortedItemViews(names, codes, store.quantities());
+    }
+
+    /**
+     * Queues a search for the given query on the background debouncer.
+     * Rapid keystrokes collapse into a single evaluation, any older in-flight search is
+     * cancelled, and only the result for the newest query is applied on the UI thread.
+     * @param query The search query typed by the user.
+     */
+    private void scheduleFilter(String query) {
+        currentQuery = query;
+        if (serverSearch) {
+            loadServerPage(1, SEARCH_DEBOUNCE_MS);
+            return;
+        }
+        TrigramIndex index = searchIndex; // Renames cancel this search before updating the index
+        searchDebouncer.submit(query, q -> matchItems(index, q), (q, matches) -> {
+            // Ignore results computed against an index that a refresh has since replaced
+            if (index == searchIndex) {
+                showMatches(matches);
+            }
+        });
+    }
+
+    /**
+     * Re-runs the current query on the background debouncer after the index changed, and
+     * shows the result without returning to the first page.
+     */
+    private void rematch() {
+        TrigramIndex index = searchIndex;
+        searchDebouncer.submit(currentQuery, 0, q -> matchItems(index, q), (q, matches) -> {
+            if (index == searchIndex) {
+                currentMatches = matches;
+                showCurrentView();
             }
-        };
+        });
+    }
 
-        Volley.newRequestQueue(this).add(req); // Execute request
+    /**
+     * Runs the exact substring search, falling back to the ranked typo-tolerant search.
+     * @param index The index to search.
+     * @param query The search query typed by the user.
+     * @return Store documents, or null for an empty query, meaning every item.
+     */
+    private static int[] matchItems(TrigramIndex index, String query) {
+        return FuzzySearch.matchItems(index, query, FUZZY_TOP_K);
     }
 
     /**
-     * Filters the inventory items based on the user's search query.
-     * @param query The search query to filter inventory items by name.
+     * Records a new search result and shows the first page of it.
+     * @param matches Store documents in relevance order, or null for every item.
      */
-    private void filterItems(String query) {
+    private void showMatches(int[] matches) {
+        currentMatches = matches;
+        applyView();
+    }
+
+    /**
+     * Combines the current search result with the low-stock threshold and sort order
+     * using the precomputed views, then shows the first page.
+     */
+    private void applyView() {
+        if (serverSearch) {
+            return; // Sorting and low-stock filters apply to the on-device catalog only
+        }
         try {
-            filteredList.clear();
-            for (Item item : mItemList) {
-                if (item.getName().toLowerCase().contains(query.toLowerCase())) {
-                    filteredList.add(item);
-                }
+            filteredView = currentView();
+            currentPage = 1; // Reset to first page on new search, sort or filter
+            if (infiniteScroll) {
+                window.reset(localPageSource());
+            } else {
+                updatePage();
             }
-            currentPage = 1; // Reset to first page on new search
-            updatePage();
         } catch (Exception e) {
             Log.e("InventoryListActivity", "Error filtering items", e);
         }
     }
 
     /**
-     * Updates the displayed list based on the current page.
-     * Handles enabling/disabling pagination buttons.
+     * Shows a catalog that was reloaded or had items added or removed. Document numbers may
+     * have changed, so the indexes are rebuilt and the search re-run, but the list stays on
+     * the current page. In server-side search mode the current page is requested again.
      */
-    private void updatePage() {
+    private void showCatalogChange() {
         try {
-            pageList.clear();
+            if (serverSearch) {
+                loadServerPage(currentPage, 0); // One page from the server; its cache was invalidated
+                return;
+            }
+            searchDebouncer.cancel(); // A pending keystroke search would use the replaced index
+            rebuildIndexes();
+            if (currentMatches == null) {
+                showCurrentView(); // Every item is listed; no old document numbers to drop
+            } else {
+                currentMatches = new int[0]; // Old document numbers; the rows on screen stay until the new result
+            }
+            rematch();
+        } catch (Exception e) {
+            Log.e("InventoryListActivity", "Error showing updated items", e);
+        }
+    }
+
+    /**
+     * Shows an item changed in place in the repository, e.g. by EditItemActivity or an
+     * inline +/- button. Only that item is repositioned in the sorted views (or, for a
+     * server-side search page, replaced where it is); nothing is downloaded again.
+     * @param id        Id of the changed item.
+     * @param relabeled True if the change renamed the item or changed its code.
+     */
+    private void showItemChange(String id, boolean relabeled) {
+        try {
+            if (serverSearch) {
+                patchDisplayedItem(id); // Keep the server's page; just show the item's new values
+                return;
+            }
+            ItemStore store = repository.getStore();
+            int doc = store.indexOf(id);
+            if (doc < 0) {
+                return;
+            }
+            sortedViews.updateQuantity(doc, store.quantity(doc));
+            if (relabeled) {
+                String name = store.name(doc);
+                String code = store.code(doc);
+                sortedViews.updateName(doc, name);
+                sortedViews.updateCode(doc, code);
+                searchDebouncer.cancel(); // A search reading the index mid-update is never delivered
+                searchIndex.updateName(doc, name);
+                searchIndex.updateCode(doc, code);
+                rematch(); // The item may now match the query, or no longer match it
+            }
+            showCurrentView();
+        } catch (Exception e) {
+            Log.e("InventoryListActivity", "Error showing item change", e);
+        }
+    }
 
-            int startIndex = (currentPage - 1) * pageSize;
-            int endIndex = Math.min(startIndex + pageSize, filteredList.size());
+    /**
+     * Swaps the displayed copy of one item for its current values, leaving every other row
+     * and the page itself as they are. Used in server-side search mode, where the page's
+     * contents are decided by the server.
+     * @param id Id of the changed item.
+     */
+    private void patchDisplayedItem(String id) {
+        Item updated = repository.get(id);
+        if (updated == null) {
+            return;
+        }
+        UnaryOperator<Item> patch = item -> id.equals(item.getId()) ? updated : item;
+        if (infiniteScroll) {
+            window.replaceAll(patch);
+        } else {
+            List<Item> rows = new ArrayList<>(adapter.getCurrentList());
+            rows.replaceAll(patch);
+            adapter.submitList(Collections.unmodifiableList(rows));
+        }
+    }
 
-            for (int i = startIndex; i < endIndex; i++) {
-                pageList.add(filteredList.get(i));
+    /**
+     * Derives the visible documents from the current search result, low-stock filter and
+     * sort order. The rule-based filter reads the repository's live low-stock set, so it
+     * needs no pass over the catalog.
+     */
+    private DocView currentView() {
+        if (!lowStockRules) {
+            return sortedViews.view(currentMatches, sortKey, lowStockThreshold);
+        }
+        LowStockTracker lowStock = repository.getLowStock();
+        int[] low;
+        if (currentMatches == null) {
+            low = lowStock.lowDocs();
+        } else {
+            low = new int[currentMatches.length];
+            int kept = 0;
+            for (int doc : currentMatches) {
+                if (lowStock.isLowDoc(doc)) {
+                    low[kept++] = doc;
+                }
             }
+            low = Arrays.copyOf(low, kept);
+        }
+        return sortedViews.view(low, sortKey, -1);
+    }
+
+    /**
+     * Re-derives the view from the current search result and shows it without returning
+     * to the first page (the page is clamped if the view became shorter).
+     */
+    private void showCurrentView() {
+        filteredView = currentView();
+        if (infiniteScroll) {
+            window.refresh(localPageSource());
+        } else {
+            currentPage = Math.max(1, Math.min(currentPage, (filteredView.length() + pageSize - 1) / pageSize));
+            updatePage();
+        }
+    }
+
+    /**
+     * Requests one page of the current query from the server-side search endpoint.
+     * Runs on the remote debouncer's background thread, so a newer query or page
+     * request cancels this one; cached pages return without a network round trip.
+     * @param page    1-based page number to show.
+     * @param delayMs Debounce delay; zero for explicit page changes.
+     */
+    private void loadServerPage(int page, long delayMs) {
+        if (infiniteScroll) {
+            window.reset(serverPageSource(delayMs)); // Restart the window at the top of the new result
+            return;
+        }
+        int size = pageSize;
+        remoteDebouncer.submit(currentQuery, delayMs,
+                q -> remoteSearch.search(q, page, size, tokens.getToken()),
+                new SearchDebouncer.Listener<RemoteItemSearch.SearchPage>() {
+                    @Override
+                    public void onResult(String query, RemoteItemSearch.SearchPage result) {
+                        showServerPage(result);
+                    }
+
+                    @Override
+                    public void onError(String query, Exception error) {
+                        Log.e("InventoryListActivity", "Server search failed", error);
+                        Toast.makeText(InventoryListActivity.this, "Unable to load items", Toast.LENGTH_SHORT).show();
+                    }
+                });
+    }
+
+    /**
+     * Page source for infinite scrolling over the on-device view. Captures the current
+     * store and view so that a later search, sort or reload cannot shift the rows it serves.
+     * An item changed in place can move within the view; showItemChange installs a new
+     * source straight afterwards.
+     * @return A source that materializes rows of filteredView synchronously.
+     */
+    private SlidingWindow.PageSource<Item> localPageSource() {
+        ItemStore items = repository.getStore();
+        DocView view = filteredView;
+        return (offset, count, callback) -> callback.onLoaded(items.range(view, offset, count, Item::new), view.length());
+    }
+
+    /**
+     * Page source for infinite scrolling over the server-side search. Pages are fetched on
+     * the remote debouncer's thread (and its LRU cache), then delivered on the UI thread.
+     * @param firstDelayMs Debounce delay for the first page of a new query.
+     * @return A source backed by RemoteItemSearch.
+     */
+    private SlidingWindow.PageSource<Item> serverPageSource(long firstDelayMs) {
+        String query = currentQuery;
+        return (offset, count, callback) -> remoteDebouncer.submit(query, offset == 0 ? firstDelayMs : 0,
+                q -> remoteSearch.search(q, offset / INFINITE_PAGE_SIZE + 1, INFINITE_PAGE_SIZE, tokens.getToken()),
+                new SearchDebouncer.Listener<RemoteItemSearch.SearchPage>() {
+                    @Override
+                    public void onResult(String q, RemoteItemSearch.SearchPage result) {
+                        repository.rememberAll(result.items); // So the editor can find them by id
+                        callback.onLoaded(result.items, result.total);
+                    }
+
+                    @Override
+                    public void onError(String q, Exception error) {
+                        Log.e("InventoryListActivity", "Server search failed", error);
+                        callback.onError(error);
+                    }
+                });
+    }
+
+    /**
+     * Displays a page returned by the server-side search.
+     * @param result The page to display.
+     */
+    private void showServerPage(RemoteItemSearch.SearchPage result) {
+        try {
+            currentPage = result.page;
+            serverTotal = result.total;
 
             prevButton.setEnabled(currentPage > 1);
-            nextButton.setEnabled(currentPage * pageSize < filteredList.size());
+            nextButton.setEnabled(currentPage * pageSize < serverTotal);
 
-            emptyListView.setVisibility(filteredList.isEmpty() ? View.VISIBLE : View.GONE);
-            adapter.notifyDataSetChanged(); // Notify UI to refresh
+            emptyListView.setVisibility(result.items.isEmpty() ? View.VISIBLE : View.GONE);
+            repository.rememberAll(result.items); // So the editor can find them by id
+            adapter.submitList(result.items); // Already immutable; only changed rows are rebound
+            reportListDrawn();
         } catch (Exception e) {
             Log.e("InventoryListActivity", "Pagination logic error", e);
         }
     }
 
     /**
-     * Extracts the user's role from the JWT payload for role-based access control (RBAC).
-     * @param token The JWT token used for authentication.
-     * @return The user's role extracted from the JWT token, defaulting to "User".
+     * Marks startup as complete the first time inventory data reaches the list.
+     * Startup benchmarks measure time-to-full-display up to this call rather than to the
+     * first frame, which would only show an empty list.
+     */
+    private void reportListDrawn() {
+        if (!reportedFullyDrawn) {
+            reportedFullyDrawn = true;
+            reportFullyDrawn();
+        }
+    }
+
+    /**
+     * Returns the number of items matching the current view, in either search mode.
+     * @return Total matches across all pages.
      */
-    private String getUserRoleFromToken(String token) {
+    private int visibleTotal() {
+        return serverSearch ? serverTotal : filteredView.length();
+    }
+
+    /**
+     * Updates the displayed list based on the current page.
+     * Handles enabling/disabling pagination buttons.
+     */
+    private void updatePage() {
         try {
-            String[] parts = token.split("\\.");
-            if (parts.length >= 2) {
-                String payload = parts[1];
+            // Seek straight into the precomputed view; only the visible rows become Item objects
+            List<Item> pageList = repository.getStore().page(filteredView, currentPage, pageSize, Item::new);
 
-                byte[] decodedBytes = android.util.Base64.decode(payload, android.util.Base64.URL_SAFE);
-                String decodedPayload = new String(decodedBytes, java.nio.charset.StandardCharsets.UTF_8);
+            prevButton.setEnabled(currentPage > 1);
+            nextButton.setEnabled(currentPage * pageSize < filteredView.length());
 
-                JSONObject jsonObject = new JSONObject(decodedPayload);
-                return jsonObject.optString("role", "User"); // Default fallback
-            }
+            emptyListView.setVisibility(filteredView.length() == 0 ? View.VISIBLE : View.GONE);
+            adapter.submitList(pageList); // Diffed off the UI thread
         } catch (Exception e) {
-            Log.e("InventoryListActivity", "Failed to decode JWT", e);
+            Log.e("InventoryListActivity", "Pagination logic error", e);
         }
-
-        return "User";
     }
 }
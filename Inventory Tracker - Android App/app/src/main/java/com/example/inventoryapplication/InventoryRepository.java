@@ -0,0 +1,1164 @@
+package com.example.inventoryapplication;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.JsonArrayRequest;
+import com.android.volley.toolbox.JsonObjectRequest;
+import com.android.volley.toolbox.StringRequest;
+import com.android.volley.toolbox.Volley;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Single source of truth for the inventory, keyed by item id.
+ * The repository owns the loaded catalog and every network call that reads or changes it.
+ * Screens hand each other item ids rather than copies of items, read items from here, and
+ * subscribe through {@link #addListener} instead of downloading the catalog again to see
+ * what changed.
+ * Adds, edits and deletes are applied optimistically: the change is made locally and
+ * announced straight away, then sent to the API, and reverted (and announced again) if the
+ * API rejects it.
+ * Every item carries the server's version number. Edits and deletions are sent conditional
+ * on the version they were made against; when someone else changed the item first, the API
+ * answers 409 with the item's current state, and the change is merged onto it with
+ * {@link ConflictMerge} and resent, or reverted if it no longer applies.
+ * The full catalog lives in an {@link ItemStore}; items seen only through server-side
+ * search pages are kept in a small LRU map alongside it. Every downloaded catalog is also
+ * written to {@link InventoryCache}, which {@link SyncWorker} keeps warm in the background,
+ * so a cold start can show the cached copy instead of waiting for the network. A downloaded
+ * catalog never discards local changes it does not reflect yet, or values newer than it.
+ * A {@link LowStockTracker} follows every change to the catalog, so the set of items low on
+ * stock is always current without rescanning it.
+ * While inventory is on screen, a {@link ChangeStreamClient} receives every change made
+ * elsewhere as it happens and applies it to the loaded items, so nothing has to be polled;
+ * only while the stream is unreachable is the catalog downloaded periodically instead.
+ * All requests share one Volley queue. Must only be used from the main thread.
+ */
+public class InventoryRepository {
+
+    private static final String ITEMS_URL = BuildConfig.API_BASE_URL + "/items";
+
+    /** Items from server-side search pages remembered for lookups by id. */
+    private static final int LOOSE_ITEMS_KEPT = 500;
+
+    /** Prefix of the temporary ids given to added items until the server assigns one. */
+    private static final String PENDING_ID_PREFIX = "pending:";
+
+    private static InventoryRepository instance;
+
+    /**
+     * Receives changes to the inventory. Called on the main thread.
+     */
+    public interface Listener {
+        /**
+         * The catalog was replaced, or items were added or removed, so document numbers
+         * of the store may have changed.
+         */
+        void onCatalogChanged();
+
+        /**
+         * One item's values changed in place; document numbers are unchanged.
+         * @param id        Id of the item
+         * @param relabeled True if its name or code changed, not just its quantity
+         */
+        void onItemChanged(String id, boolean relabeled);
+    }
+
+    /**
+     * Outcome of one request, for the screen that started it.
+     */
+    public interface Callback {
+        void onSuccess();
+
+        /**
+         * The request failed; for a mutation, the local change has already been reverted.
+         */
+        void onFailure(Exception error);
+    }
+
+    private final Context context;
+    private final RequestQueue requestQueue;
+    private final InventoryCache cache;
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Listener> listeners = new ArrayList<>();
+    private final LowStockTracker lowStock;
+    private int pendingIds;
+    private boolean loaded;
+
+    /** Quiet period after the last tap on an item before its net change is sent. */
+    private static final long ADJUST_QUIET_MS = 600;
+
+    /** Longest a tap waits to be sent while taps on the same item keep coming. */
+    private static final long ADJUST_MAX_DELAY_MS = 3_000;
+
+    private final TapCoalescer<String> adjustments;
+    private final Map<String, Callback> adjustmentCallbacks = new HashMap<>();
+    private String adjustmentToken;
+
+    /** Number of unanswered changes per item id. */
+    private final Map<String, Integer> outstanding = new HashMap<>();
+
+    /** Items added here whose addition the API has not answered yet: temporary id to code, in order added. */
+    private final Map<String, String> pendingAdds = new LinkedHashMap<>();
+
+    /**
+     * Ids of items deleted here or elsewhere that a download read before the deletion would
+     * still list. Each is forgotten once a download no longer lists it.
+     */
+    private final Set<String> deletedIds = new HashSet<>();
+
+    /** Ids the change stream added while the download in flight was under way, or null if none is. */
+    private List<String> streamedAdds;
+
+    /** Reconnect delay until the server suggests one. */
+    private static final long STREAM_RETRY_MS = 3_000;
+
+    /** Longest delay between reconnects while the change stream keeps failing. */
+    private static final long STREAM_MAX_BACKOFF_MS = 60_000;
+
+    /** Failed reconnects in a row before the catalog is polled instead. */
+    private static final int STREAM_FAILURES_BEFORE_POLLING = 3;
+
+    /** Shortest time between catalog downloads while the change stream is unavailable. */
+    private static final long STREAM_POLL_INTERVAL_MS = 60_000;
+
+    /** Delay before a catalog changed by pushed events is written to the disk cache, so bursts write once. */
+    private static final long CACHE_WRITE_DELAY_MS = 5_000;
+
+    private ChangeStreamClient changeStream;
+    private boolean cacheWriteScheduled;
+
+    /** Callers waiting for the catalog download in flight, or null if none is. */
+    private List<Callback> refreshWaiters;
+
+    /** Callers waiting for the disk cache read in flight, or null if none is. */
+    private List<Callback> cacheLoadWaiters;
+
+    /** Marks a change sent without a version condition, or a response without a version. */
+    private static final int ANY_VERSION = ConflictRetry.ANY_VERSION;
+
+    /** Times a change is re-based and resent after version conflicts before giving up. */
+    private static final int MAX_CONFLICT_RETRIES = 3;
+
+    /**
+     * One relative change to an item on its way to the API, as it was made; a
+     * {@link ConflictRetry} re-bases it after conflicts.
+     */
+    private static final class PendingChange {
+        final String id;
+        final String code;
+        final String baseName;  // Name the change was made against, for merging renames
+        final String authToken;
+        final Callback callback;
+        final Runnable revert;  // Takes the local change back off after a rejection
+        final Runnable done;    // Run last, whatever the outcome; may be null
+        final int delta;
+        final String name;           // New name, or null if not renaming
+        final int expectedVersion;   // Or ANY_VERSION
+
+        PendingChange(String id, String code, String baseName, int delta, String name, int expectedVersion,
+                      String authToken, Callback callback, Runnable revert, Runnable done) {
+            this.id = id;
+            this.code = code;
+            this.baseName = baseName;
+            this.delta = delta;
+            this.name = name;
+            this.expectedVersion = expectedVersion;
+            this.authToken = authToken;
+            this.callback = callback;
+            this.revert = revert;
+            this.done = done;
+        }
+    }
+
+    private static final Callback NO_CALLBACK = new Callback() {
+        @Override
+        public void onSuccess() {
+        }
+
+        @Override
+        public void onFailure(Exception error) {
+        }
+    };
+
+    private ItemStore store = new ItemStore.Builder(0).build();
+    private final Map<String, Item> looseItems = new LinkedHashMap<String, Item>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Item> eldest) {
+            return size() > LOOSE_ITEMS_KEPT;
+        }
+    };
+
+    private InventoryRepository(Context context) {
+        this.context = context.getApplicationContext();
+        requestQueue = Volley.newRequestQueue(this.context);
+        cache = new InventoryCache(this.context);
+        lowStock = new LowStockTracker(loadLowStockRules(this.context));
+        adjustments = new TapCoalescer<>(ADJUST_QUIET_MS, ADJUST_MAX_DELAY_MS,
+                (task, delayMs) -> {
+                    mainHandler.postDelayed(task, delayMs);
+                    return () -> mainHandler.removeCallbacks(task);
+                },
+                this::writeAdjustment);
+    }
+
+    /**
+     * Returns the shared repository, creating it on first use.
+     * @param context Any context; only the application context is retained
+     * @return The process-wide repository
+     */
+    public static synchronized InventoryRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new InventoryRepository(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the request queue shared by every API client in the app.
+     */
+    public RequestQueue getRequestQueue() {
+        return requestQueue;
+    }
+
+    /**
+     * Returns the live set of catalog items low on stock. It is updated before listeners
+     * hear of a change, so they can read it straight away.
+     */
+    public LowStockTracker getLowStock() {
+        return lowStock;
+    }
+
+    /**
+     * Replaces the low-stock rules, saving them for later launches.
+     */
+    public void setLowStockRules(LowStockRules rules) {
+        context.getSharedPreferences(SmsNotificationsActivity.PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .putString(SmsNotificationsActivity.KEY_LOW_STOCK_RULES, rules.toString())
+                .apply();
+        lowStock.setRules(rules);
+        notifyCatalogChanged(); // Anything showing the set must redraw it
+    }
+
+    /**
+     * Subscribes to inventory changes. Listeners must be removed when their screen is destroyed.
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the loaded catalog. Callers may read it and keep it as a snapshot until the
+     * next {@link Listener#onCatalogChanged}, but changes must go through the repository.
+     */
+    public ItemStore getStore() {
+        return store;
+    }
+
+    /**
+     * Returns true once a catalog has been loaded, from the API or from the disk cache.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Returns true if the disk cache was confirmed against the server recently enough that
+     * a catalog already loaded in this process needs no fetch: the next background sync
+     * would not have run yet, and no local change has been made since. A catalog read from
+     * the cache at start-up is always refreshed, since the change stream cannot replay what
+     * happened before it connected.
+     */
+    public boolean isCacheFresh() {
+        long interval = cache.syncInterval() > 0 ? cache.syncInterval() : SyncWorker.POLICY.initialInterval();
+        return SyncWorker.POLICY.isFresh(cache.ageMs(), interval);
+    }
+
+    /**
+     * Loads the catalog from the disk cache, reading and parsing it off the main thread.
+     * Does nothing to a catalog that is already loaded, including one a download delivers first.
+     * A call while a read is already in flight waits for that read instead of starting another.
+     * @param callback Told whether a cached catalog was found and is now loaded
+     */
+    public void loadCached(Callback callback) {
+        if (loaded) {
+            callback.onSuccess();
+            return;
+        }
+        if (cacheLoadWaiters != null) {
+            cacheLoadWaiters.add(callback); // E.g. started during login
+            return;
+        }
+        List<Callback> waiters = new ArrayList<>();
+        waiters.add(callback);
+        cacheLoadWaiters = waiters;
+        diskExecutor.execute(() -> {
+            try {
+                String body = cache.read();
+                if (body == null) {
+                    mainHandler.post(() -> finishCacheLoad(waiters, null, new IllegalStateException("No cached inventory")));
+                    return;
+                }
+                ItemStore cached = InventoryJson.parseStore(new JSONArray(body)); // Not shared yet, so safe off the main thread
+                mainHandler.post(() -> finishCacheLoad(waiters, cached, null));
+            } catch (JSONException e) {
+                Log.e("InventoryRepository", "Failed to parse cached inventory", e);
+                mainHandler.post(() -> finishCacheLoad(waiters, null, e));
+            }
+        });
+    }
+
+    /**
+     * Takes a catalog that {@link SyncWorker} downloaded and found changed, keeping local
+     * changes it does not reflect (see {@link #merge}). Ignored until a catalog is loaded,
+     * since nothing is displaying inventory then.
+     * @param items Response of {@code GET /api/items}
+     */
+    public void onSynced(JSONArray items) {
+        if (!loaded) {
+            return;
+        }
+        try {
+            store = merge(items, null);
+            notifyCatalogChanged();
+        } catch (JSONException e) {
+            Log.e("InventoryRepository", "Failed to parse synced inventory", e);
+        }
+    }
+
+    /**
+     * Forgets the loaded catalog and deletes the disk cache, e.g. on logout.
+     */
+    public void clear() {
+        stopChanges();
+        changeStream = null; // The next user's stream starts afresh
+        store = new ItemStore.Builder(0).build();
+        looseItems.clear();
+        pendingAdds.clear();
+        deletedIds.clear();
+        streamedAdds = null;
+        refreshWaiters = null; // Results of reads in flight are dropped
+        cacheLoadWaiters = null;
+        loaded = false;
+        lowStock.clear();
+        diskExecutor.execute(cache::clear);
+        notifyCatalogChanged();
+    }
+
+    /**
+     * Downloads the full catalog and replaces the loaded one, keeping local changes the
+     * download does not reflect (see {@link #merge}). Unchanged text is reused from the
+     * previous store rather than copied.
+     * A call while a download is already in flight, such as the one started during login,
+     * waits for that download instead of starting another.
+     * @param authToken Bearer token for the API
+     * @param callback  Told when the new catalog is in place, or why it is not
+     */
+    public void refresh(String authToken, Callback callback) {
+        if (refreshWaiters != null) {
+            refreshWaiters.add(callback);
+            return;
+        }
+        List<Callback> waiters = new ArrayList<>();
+        waiters.add(callback);
+        refreshWaiters = waiters;
+        streamedAdds = new ArrayList<>();
+        JsonArrayRequest request = new JsonArrayRequest(Request.Method.GET, ITEMS_URL, null,
+                response -> {
+                    if (refreshWaiters != waiters) {
+                        return; // Cleared meanwhile, e.g. by logout
+                    }
+                    refreshWaiters = null;
+                    List<String> streamed = streamedAdds;
+                    streamedAdds = null;
+                    try {
+                        store = merge(response, streamed);
+                        loaded = true;
+                        diskExecutor.execute(() -> cache.write(response.toString())); // Next cold start shows this copy
+                        notifyCatalogChanged();
+                        finishAll(waiters, null);
+                    } catch (JSONException e) {
+                        Log.e("InventoryRepository", "Failed to parse API response", e);
+                        finishAll(waiters, e);
+                    }
+                },
+                error -> {
+                    Log.e("InventoryRepository", "API request failed", error);
+                    if (refreshWaiters == waiters) {
+                        refreshWaiters = null;
+                        streamedAdds = null;
+                        finishAll(waiters, error);
+                    }
+                }
+        ) {
+            @Override
+            public Map<String, String> getHeaders() {
+                return headers(authToken, false); // Attach Bearer token for authorization
+            }
+        };
+        requestQueue.add(request);
+    }
+
+    /**
+     * Starts bringing the catalog up to date without waiting: loads the disk cache if nothing
+     * is loaded, and downloads the catalog in the background. Screens that ask for either
+     * while it is in flight wait for it instead of starting their own.
+     * The download runs even when the cache is fresh. A new process has no change stream
+     * position to resume from, so the stream only delivers changes made from now on, and
+     * without the download, changes made elsewhere since the cache was written would never
+     * arrive.
+     * @param authToken Bearer token for the API
+     */
+    public void prefetch(String authToken) {
+        if (!loaded) {
+            loadCached(NO_CALLBACK);
+            refresh(authToken, NO_CALLBACK);
+        } else if (!isCacheFresh()) {
+            refresh(authToken, NO_CALLBACK);
+        }
+    }
+
+    /**
+     * Opens the change stream, so changes made on other devices are applied as they happen.
+     * Resumes after the last change received, so nothing missed while stopped is lost.
+     * Call when inventory comes on screen, and {@link #stopChanges} when it leaves.
+     */
+    public void startChanges() {
+        if (changeStream == null) {
+            changeStream = new ChangeStreamClient(ITEMS_URL + "/changes", this::authToken,
+                    new ChangeStreamClient.Handler() {
+                        @Override
+                        public void onEvent(String type, String data) {
+                            mainHandler.post(() -> applyRemoteChange(type, data));
+                        }
+
+                        @Override
+                        public void onPoll() {
+                            mainHandler.post(() -> {
+                                if (loaded) {
+                                    refresh(authToken(), NO_CALLBACK); // Stream unavailable; fall back to polling
+                                }
+                            });
+                        }
+                    },
+                    STREAM_RETRY_MS, STREAM_MAX_BACKOFF_MS, STREAM_POLL_INTERVAL_MS, STREAM_FAILURES_BEFORE_POLLING);
+        }
+        changeStream.start();
+    }
+
+    /**
+     * Closes the change stream, e.g. when the app goes to the background.
+     */
+    public void stopChanges() {
+        if (changeStream != null) {
+            changeStream.stop();
+        }
+    }
+
+    /**
+     * Remembers items displayed from a server-side search page so they can be found by id.
+     * @param items Items of the page
+     */
+    public void rememberAll(List<Item> items) {
+        for (Item item : items) {
+            if (item.getId() != null) {
+                looseItems.put(item.getId(), item);
+            }
+        }
+    }
+
+    /**
+     * Looks up an item by id.
+     * @param id MongoDB id of the item
+     * @return A new Item holding the current values, or null if the item is not loaded
+     */
+    public Item get(String id) {
+        int doc = store.indexOf(id);
+        if (doc >= 0) {
+            Item item = store.materialize(doc, Item::new);
+            item.setVersion(store.version(doc));
+            return item;
+        }
+        Item loose = looseItems.get(id);
+        if (loose == null) {
+            return null;
+        }
+        Item item = new Item(loose.getId(), loose.getCode(), loose.getName(), loose.getQuantity());
+        item.setVersion(loose.getVersion());
+        return item;
+    }
+
+    /**
+     * Adds an item. It is appended to the catalog under a temporary id straight away and
+     * takes the id the server assigns once the API accepts it.
+     * @param code      Unique item code
+     * @param name      Item name
+     * @param quantity  Starting quantity
+     * @param authToken Bearer token for the API
+     * @param callback  Told whether the API accepted the item
+     */
+    public void add(String code, String name, int quantity, String authToken, Callback callback) {
+        String pendingId = PENDING_ID_PREFIX + (++pendingIds);
+        store = store.with(pendingId, code, name, quantity, 0);
+        pendingAdds.put(pendingId, code);
+        notifyCatalogChanged();
+
+        JSONObject itemData = new JSONObject();
+        try {
+            itemData.put("name", name);
+            itemData.put("code", code);
+            itemData.put("quantity", quantity);
+        } catch (JSONException e) {
+            pendingAdds.remove(pendingId);
+            revertAdd(pendingId);
+            callback.onFailure(e);
+            return;
+        }
+
+        JsonObjectRequest request = new JsonObjectRequest(Request.Method.POST, ITEMS_URL, itemData,
+                response -> {
+                    pendingAdds.remove(pendingId);
+                    invalidateCaches();
+                    int doc = store.indexOf(pendingId);
+                    String id = response.optString("_id", null);
+                    if (doc >= 0 && id != null && store.indexOf(id) >= 0) {
+                        // A download read after the addition already lists the item
+                        store = store.without(doc);
+                        notifyCatalogChanged();
+                    } else if (doc >= 0 && id != null) {
+                        store.setId(doc, id); // Rows now refer to the item by its real id
+                        lowStock.onIdChanged(pendingId, id);
+                        store.setVersion(doc, response.optInt("version", 0));
+                        notifyItemChanged(id, false);
+                    }
+                    callback.onSuccess();
+                },
+                error -> {
+                    Log.e("InventoryRepository", "Error adding item: " + error);
+                    pendingAdds.remove(pendingId);
+                    revertAdd(pendingId);
+                    callback.onFailure(error);
+                }
+        ) {
+            @Override
+            public Map<String, String> getHeaders() {
+                return headers(authToken, true);
+            }
+        };
+        requestQueue.add(request);
+    }
+
+    /**
+     * Adjusts an item's quantity from an inline +/- tap. The new quantity is shown at once;
+     * taps on the same item within a short quiet period are sent as one net change, and a
+     * rejected change is rolled back to the server's value.
+     * @param id        Id of the item
+     * @param delta     Change, e.g. +1 or -1; the quantity never goes below zero
+     * @param authToken Bearer token for the API
+     * @param callback  Told whether the API accepted the change this tap was sent with
+     */
+    public void adjustQuantity(String id, int delta, String authToken, Callback callback) {
+        Item current = get(id);
+        if (current == null) {
+            callback.onFailure(new IllegalStateException("Item not loaded: " + id));
+            return;
+        }
+        int applied = Math.max(current.getQuantity() + delta, 0) - current.getQuantity();
+        if (applied == 0) {
+            return;
+        }
+        apply(id, current.getName(), current.getQuantity() + applied);
+        adjustmentToken = authToken;
+        adjustmentCallbacks.put(id, callback);
+        adjustments.tap(id, applied);
+    }
+
+    /**
+     * Sends every inline adjustment still waiting for its quiet period, e.g. before the app
+     * goes to the background.
+     */
+    public void flushAdjustments() {
+        adjustments.flushAll();
+    }
+
+    /**
+     * Saves an edit made in the editor. Only what the user changed is sent: the quantity as
+     * a relative change and the name only if it was edited ({@code PATCH {delta, name}}),
+     * conditional on the version the editor loaded. The change is visible at once; if
+     * someone else changed the item first, it is merged onto their values and resent, and
+     * if it cannot be merged (a different rename, or too little stock left) it is taken back
+     * off and the server's values are shown.
+     * @param loaded    The item as the editor loaded it
+     * @param name      Edited name
+     * @param quantity  Edited quantity
+     * @param authToken Bearer token for the API
+     * @param callback  Told whether the API accepted the change
+     */
+    public void update(Item loaded, String name, int quantity, String authToken, Callback callback) {
+        String id = loaded.getId();
+        adjustments.flush(id); // Inline taps on this item go out first rather than after this edit
+        Item before = get(id);
+        if (before == null) {
+            callback.onFailure(new IllegalStateException("Item not loaded: " + id));
+            return;
+        }
+        int delta = quantity - loaded.getQuantity();
+        boolean renamed = !name.equals(loaded.getName());
+        if (delta == 0 && !renamed) {
+            callback.onSuccess(); // Nothing to send
+            return;
+        }
+        apply(id, renamed ? name : before.getName(), Math.max(before.getQuantity() + delta, 0));
+        sendChange(new PendingChange(id, before.getCode(), loaded.getName(), delta, renamed ? name : null,
+                loaded.getVersion(), authToken, callback, () -> {
+            Item now = get(id);
+            if (now != null) {
+                String revertedName = renamed && now.getName().equals(name) ? before.getName() : now.getName();
+                apply(id, revertedName, Math.max(now.getQuantity() - delta, 0));
+            }
+        }, null));
+    }
+
+    /**
+     * Deletes an item, conditional on the version this device last saw. It disappears at
+     * once and is restored (at the end of the catalog) if the deletion fails; if it was
+     * rejected because someone else changed the item, it comes back with their values.
+     * A 404 counts as success: the item is already gone, e.g. deleted elsewhere first.
+     * @param id        Id of the item
+     * @param authToken Bearer token for the API
+     * @param callback  Told whether the API accepted the deletion
+     */
+    public void delete(String id, String authToken, Callback callback) {
+        Item before = get(id);
+        if (before == null) {
+            callback.onFailure(new IllegalStateException("Item not loaded: " + id));
+            return;
+        }
+        int doc = store.indexOf(id);
+        if (doc >= 0) {
+            store = store.without(doc);
+        }
+        Item loose = looseItems.remove(id);
+        deletedIds.add(id); // A download already under way would bring it back
+        notifyCatalogChanged();
+
+        String url = ITEMS_URL + "/" + before.getCode() + "?expectedVersion=" + before.getVersion();
+        StringRequest request = new StringRequest(Request.Method.DELETE, url,
+                response -> {
+                    invalidateCaches();
+                    callback.onSuccess();
+                },
+                error -> {
+                    if (error.networkResponse != null && error.networkResponse.statusCode == 404) {
+                        invalidateCaches(); // Already deleted; what the user asked for
+                        callback.onSuccess();
+                        return;
+                    }
+                    Log.e("InventoryRepository", "Error deleting item: " + error);
+                    JSONObject server = conflictItem(error);
+                    Item restored = before;
+                    if (server != null) {
+                        // Changed by someone else meanwhile: bring it back as it is now
+                        restored = new Item(id, before.getCode(), server.optString("name", before.getName()),
+                                server.optInt("quantity", before.getQuantity()));
+                        restored.setVersion(server.optInt("version", before.getVersion()));
+                    }
+                    deletedIds.remove(id);
+                    if (doc >= 0 && store.indexOf(id) < 0) {
+                        store = store.with(id, restored.getCode(), restored.getName(), restored.getQuantity(),
+                                restored.getVersion());
+                    }
+                    if (loose != null) {
+                        looseItems.put(id, restored);
+                    }
+                    notifyCatalogChanged();
+                    callback.onFailure(error);
+                }
+        ) {
+            @Override
+            public Map<String, String> getHeaders() {
+                return headers(authToken, false);
+            }
+        };
+        requestQueue.add(request);
+    }
+
+    /**
+     * Writes new values into the catalog and the loose items, then announces them.
+     */
+    private void apply(String id, String name, int quantity) {
+        boolean renamed = false;
+        int doc = store.indexOf(id);
+        if (doc >= 0) {
+            renamed = !store.name(doc).equals(name);
+            if (renamed) {
+                store.setName(doc, name);
+            }
+            store.setQuantity(doc, quantity);
+        }
+        Item loose = looseItems.get(id);
+        if (loose != null) {
+            // Replace rather than mutate: the old object may still be in a list being diffed
+            renamed |= !loose.getName().equals(name);
+            Item replaced = new Item(id, loose.getCode(), name, quantity);
+            replaced.setVersion(loose.getVersion());
+            looseItems.put(id, replaced);
+        }
+        notifyItemChanged(id, renamed);
+    }
+
+    /**
+     * Sends one coalesced inline adjustment as a delta. Deltas commute, so it is sent without
+     * a version condition and only fails if it would take the stock below zero; then only
+     * this batch is taken back off the displayed quantity and the server's value is shown.
+     */
+    private void writeAdjustment(String id, int netDelta, Runnable done) {
+        Callback callback = adjustmentCallbacks.remove(id);
+        Item current = get(id);
+        if (current == null) {
+            done.run(); // Deleted while the taps waited
+            return;
+        }
+        sendChange(new PendingChange(id, current.getCode(), current.getName(), netDelta, null, ANY_VERSION,
+                adjustmentToken, callback != null ? callback : NO_CALLBACK, () -> {
+                    Item now = get(id);
+                    if (now != null) {
+                        apply(id, now.getName(), Math.max(now.getQuantity() - netDelta, 0));
+                    }
+                }, done));
+    }
+
+    /**
+     * Sends {@code PATCH /api/items/:code} with a relative quantity change and/or a new name.
+     * The server applies it atomically and returns the item, whose values (plus any taps
+     * not yet sent) then replace the local ones, so devices converge without refetching.
+     * That only happens once no other change to the item is outstanding, so an older
+     * response can never undo a newer local change.
+     * A 409 carries the item's current state: {@link ConflictRetry} re-bases the change onto
+     * it and resends it, or, if it cannot be merged, it is reverted and the server's state
+     * adopted, all without re-reading the item.
+     */
+    private void sendChange(PendingChange change) {
+        new ConflictRetry(change.baseName, change.delta, change.name, change.expectedVersion, MAX_CONFLICT_RETRIES,
+                (body, answer) -> {
+                    outstanding.merge(change.id, 1, Integer::sum);
+                    JsonObjectRequest request = new JsonObjectRequest(Request.Method.PATCH,
+                            ITEMS_URL + "/" + change.code, body,
+                            response -> {
+                                finishChange(change.id);
+                                answer.accepted(response);
+                            },
+                            error -> {
+                                finishChange(change.id);
+                                answer.refused(conflictItem(error), error);
+                            }
+                    ) {
+                        @Override
+                        public Map<String, String> getHeaders() {
+                            return headers(change.authToken, true);
+                        }
+                    };
+                    requestQueue.add(request);
+                },
+                new ConflictRetry.Listener() {
+                    @Override
+                    public void onRebased(int version) {
+                        Log.d("InventoryRepository", "Version conflict on " + change.code + ", re-based onto version " + version);
+                        adoptVersion(change.id, version);
+                    }
+
+                    @Override
+                    public void onAccepted(JSONObject item) {
+                        invalidateCaches();
+                        adoptVersion(change.id, item.optInt("version", ANY_VERSION));
+                        if (!outstanding.containsKey(change.id)) {
+                            converge(change.id, item); // No newer change of ours is in flight
+                        }
+                        finish(change, null);
+                    }
+
+                    @Override
+                    public void onFailed(JSONObject item, Exception error) {
+                        Log.e("InventoryRepository", "Error changing item: " + error);
+                        change.revert.run();
+                        if (!outstanding.containsKey(change.id)) {
+                            if (item != null) {
+                                converge(change.id, item); // The 409 already says what the server holds
+                            } else {
+                                reloadItem(change.id, change.code, change.authToken); // The server may hold values this device has not seen
+                            }
+                        }
+                        finish(change, error);
+                    }
+                }).start();
+    }
+
+    /**
+     * Reports a change's outcome to its caller and runs its completion.
+     * @param error Null on success
+     */
+    private static void finish(PendingChange change, Exception error) {
+        if (error == null) {
+            change.callback.onSuccess();
+        } else {
+            change.callback.onFailure(error);
+        }
+        if (change.done != null) {
+            change.done.run();
+        }
+    }
+
+    /**
+     * Parses a downloaded catalog to replace the loaded one without losing what this device
+     * knows and the download may not: an item held at a newer version, e.g. from the change
+     * stream, keeps its values; items deleted since are left out; items with changes still
+     * unanswered keep their local values, which their answers then converge; taps not sent
+     * yet are added to the downloaded quantity; and additions not yet acknowledged, as well
+     * as items the stream added while the download was under way, are kept.
+     * @param items    Response of {@code GET /api/items}
+     * @param streamed Ids the stream added while the download was under way, or null if unknown
+     */
+    private ItemStore merge(JSONArray items, List<String> streamed) throws JSONException {
+        List<String> heldOnly = new ArrayList<>(pendingAdds.keySet());
+        if (streamed != null) {
+            heldOnly.addAll(streamed);
+        }
+        Set<String> stillListed = new HashSet<>();
+        ItemStore merged = InventoryJson.parseStore(items, store, new InventoryJson.LocalChanges() {
+            @Override
+            public boolean isDeleted(String id) {
+                if (!deletedIds.contains(id)) {
+                    return false;
+                }
+                stillListed.add(id);
+                return true;
+            }
+
+            @Override
+            public boolean isUnanswered(String id) {
+                return outstanding.containsKey(id);
+            }
+
+            @Override
+            public int unsentDelta(String id) {
+                return adjustments.pending(id);
+            }
+
+            @Override
+            public Collection<String> heldOnly() {
+                return heldOnly;
+            }
+        });
+        deletedIds.retainAll(stillListed); // The server has confirmed the rest gone
+        return merged;
+    }
+
+    /**
+     * Installs a catalog read from the disk cache, unless one was loaded or the repository
+     * cleared meanwhile, and tells everyone waiting for the read.
+     * @param cached The parsed catalog, or null if the read failed
+     * @param error  Why the read failed, or null
+     */
+    private void finishCacheLoad(List<Callback> waiters, ItemStore cached, Exception error) {
+        if (cacheLoadWaiters != waiters) {
+            return; // Cleared meanwhile, e.g. by logout
+        }
+        cacheLoadWaiters = null;
+        if (cached != null && !loaded) {
+            store = cached;
+            loaded = true;
+            notifyCatalogChanged();
+        }
+        finishAll(waiters, error);
+    }
+
+    /**
+     * Reports one request's outcome to every caller waiting for it.
+     * @param error Null on success
+     */
+    private static void finishAll(List<Callback> waiters, Exception error) {
+        for (Callback callback : waiters) {
+            if (error == null) {
+                callback.onSuccess();
+            } else {
+                callback.onFailure(error);
+            }
+        }
+    }
+
+    /**
+     * Returns the item's current state from a 409 response, or null for any other error.
+     */
+    private static JSONObject conflictItem(VolleyError error) {
+        if (error.networkResponse == null || error.networkResponse.statusCode != 409
+                || error.networkResponse.data == null) {
+            return null;
+        }
+        try {
+            JSONObject body = new JSONObject(new String(error.networkResponse.data, StandardCharsets.UTF_8));
+            return body.optJSONObject("item");
+        } catch (JSONException e) {
+            Log.e("InventoryRepository", "Unreadable conflict response", e);
+            return null;
+        }
+    }
+
+    /**
+     * Records a server version for an item if it is newer than the one held.
+     */
+    private void adoptVersion(String id, int version) {
+        if (version == ANY_VERSION) {
+            return;
+        }
+        int doc = store.indexOf(id);
+        if (doc >= 0 && store.version(doc) < version) {
+            store.setVersion(doc, version);
+        }
+        Item loose = looseItems.get(id);
+        if (loose != null && loose.getVersion() < version) {
+            Item replaced = new Item(id, loose.getCode(), loose.getName(), loose.getQuantity());
+            replaced.setVersion(version);
+            looseItems.put(id, replaced);
+        }
+    }
+
+    /**
+     * Records that a request changing an item has been answered.
+     */
+    private void finishChange(String id) {
+        Integer left = outstanding.merge(id, -1, Integer::sum);
+        if (left == null || left <= 0) {
+            outstanding.remove(id);
+        }
+    }
+
+    /**
+     * Adopts the server's values for an item, keeping taps that have not been sent yet on top.
+     * @param server The item as returned by the API
+     */
+    private void converge(String id, JSONObject server) {
+        Item current = get(id);
+        if (current == null || !server.has("quantity")) {
+            return;
+        }
+        adoptVersion(id, server.optInt("version", ANY_VERSION));
+        String name = server.optString("name", current.getName());
+        int quantity = server.optInt("quantity", current.getQuantity()) + adjustments.pending(id);
+        if (!name.equals(current.getName()) || quantity != current.getQuantity()) {
+            apply(id, name, quantity);
+        }
+    }
+
+    /**
+     * Re-reads one item from {@code GET /api/items/:code} after a rejected change.
+     */
+    private void reloadItem(String id, String code, String authToken) {
+        JsonObjectRequest request = new JsonObjectRequest(Request.Method.GET, ITEMS_URL + "/" + code, null,
+                response -> {
+                    if (!outstanding.containsKey(id)) {
+                        converge(id, response);
+                    }
+                },
+                error -> Log.e("InventoryRepository", "Error re-reading item: " + error)
+        ) {
+            @Override
+            public Map<String, String> getHeaders() {
+                return headers(authToken, false);
+            }
+        };
+        requestQueue.add(request);
+    }
+
+    /**
+     * Applies one event from the change stream. Events for this app's own changes carry a
+     * version that is already held, so they change nothing.
+     * @param type "upsert", "delete" or "reset"; other types are ignored
+     * @param data The event's JSON
+     */
+    private void applyRemoteChange(String type, String data) {
+        if ("reset".equals(type)) {
+            // Missed changes could not be replayed; re-read what is on screen
+            RemoteItemSearch.getInstance(context).invalidateCache();
+            if (loaded) {
+                refresh(authToken(), NO_CALLBACK);
+            }
+            return;
+        }
+        if (!"upsert".equals(type) && !"delete".equals(type)) {
+            return; // E.g. "ready"
+        }
+        try {
+            JSONObject server = new JSONObject(data);
+            boolean changed = "upsert".equals(type) ? applyRemoteUpsert(server)
+                    : applyRemoteDelete(server.getString("_id"));
+            if (changed) {
+                RemoteItemSearch.getInstance(context).invalidateCache(); // Cached search pages are now stale
+                scheduleCacheWrite();
+            }
+        } catch (JSONException e) {
+            Log.e("InventoryRepository", "Unreadable change event: " + data, e);
+        }
+    }
+
+    /**
+     * Applies an item added or changed elsewhere.
+     * @return True if anything held locally changed
+     */
+    private boolean applyRemoteUpsert(JSONObject server) throws JSONException {
+        String id = server.getString("_id");
+        String code = server.getString("code");
+        int version = server.optInt("version", 0);
+        Item current = get(id);
+        if (current == null) {
+            if (!loaded || pendingAdds.containsValue(code)) {
+                return false; // No catalog to add to, or this app's own addition, whose answer assigns the id
+            }
+            store = store.with(id, code, server.getString("name"), server.getInt("quantity"), version);
+            if (streamedAdds != null) {
+                streamedAdds.add(id); // The download under way may have been read before this
+            }
+            notifyCatalogChanged();
+            return true;
+        }
+        if (version <= current.getVersion() || outstanding.containsKey(id)) {
+            return false; // Already held, or a change of ours is in flight and converges on its answer
+        }
+        int doc = store.indexOf(id);
+        boolean recoded = doc >= 0 && !store.code(doc).equals(code);
+        if (recoded) {
+            store.setCode(doc, code);
+        }
+        converge(id, server);
+        if (recoded) {
+            notifyItemChanged(id, true); // Codes feed the search index and the code order
+        }
+        return true;
+    }
+
+    /**
+     * Removes an item deleted elsewhere.
+     * @return True if the item was held locally
+     */
+    private boolean applyRemoteDelete(String id) {
+        deletedIds.add(id); // A download already under way may still list it
+        boolean held = looseItems.remove(id) != null;
+        int doc = store.indexOf(id);
+        if (doc >= 0) {
+            store = store.without(doc);
+            held = true;
+        }
+        if (held) {
+            notifyCatalogChanged();
+        }
+        return held;
+    }
+
+    /**
+     * Writes the loaded catalog to the disk cache shortly, once a burst of pushed changes has
+     * been applied, so the next cold start shows it without a download. Only a bulk copy of
+     * the columns is taken on the main thread; the JSON is built on the disk thread.
+     */
+    private void scheduleCacheWrite() {
+        if (cacheWriteScheduled || !loaded) {
+            return;
+        }
+        cacheWriteScheduled = true;
+        mainHandler.postDelayed(() -> {
+            cacheWriteScheduled = false;
+            if (!loaded) {
+                return; // Cleared meanwhile
+            }
+            ItemStore snapshot = store.snapshot(); // The live store is only safe to read here
+            diskExecutor.execute(() -> {
+                try {
+                    cache.write(InventoryJson.toJson(snapshot).toString());
+                } catch (JSONException e) {
+                    Log.e("InventoryRepository", "Failed to serialize inventory for the cache", e);
+                }
+            });
+        }, CACHE_WRITE_DELAY_MS);
+    }
+
+    /**
+     * Returns the current bearer token; read for each stream connection, so it is always the latest.
+     */
+    private String authToken() {
+        return TokenManager.getInstance(context).getToken();
+    }
+
+    /**
+     * Removes an item whose addition was rejected.
+     */
+    private void revertAdd(String pendingId) {
+        int doc = store.indexOf(pendingId);
+        if (doc >= 0) {
+            store = store.without(doc);
+            notifyCatalogChanged();
+        }
+    }
+
+    private void invalidateCaches() {
+        RemoteItemSearch.getInstance(context).invalidateCache(); // Cached search pages are now stale
+        cache.markStale(); // The disk copy predates this change
+    }
+
+    private void notifyCatalogChanged() {
+        lowStock.onCatalogReplaced(store); // Evaluates only what changed
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onCatalogChanged();
+        }
+    }
+
+    private void notifyItemChanged(String id, boolean relabeled) {
+        lowStock.onItemChanged(id);
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onItemChanged(id, relabeled);
+        }
+    }
+
+    /**
+     * Reads the saved low-stock rules, falling back to the default if none are saved or they
+     * no longer parse.
+     */
+    private static LowStockRules loadLowStockRules(Context context) {
+        String saved = context.getSharedPreferences(SmsNotificationsActivity.PREFS_NAME, Context.MODE_PRIVATE)
+                .getString(SmsNotificationsActivity.KEY_LOW_STOCK_RULES, null);
+        try {
+            return LowStockRules.parse(saved);
+        } catch (IllegalArgumentException e) {
+            Log.e("InventoryRepository", "Ignoring invalid low-stock rules: " + saved, e);
+            return LowStockRules.DEFAULT;
+        }
+    }
+
+    private static Map<String, String> headers(String authToken, boolean json) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Authorization", "Bearer " + authToken);
+        if (json) {
+            headers.put("Content-Type", "application/json");
+        }
+        return headers;
+    }
+}
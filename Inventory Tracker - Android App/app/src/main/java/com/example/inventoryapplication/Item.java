@@ -4,7 +4,6 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.telephony.SmsManager;
 import android.util.Log;
 import androidx.annotation.NonNull;
 
@@ -31,6 +30,9 @@ public class Item implements Parcelable {
     /** Total quantity currently in stock. Must not be negative. */
     private int mQuantity;
 
+    /** Server version these values were read at; sent back so stale edits are refused. */
+    private int mVersion;
+
     /**
      * Full constructor for instantiating an item.
      * @param id       MongoDB document ID (nullable for new items not yet saved)
@@ -129,6 +131,22 @@ public class Item implements Parcelable {
         }
     }
 
+    /**
+     * Gets the server version the item's values were read at.
+     * @return Version number, 0 for items never changed on the server
+     */
+    public int getVersion() {
+        return mVersion;
+    }
+
+    /**
+     * Sets the server version the item's values correspond to.
+     * @param version Version number from the API
+     */
+    public void setVersion(int version) {
+        this.mVersion = version;
+    }
+
     /**
      * Constructs a new Item object from a Parcel.
      * Called when restoring from a saved state or inter-component transfer.
@@ -137,8 +155,10 @@ public class Item implements Parcelable {
     protected Item(Parcel in) {
         try {
             mId = in.readString();
+            mCode = in.readString();
             mName = in.readString();
             mQuantity = in.readInt();
+            mVersion = in.readInt();
         } catch (Exception e) {
             Log.e(TAG, "Parcel read error: " + e.getMessage(), e);
         }
@@ -154,8 +174,10 @@ public class Item implements Parcelable {
     public void writeToParcel(@NonNull Parcel dest, int flags) {
         try {
             dest.writeString(mId);
+            dest.writeString(mCode);
             dest.writeString(mName);
             dest.writeInt(mQuantity);
+            dest.writeInt(mVersion);
         } catch (Exception e) {
             Log.e(TAG, "Parcel write error: " + e.getMessage(), e);
         }
@@ -12,45 +12,164 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
-import com.android.volley.Request;
-import com.android.volley.toolbox.StringRequest;
-import com.android.volley.toolbox.Volley;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import android.telephony.SmsManager;
+import java.util.Objects;
 import android.content.SharedPreferences;
 
 /**
  * Adapter class for handling inventory item views in a RecyclerView.
  * This adapter binds the list of inventory items to the corresponding views, handles
  * item-specific actions like editing and deleting, and manages visibility of the
- * edit and delete buttons based on the user's role (Admin/SuperUser).
- * This class also handles network operations for item deletion using Volley.
+ * edit, delete and inline +/- quantity buttons based on the user's role (Admin/SuperUser).
+ * Deletions and inline quantity changes go through {@link InventoryRepository}, which shows
+ * them at once in the list it feeds and rolls them back if the server rejects them.
+ * The adapter displays immutable list snapshots supplied through {@link #submitList(List)};
+ * differences between consecutive snapshots are computed on a background thread and only
+ * the rows that actually changed are rebound.
  */
 public class ItemAdapter extends RecyclerView.Adapter<ItemAdapter.ItemViewHolder> {
 
-    private final List<Item> itemList;  // List of items to be displayed in the RecyclerView
+    private final AsyncListDiffer<Item> differ;  // Holds the current snapshot and diffs new ones off the UI thread
     private final Context context;       // The context used for UI operations and network requests
-    private final String authToken;      // Authorization token used for making authenticated requests
-    private final String userRole;      // Role of the user (Admin/SuperUser) to determine button visibility
+    private final int permissions;      // Role of the user resolved once into PERM_* bits
     private final ActivityResultLauncher<Intent> editItemLauncher;  // Launcher to handle editing activity result
 
+    /** Change payload meaning only the quantity differs, so only the quantity view needs rebinding. */
+    static final Object PAYLOAD_QUANTITY = new Object();
+
+    /** Permission bits derived from the user role. */
+    static final int PERM_EDIT = 1;    // Admin and SuperUser
+    static final int PERM_DELETE = 2;  // Admin only
+
+    /** Cached quantity labels so binding common quantities does not allocate a String. */
+    private static final String[] QUANTITY_LABELS = new String[1000];
+
+    /**
+     * Identifies rows by MongoDB id (falling back to the item code) and compares the fields
+     * the row displays, so a refresh that changes one quantity rebinds exactly one row.
+     */
+    private static final DiffUtil.ItemCallback<Item> DIFF_CALLBACK = new DiffUtil.ItemCallback<Item>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Item oldItem, @NonNull Item newItem) {
+            if (oldItem.getId() != null && newItem.getId() != null) {
+                return oldItem.getId().equals(newItem.getId());
+            }
+            return Objects.equals(oldItem.getCode(), newItem.getCode());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Item oldItem, @NonNull Item newItem) {
+            return oldItem.getQuantity() == newItem.getQuantity()
+                    && Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getCode(), newItem.getCode());
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull Item oldItem, @NonNull Item newItem) {
+            // Name and code unchanged means the quantity is what changed
+            if (Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getCode(), newItem.getCode())) {
+                return PAYLOAD_QUANTITY;
+            }
+            return null; // Anything else gets a full rebind
+        }
+    };
+
     /**
      * Constructor to initialize the adapter with necessary data.
-     * @param itemList        List of items to be displayed in the RecyclerView.
+     * The adapter starts empty; call {@link #submitList(List)} to display items.
      * @param context         The context for launching activities and making network requests.
-     * @param authToken       The authentication token for authorized requests.
      * @param userRole        The role of the current user (determines button visibility).
      * @param launcher        The ActivityResultLauncher for launching the item editing activity.
      */
-    public ItemAdapter(List<Item> itemList, Context context, String authToken, String userRole, ActivityResultLauncher<Intent> launcher) {
-        this.itemList = itemList;
+    public ItemAdapter(Context context, String userRole, ActivityResultLauncher<Intent> launcher) {
+        this.differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
         this.context = context;
-        this.authToken = authToken;
-        this.userRole = userRole;
+        this.permissions = permissionsFor(userRole);
         this.editItemLauncher = launcher;
+        setHasStableIds(true);
+    }
+
+    /**
+     * Resolves a role name into permission bits. Called once per adapter, not per bind.
+     * @param userRole The role of the current user.
+     * @return A combination of {@link #PERM_EDIT} and {@link #PERM_DELETE}.
+     */
+    static int permissionsFor(String userRole) {
+        if ("Admin".equalsIgnoreCase(userRole)) {
+            return PERM_EDIT | PERM_DELETE;
+        }
+        if ("SuperUser".equalsIgnoreCase(userRole)) {
+            return PERM_EDIT;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the display text for a quantity, reusing a cached String for 0-999.
+     * @param quantity The quantity to display.
+     * @return The quantity as text.
+     */
+    static String quantityLabel(int quantity) {
+        if (quantity < 0 || quantity >= QUANTITY_LABELS.length) {
+            return String.valueOf(quantity);
+        }
+        String label = QUANTITY_LABELS[quantity];
+        if (label == null) {
+            label = String.valueOf(quantity);
+            QUANTITY_LABELS[quantity] = label;
+        }
+        return label;
+    }
+
+    /**
+     * Returns a stable id for the row, computed from the item's MongoDB id (or its code when
+     * the id is missing) without allocating or remembering anything, so it is the same in
+     * every snapshot.
+     * @param position Position of the row in the current snapshot.
+     * @return The row's stable id.
+     */
+    @Override
+    public long getItemId(int position) {
+        return stableId(differ.getCurrentList().get(position));
+    }
+
+    /**
+     * Folds an item's 12-byte ObjectId into 64 bits, or hashes a temporary id or the code
+     * into 64 bits. Two rows could only share an id through a 64-bit hash collision.
+     */
+    private static long stableId(Item item) {
+        String id = item.getId();
+        if (ObjectId.isValid(id)) {
+            return ObjectId.parseHigh(id) ^ (ObjectId.parseLow(id) & 0xFFFFFFFFL) * 0x9E3779B97F4A7C15L;
+        }
+        String key = id != null ? id : item.getCode();
+        long hash = id != null ? 0xCBF29CE484222325L : 0x84222325CBF29CE4L; // FNV-1a; codes apart from ids
+        for (int i = 0, n = key == null ? 0 : key.length(); i < n; i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Replaces the displayed items with a new snapshot. The list must not be modified afterwards;
+     * the diff against the previous snapshot runs on a background thread and only changed rows
+     * are dispatched to the RecyclerView.
+     * @param items Immutable snapshot of the rows to display.
+     */
+    public void submitList(List<Item> items) {
+        differ.submitList(items);
+    }
+
+    /**
+     * Returns the snapshot currently displayed.
+     * @return Immutable list of the displayed rows.
+     */
+    public List<Item> getCurrentList() {
+        return differ.getCurrentList();
     }
 
     /**
@@ -65,7 +184,14 @@ public class ItemAdapter extends RecyclerView.Adapter<ItemAdapter.ItemViewHolder
         try {
             // Inflate the layout for each inventory item in the RecyclerView.
             View itemView = LayoutInflater.from(context).inflate(R.layout.inventory_item, parent, false);
-            return new ItemViewHolder(itemView);
+            ItemViewHolder holder = new ItemViewHolder(itemView);
+
+            // Role never changes for the adapter's lifetime, so button visibility is set once per holder
+            holder.editButton.setVisibility((permissions & PERM_EDIT) != 0 ? View.VISIBLE : View.GONE);
+            holder.decreaseButton.setVisibility((permissions & PERM_EDIT) != 0 ? View.VISIBLE : View.GONE);
+            holder.increaseButton.setVisibility((permissions & PERM_EDIT) != 0 ? View.VISIBLE : View.GONE);
+            holder.deleteButton.setVisibility((permissions & PERM_DELETE) != 0 ? View.VISIBLE : View.GONE);
+            return holder;
         } catch (Exception e) {
             // Log error if the layout cannot be inflated
             Log.e("ItemAdapter", "Error inflating view", e);
@@ -76,60 +202,47 @@ public class ItemAdapter extends RecyclerView.Adapter<ItemAdapter.ItemViewHolder
         }
     }
 
+    /**
+     * Partial bind path. When every pending change for the row is {@link #PAYLOAD_QUANTITY},
+     * only the quantity text is updated; otherwise the full bind runs.
+     * @param holder   The ViewHolder that will display the item data.
+     * @param position The position of the item in the current snapshot.
+     * @param payloads Change payloads collected by DiffUtil since the last bind.
+     */
+    @Override
+    public void onBindViewHolder(@NonNull ItemViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        for (Object payload : payloads) {
+            if (payload != PAYLOAD_QUANTITY) {
+                onBindViewHolder(holder, position);
+                return;
+            }
+        }
+        try {
+            Item item = differ.getCurrentList().get(position);
+            holder.editQuantity.setText(quantityLabel(item.getQuantity()));
+        } catch (Exception e) {
+            Log.e("ItemAdapter", "Error binding item quantity", e);
+        }
+    }
+
     /**
      * Binds the data for an item at a given position in the RecyclerView.
+     * Only the text changes per bind: button visibility is fixed at creation time and the
+     * click listeners are installed once by the ViewHolder, so binding allocates nothing.
      * @param holder   The ViewHolder that will display the item data.
-     * @param position The position of the item in the itemList.
+     * @param position The position of the item in the current snapshot.
      */
     @Override
     public void onBindViewHolder(@NonNull ItemViewHolder holder, int position) {
         try {
             // Get the item data for the given position
-            Item item = itemList.get(position);
+            Item item = differ.getCurrentList().get(position);
             holder.itemName.setText(item.getName());
-            holder.editQuantity.setText(String.valueOf(item.getQuantity()));
-
-            // Set visibility of the edit button based on user role (Admin/SuperUser)
-            if ("Admin".equalsIgnoreCase(userRole) || "SuperUser".equalsIgnoreCase(userRole)) {
-                holder.editButton.setVisibility(View.VISIBLE);  // Show the edit button for Admin/SuperUser
-            } else {
-                holder.editButton.setVisibility(View.GONE);  // Hide the edit button for other roles
-            }
-
-            // Set visibility of the delete button for Admin only
-            if ("Admin".equalsIgnoreCase(userRole)) {
-                holder.deleteButton.setVisibility(View.VISIBLE);  // Show the delete button for Admin
-            } else {
-                holder.deleteButton.setVisibility(View.GONE);  // Hide the delete button for other roles
-            }
-
-            // Set up click listener for the edit button
-            holder.editButton.setOnClickListener(v -> {
-                try {
-                    // Check if the editItemLauncher is available, else show an error
-                    Log.d("ItemAdapter", "Edit button clicked for item: " + item.getName());
-                    if (editItemLauncher == null) {
-                        Log.e("ItemAdapter", "Error: editItemLauncher is null. Cannot launch edit activity.");
-                        Toast.makeText(context, "Unable to open editor. Please try again later.", Toast.LENGTH_SHORT).show();
-                        return;
-                    }
-
-                    // Launch the EditItemActivity to edit the current item
-                    Intent intent = new Intent(context, EditItemActivity.class);
-                    intent.putExtra("ITEM_NAME", item.getName());
-                    intent.putExtra("ITEM_QUANTITY", item.getQuantity());
-                    intent.putExtra("ITEM_CODE", item.getCode());
-                    editItemLauncher.launch(intent);
-                } catch (Exception e) {
-                    // Catch any errors while launching the edit activity
-                    Log.e("ItemAdapter", "Error launching edit activity", e);
-                    Toast.makeText(context, "Error launching editor: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                }
-            });
-
-            // Set up click listener for the delete button
-            holder.deleteButton.setOnClickListener(v -> showDeleteConfirmationDialog(position, item));
-
+            holder.editQuantity.setText(quantityLabel(item.getQuantity()));
         } catch (Exception e) {
             // Catch any errors while binding the view
             Log.e("ItemAdapter", "Error binding item view", e);
@@ -139,48 +252,108 @@ public class ItemAdapter extends RecyclerView.Adapter<ItemAdapter.ItemViewHolder
 
     /**
      * Returns the total number of items in the list.
-     * @return The total number of items in the itemList.
+     * @return The total number of items in the current snapshot.
      */
     @Override
     public int getItemCount() {
-        return itemList.size();
+        return differ.getCurrentList().size();
+    }
+
+    /**
+     * Returns the item currently bound to a holder, or null if the holder is no longer bound
+     * (for example while its removal animation runs).
+     * @param holder The ViewHolder whose item is requested.
+     * @return The bound item, or null.
+     */
+    private Item itemAt(ItemViewHolder holder) {
+        int position = holder.getBindingAdapterPosition();
+        if (position == RecyclerView.NO_POSITION) {
+            return null;
+        }
+        return differ.getCurrentList().get(position);
+    }
+
+    /**
+     * Launches EditItemActivity for the given item.
+     * @param item The item to edit.
+     */
+    private void launchEditor(Item item) {
+        try {
+            // Check if the editItemLauncher is available, else show an error
+            Log.d("ItemAdapter", "Edit button clicked for item: " + item.getName());
+            if (editItemLauncher == null) {
+                Log.e("ItemAdapter", "Error: editItemLauncher is null. Cannot launch edit activity.");
+                Toast.makeText(context, "Unable to open editor. Please try again later.", Toast.LENGTH_SHORT).show();
+                return;
+            }
+
+            // Launch the EditItemActivity with just the id; it reads the item from the repository
+            Intent intent = new Intent(context, EditItemActivity.class);
+            intent.putExtra(EditItemActivity.EXTRA_ITEM_ID, item.getId());
+            editItemLauncher.launch(intent);
+        } catch (Exception e) {
+            // Catch any errors while launching the edit activity
+            Log.e("ItemAdapter", "Error launching edit activity", e);
+            Toast.makeText(context, "Error launching editor: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+        }
     }
 
     /**
-     * Deletes an item from the server by sending a DELETE request to the API.
+     * Changes an item's quantity by one step from a row's +/- button. The row shows the new
+     * quantity straight away; the repository coalesces rapid taps into one write, sends it to
+     * the server and rolls the row back to the server's value if the change is rejected.
+     * @param item  The item whose row was tapped.
+     * @param delta +1 or -1.
+     */
+    private void adjustQuantity(Item item, int delta) {
+        try {
+            // Check against the repository's value: the bound row may lag a tap behind
+            Item current = InventoryRepository.getInstance(context).get(item.getId());
+            int quantity = (current != null ? current.getQuantity() : item.getQuantity()) + delta;
+            if (quantity < 0) {
+                Toast.makeText(context, "Quantity cannot be less than 0", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            String authToken = TokenManager.getInstance(context).getToken();
+            InventoryRepository.getInstance(context).adjustQuantity(item.getId(), delta, authToken, new InventoryRepository.Callback() {
+                @Override
+                public void onSuccess() {
+                    Log.d("ItemAdapter", "Quantity saved for item: " + item.getName());
+                }
+
+                @Override
+                public void onFailure(Exception error) {
+                    Log.e("ItemAdapter", "Error updating quantity: " + error.getMessage(), error);
+                    Toast.makeText(context, "Failed to update quantity", Toast.LENGTH_SHORT).show();
+                }
+            });
+        } catch (Exception e) {
+            Log.e("ItemAdapter", "Error in adjustQuantity", e);
+            Toast.makeText(context, "Error updating quantity", Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    /**
+     * Deletes an item through the repository. The row disappears at once, because the list
+     * screen observes the repository, and comes back if the API refuses the deletion.
      * @param item     The item to be deleted.
-     * @param position The position of the item in the itemList.
      */
-    private void deleteItemFromServer(Item item, int position) {
+    private void deleteItemFromServer(Item item) {
         try {
-            // URL for the API to delete the item using its unique code
-            String url = "http://192.168.86.33:3000/api/items/" + item.getCode();
-
-            // Make a DELETE request using Volley to delete the item
-            StringRequest stringRequest = new StringRequest(Request.Method.DELETE, url,
-                    response -> {
-                        // If the deletion is successful, remove the item from the list and update the UI
-                        itemList.remove(position);
-                        notifyItemRemoved(position);
-                        Toast.makeText(context, "Item deleted", Toast.LENGTH_SHORT).show();
-                    },
-                    error -> {
-                        // Log and show an error message if the deletion fails
-                        Log.e("ItemAdapter", "Error deleting item: " + error.getMessage(), error);
-                        Toast.makeText(context, "Failed to delete item", Toast.LENGTH_SHORT).show();
-                    }
-            ) {
+            String authToken = TokenManager.getInstance(context).getToken();
+            InventoryRepository.getInstance(context).delete(item.getId(), authToken, new InventoryRepository.Callback() {
                 @Override
-                public Map<String, String> getHeaders() {
-                    // Add authorization header to the request
-                    Map<String, String> headers = new HashMap<>();
-                    headers.put("Authorization", "Bearer " + authToken);
-                    return headers;
+                public void onSuccess() {
+                    Toast.makeText(context, "Item deleted", Toast.LENGTH_SHORT).show();
                 }
-            };
 
-            // Add the request to the Volley request queue
-            Volley.newRequestQueue(context).add(stringRequest);
+                @Override
+                public void onFailure(Exception error) {
+                    // Log and show an error message if the deletion fails
+                    Log.e("ItemAdapter", "Error deleting item: " + error.getMessage(), error);
+                    Toast.makeText(context, "Failed to delete item", Toast.LENGTH_SHORT).show();
+                }
+            });
         } catch (Exception e) {
             // Catch any errors during the delete operation
             Log.e("ItemAdapter", "Error in deleteItemFromServer", e);
@@ -190,14 +363,13 @@ public class ItemAdapter extends RecyclerView.Adapter<ItemAdapter.ItemViewHolder
 
     /**
      * Displays a confirmation dialog asking the user if they are sure about deleting the item.
-     * @param position The position of the item in the itemList.
      * @param item     The item to be deleted.
      */
-    private void showDeleteConfirmationDialog(int position, Item item) {
+    private void showDeleteConfirmationDialog(Item item) {
         try {
             new AlertDialog.Builder(context)
                     .setMessage("Are you sure you want to delete this item?")
-                    .setPositiveButton("Yes", (dialog, which) -> deleteItemFromServer(item, position))  // Confirm delete
+                    .setPositiveButton("Yes", (dialog, which) -> deleteItemFromServer(item))  // Confirm delete
                     .setNegativeButton("No", null)  // Cancel delete
                     .show();
         } catch (Exception e) {
@@ -210,10 +382,13 @@ public class ItemAdapter extends RecyclerView.Adapter<ItemAdapter.ItemViewHolder
     /**
      * ViewHolder class that holds the views for displaying a single inventory item.
      * This class binds the item views (name, quantity, and buttons) and handles user interactions.
+     * Click listeners are created once here and look up the current item by binding position
+     * when clicked, so they never act on a stale position and are not re-created on every bind.
      */
-    public static class ItemViewHolder extends RecyclerView.ViewHolder {
+    public class ItemViewHolder extends RecyclerView.ViewHolder {
         TextView itemName, editQuantity;  // Views to display the item name and quantity
         ImageButton editButton, deleteButton;  // Buttons for editing and deleting the item
+        ImageButton decreaseButton, increaseButton;  // Inline quantity buttons
 
         /**
          * Constructor for initializing the ViewHolder with the item views.
@@ -225,6 +400,42 @@ public class ItemAdapter extends RecyclerView.Adapter<ItemAdapter.ItemViewHolder
             editQuantity = itemView.findViewById(R.id.editQuantity);
             editButton = itemView.findViewById(R.id.editButton);
             deleteButton = itemView.findViewById(R.id.deleteButton);
+            decreaseButton = itemView.findViewById(R.id.decreaseButton);
+            increaseButton = itemView.findViewById(R.id.increaseButton);
+
+            // The fallback view created when inflation fails has no buttons
+            if (editButton != null) {
+                editButton.setOnClickListener(v -> {
+                    Item item = itemAt(this);
+                    if (item != null) {
+                        launchEditor(item);
+                    }
+                });
+            }
+            if (deleteButton != null) {
+                deleteButton.setOnClickListener(v -> {
+                    Item item = itemAt(this);
+                    if (item != null) {
+                        showDeleteConfirmationDialog(item);
+                    }
+                });
+            }
+            if (decreaseButton != null) {
+                decreaseButton.setOnClickListener(v -> {
+                    Item item = itemAt(this);
+                    if (item != null) {
+                        adjustQuantity(item, -1);
+                    }
+                });
+            }
+            if (increaseButton != null) {
+                increaseButton.setOnClickListener(v -> {
+                    Item item = itemAt(this);
+                    if (item != null) {
+                        adjustQuantity(item, 1);
+                    }
+                });
+            }
         }
     }
 }
@@ -0,0 +1,120 @@
+package com.example.inventoryapplication;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends SMS digests of items that run low on stock, following the user's settings in
+ * {@link SmsNotificationsActivity}.
+ * Watches the repository's {@link LowStockTracker}, so every way an item becomes low under
+ * the user's {@link LowStockRules} is covered: edits, inline taps and changes synced from
+ * other devices. The items are batched, de-duplicated and rate limited by
+ * {@link LowStockNotifier}, which sends on a background thread.
+ * Must be created on the main thread.
+ */
+public class LowStockAlerts {
+
+    /** Wait after the first low item, so one busy edit session produces one digest. */
+    private static final long GATHER_MS = TimeUnit.SECONDS.toMillis(30);
+
+    /** Digest interval used until the user picks one. */
+    static final int DEFAULT_INTERVAL_MINUTES = 60;
+
+    private static LowStockAlerts instance;
+
+    private final Context context;
+    private final InventoryRepository repository;
+    private final LowStockNotifier notifier;
+    private boolean enabled;
+
+    private LowStockAlerts(Context context) {
+        this.context = context.getApplicationContext();
+        repository = InventoryRepository.getInstance(this.context);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        notifier = new LowStockNotifier(
+                (task, delayMs) -> {
+                    ScheduledFuture<?> future = executor.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+                    return () -> future.cancel(false);
+                },
+                System::currentTimeMillis,
+                new LoggingSender(new SmsMessageSender(this.context)),
+                GATHER_MS,
+                TimeUnit.MINUTES.toMillis(DEFAULT_INTERVAL_MINUTES));
+        reloadSettings();
+
+        // Process-wide listener; it lives as long as the repository
+        repository.getLowStock().addListener(this::onLowStockChanged);
+    }
+
+    /**
+     * Returns the shared alerts, creating them (and starting to watch the repository) on first use.
+     * @param context Any context; only the application context is retained
+     */
+    public static synchronized LowStockAlerts getInstance(Context context) {
+        if (instance == null) {
+            instance = new LowStockAlerts(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Re-reads the on/off switch, phone number and digest interval, e.g. after the user changed them.
+     */
+    public void reloadSettings() {
+        SharedPreferences preferences = context.getSharedPreferences(
+                SmsNotificationsActivity.PREFS_NAME, Context.MODE_PRIVATE);
+        enabled = preferences.getBoolean(SmsNotificationsActivity.KEY_RECEIVE_NOTIFICATIONS, false);
+        int minutes = preferences.getInt(SmsNotificationsActivity.KEY_DIGEST_INTERVAL_MINUTES, DEFAULT_INTERVAL_MINUTES);
+        notifier.setInterval(TimeUnit.MINUTES.toMillis(minutes));
+        notifier.setRecipient(preferences.getString(SmsNotificationsActivity.KEY_PHONE_NUMBER, ""));
+        if (!enabled) {
+            notifier.clear(); // Nothing queued while switched off is sent later
+        }
+    }
+
+    /**
+     * Forgets queued and reported items, e.g. on logout.
+     */
+    public void clear() {
+        notifier.clear();
+    }
+
+    private void onLowStockChanged(String id, boolean low) {
+        if (!enabled) {
+            return;
+        }
+        Item item = low ? repository.get(id) : null;
+        if (item != null) {
+            notifier.reportLow(id, item.getName(), item.getQuantity());
+        } else {
+            notifier.resolve(id); // Restocked or deleted
+        }
+    }
+
+    /** Logs failed sends; the notifier retries them with the next digest. */
+    private static final class LoggingSender implements MessageSender {
+        private final MessageSender delegate;
+
+        LoggingSender(MessageSender delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void send(String recipient, String message) throws Exception {
+            try {
+                delegate.send(recipient, message);
+            } catch (SecurityException se) {
+                Log.e("LowStockAlerts", "Missing SMS permission: " + se.getMessage(), se);
+                throw se;
+            } catch (Exception e) {
+                Log.e("LowStockAlerts", "Error sending SMS: " + e.getMessage(), e);
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.inventoryapplication;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.Response;
+import com.android.volley.toolbox.JsonObjectRequest;
+import com.android.volley.toolbox.RequestFuture;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client for the backend search endpoint ({@code GET /api/items/search}).
+ * Used by the list screen for catalogs too large to download and filter on the device:
+ * the server filters and pages, and each page is kept in a bounded LRU cache keyed by
+ * (query, page, pageSize). Cached pages expire after a short TTL and are all discarded
+ * whenever this device adds, edits or deletes an item; a page requested before that is
+ * returned to its caller but not cached.
+ * A page can also be prefetched without waiting, e.g. during login; a search for that page
+ * while it is still in flight waits for the prefetch instead of requesting it again.
+ * A single instance is shared across activities so that mutations anywhere invalidate it.
+ */
+public class RemoteItemSearch {
+
+    private static final String SEARCH_URL = BuildConfig.API_BASE_URL + "/items/search";
+
+    /** Maximum number of result pages kept in memory. */
+    private static final int CACHE_PAGES = 64;
+
+    /** How long a cached page is trusted before it is fetched again. */
+    private static final long CACHE_TTL_MS = 60_000;
+
+    /** Upper bound on how long a background search waits for the server. */
+    private static final long REQUEST_TIMEOUT_MS = 10_000;
+
+    private static RemoteItemSearch instance;
+
+    private final RequestQueue requestQueue;
+    private final SearchResultCache<SearchPage> cache = new SearchResultCache<>(CACHE_PAGES, CACHE_TTL_MS);
+
+    /** Prefetches not answered yet, by page key; guarded by itself. */
+    private final Map<String, RequestFuture<JSONObject>> prefetches = new HashMap<>();
+
+    /**
+     * One page of server-side search results.
+     */
+    public static class SearchPage {
+        public final List<Item> items;
+        public final int total;
+        public final int page;
+        public final int pageSize;
+
+        SearchPage(List<Item> items, int total, int page, int pageSize) {
+            this.items = Collections.unmodifiableList(items);
+            this.total = total;
+            this.page = page;
+            this.pageSize = pageSize;
+        }
+    }
+
+    private RemoteItemSearch(Context context) {
+        requestQueue = InventoryRepository.getInstance(context).getRequestQueue();
+    }
+
+    /**
+     * Returns the shared instance, creating it on first use.
+     * @param context Any context; only the application context is retained
+     * @return The process-wide search client
+     */
+    public static synchronized RemoteItemSearch getInstance(Context context) {
+        if (instance == null) {
+            instance = new RemoteItemSearch(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Fetches one page of results, answering from the cache when possible.
+     * Blocks the calling thread, so it must not be called on the main thread.
+     * @param query     Search text; empty returns every item
+     * @param page      1-based page number
+     * @param pageSize  Items per page
+     * @param authToken Bearer token for the API
+     * @return The requested page
+     * @throws Exception If the request fails, times out, is interrupted or cannot be parsed
+     */
+    public SearchPage search(String query, int page, int pageSize, String authToken) throws Exception {
+        SearchPage cached = cache.get(query, page, pageSize);
+        if (cached != null) {
+            return cached;
+        }
+
+        RequestFuture<JSONObject> prefetched;
+        long sentAt;
+        synchronized (prefetches) {
+            prefetched = prefetches.get(key(query, page, pageSize));
+            sentAt = cache.generation();
+        }
+        if (prefetched != null) {
+            // The prefetch caches the page itself, and is not cancelled if this wait is interrupted
+            return parse(prefetched.get(REQUEST_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        }
+
+        RequestFuture<JSONObject> future = RequestFuture.newFuture();
+        JsonObjectRequest request = request(query, page, pageSize, authToken, future, future);
+        future.setRequest(requestQueue.add(request));
+
+        try {
+            SearchPage result = parse(future.get(REQUEST_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            cache.put(query, page, pageSize, result, sentAt); // Unless invalidated while in flight
+            return result;
+        } catch (InterruptedException e) {
+            request.cancel(); // A newer query superseded this one
+            throw e;
+        }
+    }
+
+    /**
+     * Starts fetching one page without waiting for it, so a later {@link #search} for the
+     * same page finds it cached or in flight. Does nothing if the page is either already.
+     * @param query     Search text; empty returns every item
+     * @param page      1-based page number
+     * @param pageSize  Items per page
+     * @param authToken Bearer token for the API
+     */
+    public void prefetch(String query, int page, int pageSize, String authToken) {
+        if (cache.get(query, page, pageSize) != null) {
+            return;
+        }
+        String key = key(query, page, pageSize);
+        RequestFuture<JSONObject> future = RequestFuture.newFuture();
+        synchronized (prefetches) {
+            if (prefetches.containsKey(key)) {
+                return;
+            }
+            prefetches.put(key, future);
+        }
+        JsonObjectRequest request = request(query, page, pageSize, authToken, new Response.Listener<JSONObject>() {
+            @Override
+            public void onResponse(JSONObject response) {
+                try {
+                    synchronized (prefetches) {
+                        if (prefetches.remove(key) == future) {
+                            cache.put(query, page, pageSize, parse(response)); // Not invalidated meanwhile
+                        }
+                    }
+                } catch (JSONException e) {
+                    Log.e("RemoteItemSearch", "Failed to parse prefetched page", e);
+                }
+                future.onResponse(response);
+            }
+        }, error -> {
+            synchronized (prefetches) {
+                prefetches.remove(key, future);
+            }
+            future.onErrorResponse(error);
+        });
+        future.setRequest(requestQueue.add(request));
+    }
+
+    /**
+     * Discards every cached page. Must be called after any local add, edit or delete.
+     */
+    public void invalidateCache() {
+        synchronized (prefetches) {
+            cache.invalidateAll(); // Searches in flight may be answered from before the change
+            prefetches.clear(); // As may these
+        }
+    }
+
+    /**
+     * Builds the request for one page of {@code GET /api/items/search}.
+     */
+    private JsonObjectRequest request(String query, int page, int pageSize, String authToken,
+                                      Response.Listener<JSONObject> listener, Response.ErrorListener errorListener) {
+        String url = Uri.parse(SEARCH_URL).buildUpon()
+                .appendQueryParameter("q", query)
+                .appendQueryParameter("page", String.valueOf(page))
+                .appendQueryParameter("pageSize", String.valueOf(pageSize))
+                .build()
+                .toString();
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Authorization", "Bearer " + authToken);
+
+        return new JsonObjectRequest(Request.Method.GET, url, null, listener, errorListener) {
+            @Override
+            public Map<String, String> getHeaders() {
+                return headers; // Attach Bearer token for authorization
+            }
+        };
+    }
+
+    private static String key(String query, int page, int pageSize) {
+        return page + "/" + pageSize + "/" + query;
+    }
+
+    /**
+     * Converts the endpoint's {@code {items, total, page, pageSize}} response into a page.
+     */
+    private static SearchPage parse(JSONObject response) throws JSONException {
+        JSONArray array = response.getJSONArray("items");
+        List<Item> items = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject o = array.getJSONObject(i);
+            Item item = new Item(o.getString("_id"), o.getString("code"), o.getString("name"), o.getInt("quantity"));
+            item.setVersion(o.optInt("version", 0));
+            items.add(item);
+        }
+        return new SearchPage(items, response.getInt("total"), response.getInt("page"), response.getInt("pageSize"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.inventoryapplication;
+
+import android.content.Context;
+import android.os.Build;
+import android.telephony.SmsManager;
+import android.util.Log;
+import java.util.ArrayList;
+
+/**
+ * Sends messages as SMS. Digests longer than one SMS are split into a multipart message,
+ * which the recipient's phone shows as one. Requires the {@code SEND_SMS} permission.
+ */
+public class SmsMessageSender implements MessageSender {
+
+    private final Context context;
+
+    public SmsMessageSender(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Hands the message to the platform's SMS service.
+     * @throws SecurityException If the SEND_SMS permission is missing
+     * @throws IllegalStateException If the device has no SMS service
+     */
+    @Override
+    public void send(String recipient, String message) {
+        SmsManager smsManager = Build.VERSION.SDK_INT >= Build.VERSION_CODES.S
+                ? context.getSystemService(SmsManager.class)
+                : SmsManager.getDefault();
+        if (smsManager == null) {
+            throw new IllegalStateException("SMS service not available");
+        }
+        ArrayList<String> parts = smsManager.divideMessage(message);
+        if (parts.size() == 1) {
+            smsManager.sendTextMessage(recipient, null, message, null, null);
+        } else {
+            smsManager.sendMultipartTextMessage(recipient, null, parts, null, null);
+        }
+        Log.d("SmsMessageSender", "SMS sent (" + parts.size() + " part(s)): " + message);
+    }
+}
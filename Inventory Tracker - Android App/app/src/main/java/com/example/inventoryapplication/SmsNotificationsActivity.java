@@ -8,14 +8,24 @@ import android.Manifest;
 import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.util.Log;
+import android.view.View;
+import android.widget.AdapterView;
+import android.widget.Button;
+import android.widget.EditText;
+import android.widget.Spinner;
+import android.widget.Toast;
 import com.google.android.material.switchmaterial.SwitchMaterial;
 
 /**
  * Activity that manages user preference for receiving SMS notifications.
  * It uses a toggle switch UI to enable/disable notifications and handles
- * runtime SMS permissions using the Android permissions framework.
- * User preferences are persisted with SharedPreferences.
+ * runtime SMS permissions using the Android permissions framework. The phone number the
+ * low-stock digests go to, how often they may be sent, and the {@link LowStockRules} deciding
+ * which items count as low are set here as well.
+ * User preferences are persisted with SharedPreferences and picked up by {@link LowStockAlerts}.
  */
 public class SmsNotificationsActivity extends AppCompatActivity {
 
@@ -34,6 +44,9 @@ public class SmsNotificationsActivity extends AppCompatActivity {
     // SharedPreferences keys
     public static final String PREFS_NAME = "UserPrefs";
     public static final String KEY_RECEIVE_NOTIFICATIONS = "receive_notifications";
+    public static final String KEY_PHONE_NUMBER = "notification_phone_number";
+    public static final String KEY_DIGEST_INTERVAL_MINUTES = "digest_interval_minutes";
+    public static final String KEY_LOW_STOCK_RULES = "low_stock_rules";
 
 
     /**
@@ -84,6 +97,12 @@ public class SmsNotificationsActivity extends AppCompatActivity {
                 }
             });
 
+            // Recipient and digest interval, saved as soon as they change
+            setUpDigestSettings();
+
+            // Low-stock thresholds, saved when they parse
+            setUpLowStockRules();
+
             // Ensure permission check happens at startup for readiness
             hasPermissions();
 
@@ -115,11 +134,86 @@ public class SmsNotificationsActivity extends AppCompatActivity {
             SharedPreferences.Editor editor = preferences.edit();
             editor.putBoolean(KEY_RECEIVE_NOTIFICATIONS, receiveNotifications);
             editor.apply(); // Non-blocking save
+            LowStockAlerts.getInstance(this).reloadSettings();
         } catch (Exception e) {
             Log.e(TAG, "Failed to save preference: " + e.getMessage());
         }
     }
 
+    /**
+     * Shows the saved phone number and digest interval and saves them whenever they change.
+     */
+    private void setUpDigestSettings() {
+        SharedPreferences preferences = getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
+        EditText phoneInput = findViewById(R.id.phoneNumberInput);
+        Spinner intervalSpinner = findViewById(R.id.digestIntervalSpinner);
+
+        phoneInput.setText(preferences.getString(KEY_PHONE_NUMBER, ""));
+        phoneInput.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                try {
+                    preferences.edit().putString(KEY_PHONE_NUMBER, s.toString().trim()).apply();
+                    LowStockAlerts.getInstance(SmsNotificationsActivity.this).reloadSettings();
+                } catch (Exception e) {
+                    Log.e(TAG, "Failed to save phone number: " + e.getMessage());
+                }
+            }
+        });
+
+        int[] minutes = getResources().getIntArray(R.array.digest_interval_minutes);
+        int saved = preferences.getInt(KEY_DIGEST_INTERVAL_MINUTES, LowStockAlerts.DEFAULT_INTERVAL_MINUTES);
+        for (int i = 0; i < minutes.length; i++) {
+            if (minutes[i] == saved) {
+                intervalSpinner.setSelection(i);
+            }
+        }
+        intervalSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                try {
+                    preferences.edit().putInt(KEY_DIGEST_INTERVAL_MINUTES, minutes[position]).apply();
+                    LowStockAlerts.getInstance(SmsNotificationsActivity.this).reloadSettings();
+                } catch (Exception e) {
+                    Log.e(TAG, "Failed to save digest interval: " + e.getMessage());
+                }
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {
+            }
+        });
+    }
+
+    /**
+     * Shows the current low-stock rules and saves edited ones once they parse.
+     */
+    private void setUpLowStockRules() {
+        InventoryRepository repository = InventoryRepository.getInstance(this);
+        EditText rulesInput = findViewById(R.id.lowStockRulesInput);
+        Button saveButton = findViewById(R.id.saveLowStockRulesButton);
+
+        rulesInput.setText(repository.getLowStock().getRules().toString());
+        saveButton.setOnClickListener(v -> {
+            try {
+                LowStockRules rules = LowStockRules.parse(rulesInput.getText().toString());
+                repository.setLowStockRules(rules);
+                rulesInput.setText(rules.toString());
+                Toast.makeText(this, "Low-stock rules saved", Toast.LENGTH_SHORT).show();
+            } catch (IllegalArgumentException e) {
+                Toast.makeText(this, e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
     /**
      * Verifies if the SEND_SMS permission has been granted by the user.
      * @return true if permission is granted; false otherwise
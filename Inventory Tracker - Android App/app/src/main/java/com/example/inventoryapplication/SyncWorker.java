@@ -0,0 +1,152 @@
+package com.example.inventoryapplication;
+
+import android.content.Context;
+import android.os.BatteryManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.android.volley.Request;
+import com.android.volley.toolbox.RequestFuture;
+import com.android.volley.toolbox.StringRequest;
+import org.json.JSONArray;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that keeps the on-disk inventory cache warm, so opening the app can show
+ * current data without a blocking fetch.
+ * Each run downloads the catalog, stores it in {@link InventoryCache}, hands it to
+ * {@link InventoryRepository} if the app is running and the data changed, and schedules the
+ * next run. The delay comes from {@link AdaptiveSyncPolicy}: shorter while the data keeps
+ * changing, longer while it does not, and doubled on battery. Runs wait for a network
+ * connection and a battery that is not low; failed downloads are retried with exponential
+ * backoff by WorkManager.
+ * Runs are chained one-time requests under a single unique name rather than periodic work,
+ * because periodic work cannot change its own interval.
+ */
+public class SyncWorker extends Worker {
+
+    private static final String WORK_NAME = "inventory_sync";
+    private static final String ITEMS_URL = BuildConfig.API_BASE_URL + "/items";
+
+    /** Backoff start after a failed download; WorkManager doubles it on each retry. */
+    private static final long BACKOFF_MS = TimeUnit.SECONDS.toMillis(30);
+
+    /** Failed attempts before giving up until the next scheduled run. */
+    private static final int MAX_ATTEMPTS = 5;
+
+    /** Upper bound on how long one download waits for the server. */
+    private static final long REQUEST_TIMEOUT_MS = 30_000;
+
+    static final AdaptiveSyncPolicy POLICY = new AdaptiveSyncPolicy(
+            TimeUnit.MINUTES.toMillis(15), TimeUnit.HOURS.toMillis(12), TimeUnit.HOURS.toMillis(1));
+
+    public SyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Starts background syncing unless it is already scheduled. Safe to call on every launch.
+     * @param context Any context
+     */
+    public static void ensureScheduled(Context context) {
+        InventoryCache cache = new InventoryCache(context);
+        long interval = cache.syncInterval() > 0 ? cache.syncInterval() : POLICY.initialInterval();
+        enqueue(context, POLICY.delay(interval, isCharging(context)), ExistingWorkPolicy.KEEP);
+    }
+
+    /**
+     * Stops background syncing, e.g. on logout.
+     * @param context Any context
+     */
+    public static void cancel(Context context) {
+        WorkManager.getInstance(context).cancelUniqueWork(WORK_NAME);
+    }
+
+    private static void enqueue(Context context, long delayMs, ExistingWorkPolicy policy) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(SyncWorker.class)
+                .setInitialDelay(delayMs, TimeUnit.MILLISECONDS)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_MS, TimeUnit.MILLISECONDS)
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(WORK_NAME, policy, request);
+    }
+
+    /**
+     * Downloads the catalog once and schedules the next run.
+     * @return Success once the next run is scheduled, or retry after a failed download
+     */
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        TokenManager tokens = TokenManager.getInstance(context);
+        if (!tokens.isLoggedIn()) {
+            return Result.success(); // Logged out or the token expired; login schedules syncing again
+        }
+        String authToken = tokens.getToken();
+
+        InventoryCache cache = new InventoryCache(context);
+        long interval = cache.syncInterval();
+        try {
+            String body = download(context, authToken);
+            JSONArray items = new JSONArray(body); // Never cache a response that does not parse
+            boolean changed = cache.write(body);
+            if (changed) {
+                // The repository is main-thread only; it ignores this if nothing is loaded yet
+                new Handler(Looper.getMainLooper()).post(
+                        () -> InventoryRepository.getInstance(context).onSynced(items));
+            }
+            interval = POLICY.nextInterval(interval, changed);
+            Log.d("SyncWorker", "Synced, changed=" + changed + ", next in " + interval / 60_000 + " min");
+        } catch (Exception e) {
+            Log.e("SyncWorker", "Sync failed (attempt " + (getRunAttemptCount() + 1) + ")", e);
+            if (getRunAttemptCount() + 1 < MAX_ATTEMPTS) {
+                return Result.retry();
+            }
+            interval = POLICY.nextInterval(interval, false); // Back off until the next regular run
+        }
+
+        cache.setSyncInterval(interval);
+        // Appended after this run, so it starts once this one has finished
+        enqueue(context, POLICY.delay(interval, isCharging(context)), ExistingWorkPolicy.APPEND_OR_REPLACE);
+        return Result.success();
+    }
+
+    /**
+     * Fetches the raw catalog response, blocking this worker thread.
+     */
+    private static String download(Context context, String authToken) throws Exception {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Authorization", "Bearer " + authToken);
+
+        RequestFuture<String> future = RequestFuture.newFuture();
+        StringRequest request = new StringRequest(Request.Method.GET, ITEMS_URL, future, future) {
+            @Override
+            public Map<String, String> getHeaders() {
+                return headers; // Attach Bearer token for authorization
+            }
+        };
+        future.setRequest(InventoryRepository.getInstance(context).getRequestQueue().add(request));
+        return future.get(REQUEST_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static boolean isCharging(Context context) {
+        BatteryManager battery = context.getSystemService(BatteryManager.class);
+        return battery != null && battery.isCharging();
+    }
+}
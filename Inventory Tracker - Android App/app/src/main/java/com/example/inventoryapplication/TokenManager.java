@@ -0,0 +1,172 @@
+package com.example.inventoryapplication;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.android.volley.Request;
+import com.android.volley.toolbox.JsonObjectRequest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the login token. The token is decoded once, when it is received or loaded from
+ * SharedPreferences, and everything that calls the API asks this class for it at the time
+ * of the request rather than keeping its own copy.
+ * Because the expiry is known, the login screen is skipped while a stored token is still
+ * valid, and the token is renewed through {@code POST /api/refresh} shortly before it
+ * expires, so requests never go out with an expired token and come back 401.
+ * May be read from any thread.
+ */
+public class TokenManager {
+
+    private static final String PREFS_NAME = "user_prefs";
+    private static final String KEY_AUTH_TOKEN = "auth_token";
+    private static final String KEY_USER_ROLE = "user_role";
+
+    private static final String REFRESH_URL = BuildConfig.API_BASE_URL + "/refresh";
+
+    /** Renew this long before expiry; the API issues tokens for an hour. */
+    private static final long REFRESH_MARGIN_MS = TimeUnit.MINUTES.toMillis(10);
+
+    /** Treat a token as expired this long early, in case this device's clock runs behind. */
+    private static final long CLOCK_SKEW_MS = TimeUnit.MINUTES.toMillis(1);
+
+    /** Wait before trying again after a renewal failed for a reason other than the token. */
+    private static final long RETRY_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private static TokenManager instance;
+
+    private final Context context;
+    private final SharedPreferences prefs;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable refreshTask = this::refresh;
+    private volatile TokenClaims claims; // Null when logged out
+    private boolean refreshing;          // Main thread only
+
+    private TokenManager(Context context) {
+        this.context = context.getApplicationContext();
+        prefs = this.context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String saved = prefs.getString(KEY_AUTH_TOKEN, "");
+        if (!saved.isEmpty()) {
+            claims = TokenClaims.parse(saved);
+            scheduleRefresh();
+        }
+    }
+
+    /**
+     * Returns the shared token manager, loading the saved token on first use.
+     * @param context Any context; only the application context is retained
+     */
+    public static synchronized TokenManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new TokenManager(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the current token, or an empty string when logged out.
+     */
+    public String getToken() {
+        TokenClaims current = claims;
+        return current == null ? "" : current.token();
+    }
+
+    /**
+     * Returns the user's role from the current token, for role-based access control.
+     */
+    public String getRole() {
+        TokenClaims current = claims;
+        return current == null ? JwtPayload.DEFAULT_ROLE : current.role();
+    }
+
+    /**
+     * Returns true if a token is held and will still be accepted, so no login is needed.
+     */
+    public boolean isLoggedIn() {
+        TokenClaims current = claims;
+        return current != null && current.isValidAt(System.currentTimeMillis(), CLOCK_SKEW_MS);
+    }
+
+    /**
+     * Stores a token received from the API, replacing any previous one, and schedules its renewal.
+     * @param token The JWT from {@code /api/login} or {@code /api/refresh}
+     */
+    public void setToken(String token) {
+        TokenClaims received = TokenClaims.parse(token);
+        claims = received;
+        prefs.edit()
+                .putString(KEY_AUTH_TOKEN, token)
+                .putString(KEY_USER_ROLE, received.role())
+                .apply();
+        scheduleRefresh();
+    }
+
+    /**
+     * Forgets the token, e.g. on logout.
+     */
+    public void clear() {
+        claims = null;
+        mainHandler.removeCallbacks(refreshTask);
+        prefs.edit()
+                .remove(KEY_AUTH_TOKEN)
+                .remove(KEY_USER_ROLE)
+                .apply();
+    }
+
+    /**
+     * Schedules renewal of the current token shortly before it expires, replacing any
+     * renewal scheduled for an earlier token.
+     */
+    private void scheduleRefresh() {
+        mainHandler.removeCallbacks(refreshTask);
+        TokenClaims current = claims;
+        if (current == null || current.refreshAtMs(REFRESH_MARGIN_MS) == Long.MAX_VALUE) {
+            return;
+        }
+        long delay = current.refreshAtMs(REFRESH_MARGIN_MS) - System.currentTimeMillis();
+        mainHandler.postDelayed(refreshTask, Math.max(delay, 0));
+    }
+
+    /**
+     * Exchanges the current token for a new one while it is still valid.
+     */
+    private void refresh() {
+        TokenClaims current = claims;
+        if (current == null || refreshing) {
+            return;
+        }
+        if (!current.isValidAt(System.currentTimeMillis(), CLOCK_SKEW_MS)) {
+            return; // Too late to renew; the next launch asks for the password again
+        }
+        refreshing = true;
+        JsonObjectRequest request = new JsonObjectRequest(Request.Method.POST, REFRESH_URL, null,
+                response -> {
+                    refreshing = false;
+                    String token = response.optString("token", "");
+                    if (claims == current && !token.isEmpty()) { // Not logged out or replaced meanwhile
+                        setToken(token);
+                    }
+                },
+                error -> {
+                    refreshing = false;
+                    Log.e("TokenManager", "Token refresh failed: " + error);
+                    boolean rejected = error.networkResponse != null && error.networkResponse.statusCode == 401;
+                    if (claims == current && !rejected) {
+                        mainHandler.postDelayed(refreshTask, RETRY_MS); // E.g. offline; the token is still valid
+                    }
+                }
+        ) {
+            @Override
+            public Map<String, String> getHeaders() {
+                Map<String, String> headers = new HashMap<>();
+                headers.put("Authorization", "Bearer " + current.token());
+                return headers;
+            }
+        };
+        InventoryRepository.getInstance(context).getRequestQueue().add(request);
+    }
+}
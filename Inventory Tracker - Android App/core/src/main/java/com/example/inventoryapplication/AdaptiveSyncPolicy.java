@@ -0,0 +1,67 @@
+package com.example.inventoryapplication;
+
+/**
+ * Chooses how long to wait between background syncs from how often the data changes.
+ * A sync that finds new data halves the interval, so a busy inventory is followed closely;
+ * a sync that finds nothing new stretches it by half, so a quiet one costs almost nothing.
+ * The interval always stays within the configured bounds, and is doubled (up to the
+ * maximum) while the device runs on battery.
+ * Immutable; the current interval is kept by the caller.
+ */
+public final class AdaptiveSyncPolicy {
+
+    private final long minIntervalMs;
+    private final long maxIntervalMs;
+    private final long initialIntervalMs;
+
+    /**
+     * @param minIntervalMs     Shortest interval, used while every sync finds changes
+     * @param maxIntervalMs     Longest interval, reached when nothing changes for a while
+     * @param initialIntervalMs Interval before anything is known about the change rate
+     */
+    public AdaptiveSyncPolicy(long minIntervalMs, long maxIntervalMs, long initialIntervalMs) {
+        if (minIntervalMs <= 0 || maxIntervalMs < minIntervalMs) {
+            throw new IllegalArgumentException("Invalid interval bounds: " + minIntervalMs + ".." + maxIntervalMs);
+        }
+        this.minIntervalMs = minIntervalMs;
+        this.maxIntervalMs = maxIntervalMs;
+        this.initialIntervalMs = clamp(initialIntervalMs);
+    }
+
+    public long initialInterval() {
+        return initialIntervalMs;
+    }
+
+    /**
+     * Returns the interval to use after a sync.
+     * @param currentMs Interval that led to this sync; zero or less means none yet
+     * @param changed   True if the sync found data different from the cached copy
+     * @return The new interval
+     */
+    public long nextInterval(long currentMs, boolean changed) {
+        long current = currentMs > 0 ? clamp(currentMs) : initialIntervalMs;
+        return changed ? clamp(current / 2) : clamp(current + current / 2);
+    }
+
+    /**
+     * Returns how long to actually wait before the next sync.
+     * @param intervalMs Interval from {@link #nextInterval}
+     * @param charging   True if the device is plugged in
+     * @return The delay, doubled on battery
+     */
+    public long delay(long intervalMs, boolean charging) {
+        return charging ? clamp(intervalMs) : clamp(intervalMs * 2);
+    }
+
+    /**
+     * Returns true if data synced {@code ageMs} ago can still be shown without a fetch,
+     * i.e. the next background sync would not have run yet.
+     */
+    public boolean isFresh(long ageMs, long intervalMs) {
+        return ageMs >= 0 && ageMs < (intervalMs > 0 ? clamp(intervalMs) : initialIntervalMs);
+    }
+
+    private long clamp(long intervalMs) {
+        return Math.max(minIntervalMs, Math.min(maxIntervalMs, intervalMs));
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.inventoryapplication;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps a Server-Sent Events connection to {@code GET /api/items/changes} open and hands
+ * every event to a handler, so other users' changes arrive as they happen instead of on
+ * the next poll.
+ * The connection runs on its own thread. When it drops, the client reconnects with the
+ * last event id it received ({@code Last-Event-ID}), so the server replays what was missed.
+ * Reconnects back off exponentially while they keep failing, and once several attempts in
+ * a row have failed the handler is asked to poll instead, at most once per poll interval,
+ * until the stream is back. An exception thrown by the handler is logged and counts as a
+ * failed attempt; the event that caused it is not delivered again.
+ */
+public final class ChangeStreamClient {
+
+    /**
+     * Receives the stream's events and polling requests, on the client's thread.
+     */
+    public interface Handler {
+        /**
+         * @param type Event type, e.g. "upsert", "delete" or "reset"
+         * @param data Event data, JSON for the inventory events
+         */
+        void onEvent(String type, String data);
+
+        /**
+         * The stream has been unavailable for a while; fetch the data another way.
+         */
+        void onPoll();
+    }
+
+    /** Longest a connection may stay silent; the server sends a heartbeat well within it. */
+    private static final int READ_TIMEOUT_MS = 60_000;
+    private static final int CONNECT_TIMEOUT_MS = 15_000;
+
+    private static final Logger LOG = Logger.getLogger("ChangeStreamClient");
+
+    private final String url;
+    private final Supplier<String> authToken;
+    private final Handler handler;
+    private final long maxBackoffMs;
+    private final long pollIntervalMs;
+    private final int failuresBeforePolling;
+
+    private volatile Thread worker;
+    /** The open connection, if any; a stopped thread may still be closing an older one. */
+    private final AtomicReference<HttpURLConnection> connection = new AtomicReference<>();
+    private volatile String lastEventId;
+    private volatile long retryMs;
+    private long lastPollAt = Long.MIN_VALUE;
+
+    /**
+     * @param url                   Change stream endpoint
+     * @param authToken             Supplies the bearer token for each connection
+     * @param handler               Receives events and polling requests
+     * @param retryMs               Reconnect delay until the server suggests one
+     * @param maxBackoffMs          Longest delay between failing reconnects
+     * @param pollIntervalMs        Shortest time between two polls while the stream is down
+     * @param failuresBeforePolling Failed attempts in a row before polling starts
+     */
+    public ChangeStreamClient(String url, Supplier<String> authToken, Handler handler, long retryMs,
+                              long maxBackoffMs, long pollIntervalMs, int failuresBeforePolling) {
+        this.url = url;
+        this.authToken = authToken;
+        this.handler = handler;
+        this.retryMs = retryMs;
+        this.maxBackoffMs = Math.max(retryMs, maxBackoffMs);
+        this.pollIntervalMs = pollIntervalMs;
+        this.failuresBeforePolling = failuresBeforePolling;
+    }
+
+    /**
+     * Opens the stream unless it is already running, resuming after the last event received.
+     */
+    public synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+        Thread thread = new Thread(this::run, "ChangeStream");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    /**
+     * Closes the stream. The last event id is kept, so a later {@link #start} resumes from it.
+     */
+    public synchronized void stop() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        HttpURLConnection open = connection.get();
+        if (open != null) {
+            open.disconnect(); // Unblocks the read
+        }
+    }
+
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    /**
+     * Returns the id of the last event received, or null if none.
+     */
+    public String lastEventId() {
+        return lastEventId;
+    }
+
+    private void run() {
+        int failures = 0;
+        while (worker == Thread.currentThread()) {
+            try {
+                stream();
+                failures = 0; // Connected and later closed by the server; reconnect promptly
+            } catch (IOException e) {
+                failures++;
+            } catch (RuntimeException e) {
+                LOG.log(Level.WARNING, "Change handler failed; reconnecting", e);
+                failures++;
+            }
+            if (worker != Thread.currentThread()) {
+                break;
+            }
+            if (failures >= failuresBeforePolling) {
+                long now = System.currentTimeMillis();
+                if (lastPollAt == Long.MIN_VALUE || now - lastPollAt >= pollIntervalMs) {
+                    lastPollAt = now;
+                    try {
+                        handler.onPoll();
+                    } catch (RuntimeException e) {
+                        LOG.log(Level.WARNING, "Poll failed", e);
+                    }
+                }
+            }
+            try {
+                Thread.sleep(backoff(failures));
+            } catch (InterruptedException e) {
+                break; // Stopped
+            }
+        }
+    }
+
+    /**
+     * Opens one connection and reads events until it ends.
+     * @throws IOException If the connection fails or is refused
+     */
+    private void stream() throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        connection.set(conn);
+        try {
+            conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            conn.setReadTimeout(READ_TIMEOUT_MS);
+            conn.setRequestProperty("Accept", "text/event-stream");
+            conn.setRequestProperty("Authorization", "Bearer " + authToken.get());
+            String resumeFrom = lastEventId;
+            if (resumeFrom != null) {
+                conn.setRequestProperty("Last-Event-ID", resumeFrom);
+            }
+            int status = conn.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Change stream refused: HTTP " + status);
+            }
+
+            SseParser parser = new SseParser(resumeFrom, new SseParser.Listener() {
+                @Override
+                public void onEvent(String type, String id, String data) {
+                    lastEventId = id;
+                    handler.onEvent(type, data);
+                }
+
+                @Override
+                public void onRetry(long ms) {
+                    retryMs = ms;
+                }
+            });
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while (worker == Thread.currentThread() && (line = reader.readLine()) != null) {
+                    parser.line(line);
+                }
+            }
+        } finally {
+            connection.compareAndSet(conn, null); // Unless a newer thread has opened its own
+            conn.disconnect();
+        }
+    }
+
+    /**
+     * Returns the delay before the next attempt: the server's retry delay, doubled for each
+     * failure in a row up to the maximum.
+     */
+    private long backoff(int failures) {
+        long delay = retryMs;
+        for (int i = 1; i < failures && delay < maxBackoffMs; i++) {
+            delay *= 2;
+        }
+        return Math.min(delay, maxBackoffMs);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.inventoryapplication;
+
+/**
+ * Re-bases a change that the API refused with 409 onto the item's current server state,
+ * which the API returns in the error body, so the change can be resent without re-reading
+ * the item first.
+ * A change is a relative quantity delta and/or a rename, made against a base version.
+ * Deltas commute, so a delta survives any concurrent change as long as the quantity stays
+ * non-negative. A rename survives if the server's name is still the one the user started
+ * from, is dropped if the server already has the new name, and conflicts if someone else
+ * renamed the item to something different meanwhile; that choice is left to the user.
+ */
+public final class ConflictMerge {
+
+    /**
+     * A change to resend, conditional on the server version it was re-based onto.
+     */
+    public static final class Change {
+        private final int delta;
+        private final String name;
+        private final int expectedVersion;
+
+        Change(int delta, String name, int expectedVersion) {
+            this.delta = delta;
+            this.name = name;
+            this.expectedVersion = expectedVersion;
+        }
+
+        public int delta() {
+            return delta;
+        }
+
+        /**
+         * Returns the new name, or null if the name is not part of the change.
+         */
+        public String name() {
+            return name;
+        }
+
+        public int expectedVersion() {
+            return expectedVersion;
+        }
+
+        /**
+         * Returns true if the server already reflects the whole change, so nothing is left to send.
+         */
+        public boolean isEmpty() {
+            return delta == 0 && name == null;
+        }
+    }
+
+    private ConflictMerge() {
+    }
+
+    /**
+     * Re-bases a refused change onto the server's current values.
+     * @param baseName       Name the change was made against
+     * @param delta          Quantity change
+     * @param name           New name, or null if the change is not a rename
+     * @param serverName     Item's current name on the server
+     * @param serverQuantity Item's current quantity on the server
+     * @param serverVersion  Item's current version on the server
+     * @return The change to resend at {@code serverVersion}, an empty change if nothing is
+     *         left to send, or null if the change cannot be merged
+     */
+    public static Change rebase(String baseName, int delta, String name,
+                                String serverName, int serverQuantity, int serverVersion) {
+        if (serverQuantity + delta < 0) {
+            return null; // Others took stock out meanwhile; this decrement no longer fits
+        }
+        String rename = name;
+        if (name != null) {
+            if (name.equals(serverName)) {
+                rename = null; // Already renamed to the same thing
+            } else if (!serverName.equals(baseName)) {
+                return null; // Renamed differently by someone else
+            }
+        }
+        return new Change(delta, rename, serverVersion);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.inventoryapplication;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Sends one relative change to an item ({@code PATCH /api/items/:code} with
+ * {@code {delta, name, expectedVersion}}) and, whenever the API refuses it with 409, re-bases
+ * it onto the item's current state with {@link ConflictMerge} and sends it again, until it
+ * is accepted, the server turns out to reflect it already, it cannot be merged, or it has
+ * been retried too often.
+ * The request itself goes through a {@link Transport}, so the app sends it with Volley and
+ * tests with a plain HTTP client. Not thread-safe; answers must arrive one at a time.
+ */
+public final class ConflictRetry {
+
+    /** Marks a change sent without a version condition. */
+    public static final int ANY_VERSION = -1;
+
+    /**
+     * Sends one attempt of the change.
+     */
+    public interface Transport {
+        /**
+         * @param body   Request body for this attempt
+         * @param answer Must be told the outcome exactly once
+         */
+        void send(JSONObject body, Answer answer);
+    }
+
+    /**
+     * Outcome of one attempt, reported by the transport.
+     */
+    public interface Answer {
+        /**
+         * @param item The item as the API returned it
+         */
+        void accepted(JSONObject item);
+
+        /**
+         * @param item  The item's current state from a 409, or null for any other failure
+         * @param error Why the attempt failed
+         */
+        void refused(JSONObject item, Exception error);
+    }
+
+    /**
+     * Hears how the change ends, and of each re-base on the way.
+     */
+    public interface Listener {
+        /**
+         * A conflict was merged: the change now applies at this server version, and is sent
+         * again unless the server already reflects it.
+         */
+        void onRebased(int version);
+
+        /**
+         * The server holds the change: it accepted it, or already had the same values.
+         * @param item The item's state on the server
+         */
+        void onAccepted(JSONObject item);
+
+        /**
+         * The change was not applied and will not be sent again.
+         * @param item  The item's state from the last 409, or null if the failure was not a conflict
+         * @param error Why
+         */
+        void onFailed(JSONObject item, Exception error);
+    }
+
+    private final String baseName;
+    private final int maxRetries;
+    private final Transport transport;
+    private final Listener listener;
+    private int delta;
+    private String name;
+    private int expectedVersion;
+    private int retries;
+
+    /**
+     * @param baseName        Name the change was made against, for merging renames
+     * @param delta           Quantity change
+     * @param name            New name, or null if not renaming
+     * @param expectedVersion Version the change was made against, or {@link #ANY_VERSION}
+     *                        for a change that applies at any version, such as a plain delta
+     * @param maxRetries      Times the change is re-based and sent again before giving up
+     * @param transport       Sends each attempt
+     * @param listener        Hears the outcome
+     */
+    public ConflictRetry(String baseName, int delta, String name, int expectedVersion, int maxRetries,
+                         Transport transport, Listener listener) {
+        this.baseName = baseName;
+        this.delta = delta;
+        this.name = name;
+        this.expectedVersion = expectedVersion;
+        this.maxRetries = maxRetries;
+        this.transport = transport;
+        this.listener = listener;
+    }
+
+    /**
+     * Sends the first attempt.
+     */
+    public void start() {
+        JSONObject body;
+        try {
+            body = new JSONObject();
+            if (delta != 0) {
+                body.put("delta", delta);
+            }
+            if (name != null) {
+                body.put("name", name);
+            }
+            if (expectedVersion != ANY_VERSION) {
+                body.put("expectedVersion", expectedVersion);
+            }
+        } catch (JSONException e) {
+            listener.onFailed(null, e);
+            return;
+        }
+        transport.send(body, new Answer() {
+            @Override
+            public void accepted(JSONObject item) {
+                listener.onAccepted(item);
+            }
+
+            @Override
+            public void refused(JSONObject item, Exception error) {
+                if (item == null || !resend(item)) {
+                    listener.onFailed(item, error);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the number of times the change has been re-based and sent again.
+     */
+    public int retries() {
+        return retries;
+    }
+
+    /**
+     * Merges the change onto the state from a 409 and sends it again, or reports it accepted
+     * if the server already reflects it.
+     * @return False if the change cannot be merged or has been retried too often
+     */
+    private boolean resend(JSONObject server) {
+        ConflictMerge.Change merged = ConflictMerge.rebase(baseName, delta, name,
+                server.optString("name", ""), server.optInt("quantity", 0), server.optInt("version", 0));
+        if (merged == null || retries >= maxRetries) {
+            return false;
+        }
+        listener.onRebased(merged.expectedVersion());
+        if (merged.isEmpty()) {
+            listener.onAccepted(server);
+            return true;
+        }
+        delta = merged.delta();
+        name = merged.name();
+        if (expectedVersion != ANY_VERSION) {
+            expectedVersion = merged.expectedVersion();
+        }
+        retries++;
+        start();
+        return true;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.inventoryapplication;
+
+import java.util.Arrays;
+
+/**
+ * Read-only sequence of store documents in display order, such as a search result or a
+ * sorted listing. A view may read a prefix of an existing array in place, so a listing in a
+ * precomputed order costs nothing to produce: {@link SortedItemViews} hands out its order
+ * arrays this way instead of copying them.
+ * Such a view follows later changes to the array it reads; callers derive a new view after
+ * each change they make rather than holding on to the old one.
+ */
+public final class DocView {
+
+    private static final DocView EMPTY = new DocView(new int[0], 0);
+
+    private final int[] docs;  // Null for the documents 0, 1, 2, ... in order
+    private final int length;
+
+    private DocView(int[] docs, int length) {
+        this.docs = docs;
+        this.length = length;
+    }
+
+    /**
+     * Returns a view over a whole array, which the caller must not modify afterwards.
+     */
+    public static DocView of(int... docs) {
+        return prefix(docs, docs.length);
+    }
+
+    /**
+     * Returns a view over {@code docs[0 .. length)}, read in place.
+     */
+    static DocView prefix(int[] docs, int length) {
+        return length == 0 ? EMPTY : new DocView(docs, length);
+    }
+
+    /**
+     * Returns the documents {@code 0 .. size-1} in order, without an array.
+     */
+    public static DocView all(int size) {
+        return size == 0 ? EMPTY : new DocView(null, size);
+    }
+
+    /**
+     * Returns the number of documents in the view.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns the document at a position in the view.
+     * @param position 0-based position in display order
+     */
+    public int get(int position) {
+        if (position < 0 || position >= length) {
+            throw new IndexOutOfBoundsException("Position " + position + " of " + length);
+        }
+        return docs == null ? position : docs[position];
+    }
+
+    /**
+     * Returns a new array holding the documents in display order.
+     */
+    public int[] toArray() {
+        if (docs == null) {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        return Arrays.copyOf(docs, length);
+    }
+}
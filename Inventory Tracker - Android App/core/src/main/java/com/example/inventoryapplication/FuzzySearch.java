@@ -0,0 +1,163 @@
+package com.example.inventoryapplication;
+
+import java.util.Arrays;
+
+/**
+ * Typo-tolerant, ranked search over a {@link TrigramIndex}.
+ * Candidates are gathered from the postings of the query's trigrams (an n-gram prefilter),
+ * ranked by how many trigrams they share with the query, and only the best few are scored
+ * with a bounded edit distance. Both stages have fixed caps, so the work done per query does
+ * not grow with the catalog: very common trigrams are skipped, the number of postings read is
+ * limited, and at most {@link #MAX_SCORED_CANDIDATES} items are scored.
+ */
+public final class FuzzySearch {
+
+    /** Upper bound on postings entries read per query. */
+    static final int MAX_POSTINGS_SCANNED = 50_000;
+
+    /** Upper bound on candidates that are scored with the edit distance. */
+    static final int MAX_SCORED_CANDIDATES = 256;
+
+    private FuzzySearch() {
+    }
+
+    /**
+     * The list screen's search: the exact substring search, falling back to a ranked
+     * typo-tolerant search when it finds nothing, so that queries such as "napkn" still
+     * return "Napkin".
+     * @param index Index to search
+     * @param query Search text as typed by the user
+     * @param topK  Maximum number of fuzzy results
+     * @return Document ids, exact matches in catalog order or fuzzy matches best first;
+     *         null for an empty query, meaning every document
+     */
+    public static int[] matchItems(TrigramIndex index, String query, int topK) {
+        if (query == null || query.isEmpty()) {
+            return null;
+        }
+        int[] exact = index.search(query);
+        if (exact.length > 0) {
+            return exact;
+        }
+        return search(index, query, topK);
+    }
+
+    /**
+     * Returns up to {@code topK} items whose name or code approximately contains {@code query}.
+     * An item matches if some substring of its name or code is within the allowed edit distance
+     * of the query (one edit up to four characters, two up to eight, three beyond that).
+     * @param index Index to search
+     * @param query Text as typed by the user; queries shorter than three characters return nothing
+     * @param topK  Maximum number of results
+     * @return Matching document ids, best match first
+     */
+    public static int[] search(TrigramIndex index, String query, int topK) {
+        String q = TrigramIndex.normalize(query);
+        if (q.length() < TrigramIndex.GRAM_LENGTH || topK <= 0) {
+            return new int[0];
+        }
+        int maxDistance = q.length() <= 4 ? 1 : q.length() <= 8 ? 2 : 3;
+
+        // Prefilter: concatenate the postings of the query's trigrams, rarest first, within budget
+        int gramCount = q.length() - TrigramIndex.GRAM_LENGTH + 1;
+        int[][] lists = new int[gramCount][];
+        int listCount = 0;
+        for (int i = 0; i < gramCount; i++) {
+            int[] list = index.postings(TrigramIndex.gramKey(q, i));
+            if (list != null) {
+                lists[listCount++] = list;
+            }
+        }
+        if (listCount == 0) {
+            return new int[0];
+        }
+        Arrays.sort(lists, 0, listCount, (a, b) -> Integer.compare(a.length, b.length));
+
+        int total = 0;
+        for (int i = 0; i < listCount && total + lists[i].length <= MAX_POSTINGS_SCANNED; i++) {
+            total += lists[i].length;
+        }
+        if (total == 0) {
+            total = Math.min(lists[0].length, MAX_POSTINGS_SCANNED); // Rarest gram alone is too common
+        }
+        int[] hits = new int[total];
+        int filled = 0;
+        for (int i = 0; i < listCount && filled < total; i++) {
+            int take = Math.min(lists[i].length, total - filled);
+            System.arraycopy(lists[i], 0, hits, filled, take);
+            filled += take;
+        }
+
+        // Count shared trigrams per document and keep the candidates that share the most
+        Arrays.sort(hits);
+        long[] ranked = new long[hits.length];
+        int candidates = 0;
+        for (int i = 0; i < hits.length; ) {
+            int doc = hits[i];
+            int shared = 0;
+            while (i < hits.length && hits[i] == doc) {
+                shared++;
+                i++;
+            }
+            // Higher shared count sorts first; ties keep catalog order
+            ranked[candidates++] = ((long) (Integer.MAX_VALUE - shared) << 32) | doc;
+        }
+        Arrays.sort(ranked, 0, candidates);
+        candidates = Math.min(candidates, MAX_SCORED_CANDIDATES);
+
+        // Score the survivors and order them by distance, then by prefilter rank
+        long[] scored = new long[candidates];
+        int matched = 0;
+        for (int rank = 0; rank < candidates; rank++) {
+            int doc = (int) ranked[rank];
+            int distance = Math.min(
+                    substringDistance(q, index.name(doc), maxDistance),
+                    substringDistance(q, index.code(doc), maxDistance));
+            if (distance <= maxDistance) {
+                scored[matched++] = ((long) distance << 32) | rank;
+            }
+        }
+        Arrays.sort(scored, 0, matched);
+
+        int[] result = new int[Math.min(matched, topK)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (int) ranked[(int) scored[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Smallest edit distance between {@code query} and any substring of {@code text},
+     * giving up as soon as every alignment exceeds {@code limit}.
+     * @return The distance, or {@code limit + 1} if it is larger than {@code limit}
+     */
+    static int substringDistance(String query, String text, int limit) {
+        int n = text.length();
+        int[] previous = new int[n + 1]; // Row 0 is all zeros: a match may start anywhere
+        int[] current = new int[n + 1];
+
+        for (int i = 1; i <= query.length(); i++) {
+            char qc = query.charAt(i - 1);
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= n; j++) {
+                int cost = qc == text.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        int best = limit + 1;
+        for (int j = 0; j <= n; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+}
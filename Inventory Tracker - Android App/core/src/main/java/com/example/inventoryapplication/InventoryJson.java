@@ -0,0 +1,182 @@
+package com.example.inventoryapplication;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Converts the items API's JSON into item objects, and a store back into that JSON.
+ * Kept free of Android classes so the same code runs in the app and in JVM benchmarks;
+ * callers choose the item type through an {@link ItemFactory}.
+ */
+public final class InventoryJson {
+
+    /**
+     * Creates one item from its parsed fields.
+     * @param <T> Type of item produced
+     */
+    public interface ItemFactory<T> {
+        T create(String id, String code, String name, int quantity);
+    }
+
+    /**
+     * What the device knows about its items that a downloaded catalog may not reflect yet,
+     * because the download was read before it happened or before the server answered it.
+     */
+    public interface LocalChanges {
+        /**
+         * Returns true if the item was deleted since; it is left out. Called once per
+         * downloaded item.
+         */
+        boolean isDeleted(String id);
+
+        /**
+         * Returns true if the item has changes the server has not answered. The download
+         * may or may not include them, so the held values are kept until the answers arrive.
+         */
+        boolean isUnanswered(String id);
+
+        /**
+         * Returns the quantity change made locally but not sent yet, which no download includes.
+         */
+        int unsentDelta(String id);
+
+        /**
+         * Returns the ids of held items the download cannot be relied on to list, e.g.
+         * additions the server has not acknowledged; those it does not list are kept.
+         */
+        Collection<String> heldOnly();
+    }
+
+    private static final LocalChanges NO_LOCAL_CHANGES = new LocalChanges() {
+        @Override
+        public boolean isDeleted(String id) {
+            return false;
+        }
+
+        @Override
+        public boolean isUnanswered(String id) {
+            return false;
+        }
+
+        @Override
+        public int unsentDelta(String id) {
+            return 0;
+        }
+
+        @Override
+        public Collection<String> heldOnly() {
+            return Collections.emptyList();
+        }
+    };
+
+    private InventoryJson() {
+    }
+
+    /**
+     * Parses the response of {@code GET /api/items}, an array of
+     * {@code {_id, code, name, quantity}} objects, in server order.
+     * @param array   The response array
+     * @param factory Builds each item
+     * @param <T>     Type of item produced
+     * @return The items in server order
+     * @throws JSONException If an element is missing a field or has the wrong type
+     */
+    public static <T> List<T> parseItems(JSONArray array, ItemFactory<T> factory) throws JSONException {
+        List<T> items = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            items.add(parseItem(array.getJSONObject(i), factory));
+        }
+        return items;
+    }
+
+    /**
+     * Parses the response of {@code GET /api/items} straight into columnar storage,
+     * without creating an item object per element.
+     * @param array The response array
+     * @return A store holding the items in server order
+     * @throws JSONException If an element is missing a field or has the wrong type
+     */
+    public static ItemStore parseStore(JSONArray array) throws JSONException {
+        return parseStore(array, null);
+    }
+
+    /**
+     * Parses a refreshed items response into a store that replaces {@code previous},
+     * reusing its pooled text for codes and names that did not change.
+     * @param array    The response array
+     * @param previous The store being replaced, or null
+     * @return A store holding the items in server order
+     * @throws JSONException If an element is missing a field or has the wrong type
+     */
+    public static ItemStore parseStore(JSONArray array, ItemStore previous) throws JSONException {
+        return parseStore(array, previous, NO_LOCAL_CHANGES);
+    }
+
+    /**
+     * Parses a downloaded items response into a store that replaces {@code previous},
+     * keeping what the device knows about its items that the download may not reflect yet:
+     * deleted items are left out, items with unanswered changes keep their previous values,
+     * unsent quantity changes are added to the downloaded quantities, and held items the
+     * download cannot be relied on to list are kept at the end. Items {@code previous} holds
+     * at a newer version keep their values too (see {@link ItemStore.Builder}).
+     * @param array    The response array
+     * @param previous The store being replaced; the held values are read from it
+     * @param local    The device's local changes
+     * @return A store holding the items in server order, then the held-only items
+     * @throws JSONException If an element is missing a field or has the wrong type
+     */
+    public static ItemStore parseStore(JSONArray array, ItemStore previous, LocalChanges local) throws JSONException {
+        ItemStore.Builder builder = new ItemStore.Builder(array.length(), previous);
+        Collection<String> heldOnly = local.heldOnly();
+        Set<String> unlisted = heldOnly.isEmpty() ? Collections.emptySet() : new LinkedHashSet<>(heldOnly);
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject o = array.getJSONObject(i);
+            String id = o.getString("_id");
+            unlisted.remove(id);
+            if (local.isDeleted(id) || (local.isUnanswered(id) && builder.addPrevious(id))) {
+                continue;
+            }
+            builder.add(id, o.getString("code"), o.getString("name"), o.getInt("quantity") + local.unsentDelta(id),
+                    o.optInt("version", 0)); // Items stored before versioning have none
+        }
+        for (String id : unlisted) {
+            builder.addPrevious(id);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes a store in the format of {@code GET /api/items}, e.g. to cache a catalog that
+     * was kept current by pushed changes rather than downloaded.
+     * @param store The store to write
+     * @return An array of {@code {_id, code, name, quantity, version}} objects, in store order
+     * @throws JSONException If a value cannot be written
+     */
+    public static JSONArray toJson(ItemStore store) throws JSONException {
+        JSONArray array = new JSONArray();
+        for (int doc = 0; doc < store.size(); doc++) {
+            array.put(new JSONObject()
+                    .put("_id", store.id(doc))
+                    .put("code", store.code(doc))
+                    .put("name", store.name(doc))
+                    .put("quantity", store.quantity(doc))
+                    .put("version", store.version(doc)));
+        }
+        return array;
+    }
+
+    /**
+     * Parses a single {@code {_id, code, name, quantity}} object.
+     * @throws JSONException If a field is missing or has the wrong type
+     */
+    public static <T> T parseItem(JSONObject o, ItemFactory<T> factory) throws JSONException {
+        return factory.create(o.getString("_id"), o.getString("code"), o.getString("name"), o.getInt("quantity"));
+    }
+}
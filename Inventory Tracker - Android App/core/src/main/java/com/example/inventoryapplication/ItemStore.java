@@ -0,0 +1,615 @@
+package com.example.inventoryapplication;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Columnar (struct-of-arrays) storage for a large catalog.
+ * Instead of one item object and three String objects per SKU, each item is a document
+ * number indexing parallel columns: ids as 12-byte {@link ObjectId}s split over a
+ * {@code long[]} and an {@code int[]}, codes and names as int handles into packed
+ * {@link StringPool}s, and quantities and versions as plain {@code int[]}s. Search results, filters and
+ * pages are views of document numbers ({@code int[]} or {@link DocView}), and item objects (and their Strings) are
+ * only created for the rows actually being rendered, through {@link #page} or {@link #materialize}.
+ * Edits append the new text to the pool and repoint the handle; additions and removals
+ * ({@link #with}, {@link #without}) copy the columns into a new store that shares the pools.
+ * Not thread-safe; views over an instance must not outlive its replacement.
+ */
+public final class ItemStore {
+
+    private final StringPool codes;
+    private final StringPool names;
+    private final long[] idHigh;
+    private final int[] idLow;
+    private Map<Integer, String> otherIds;  // Ids that are not ObjectIds, by document; normally null
+    private final int[] codeRefs;
+    private final int[] nameRefs;
+    private final int[] quantities;
+    private final int[] versions;
+
+    /** Documents new or changed relative to the store this one refreshed; null if built from scratch. */
+    private final int[] changedDocs;
+
+    /** Open-addressing id lookup holding document + 1 per slot; built on first use. */
+    private int[] idTable;
+
+    private ItemStore(Builder builder) {
+        codes = builder.codes;
+        names = builder.names;
+        otherIds = builder.otherIds;
+        int size = builder.size;
+        idHigh = builder.idHigh.length == size ? builder.idHigh : Arrays.copyOf(builder.idHigh, size);
+        idLow = trim(builder.idLow, size);
+        codeRefs = trim(builder.codeRefs, size);
+        nameRefs = trim(builder.nameRefs, size);
+        quantities = trim(builder.quantities, size);
+        versions = trim(builder.versions, size);
+        changedDocs = builder.base == null ? null : Arrays.copyOf(builder.changed, builder.changedCount);
+    }
+
+    /** Store over the given columns, for {@link #with} and {@link #without}. */
+    private ItemStore(ItemStore source, long[] idHigh, int[] idLow, Map<Integer, String> otherIds, int[] codeRefs,
+                      int[] nameRefs, int[] quantities, int[] versions, int[] changedDocs) {
+        this(source.codes, source.names, idHigh, idLow, otherIds, codeRefs, nameRefs, quantities, versions,
+                changedDocs);
+    }
+
+    private ItemStore(StringPool codes, StringPool names, long[] idHigh, int[] idLow, Map<Integer, String> otherIds,
+                      int[] codeRefs, int[] nameRefs, int[] quantities, int[] versions, int[] changedDocs) {
+        this.codes = codes;
+        this.names = names;
+        this.idHigh = idHigh;
+        this.idLow = idLow;
+        this.otherIds = otherIds;
+        this.codeRefs = codeRefs;
+        this.nameRefs = nameRefs;
+        this.quantities = quantities;
+        this.versions = versions;
+        this.changedDocs = changedDocs;
+    }
+
+    /**
+     * Accumulates items in server order.
+     */
+    public static final class Builder {
+        private final ItemStore base;      // Store being refreshed, for change tracking
+        private final ItemStore previous;  // Same store while its pools are shared, else null
+        private final StringPool codes;
+        private final StringPool names;
+        private long[] idHigh;
+        private int[] idLow;
+        private Map<Integer, String> otherIds;
+        private int[] codeRefs;
+        private int[] nameRefs;
+        private int[] quantities;
+        private int[] versions;
+        private int size;
+        private int[] changed = new int[8];
+        private int changedCount;
+
+        /**
+         * @param expectedSize Number of items expected; the builder grows past it if needed
+         */
+        public Builder(int expectedSize) {
+            this(expectedSize, null);
+        }
+
+        /**
+         * Builder for a refresh of {@code previous}. The new store shares the previous
+         * store's pools, and a code or name that is unchanged for the same id reuses the
+         * existing pool entry instead of being encoded and copied again, so a refresh that
+         * changes little allocates little. Once the pools hold more than twice as many
+         * entries as there are items (old values left behind by edits and deletions), fresh
+         * pools are started instead, which compacts them.
+         * Either way the new store records which documents are new or changed
+         * ({@link #changedDocs}), so callers can update derived state incrementally.
+         * An item the previous store holds at a newer version than the one added keeps its
+         * previous values, so a download read before a change that has since arrived by
+         * other means cannot take the item back to older values.
+         * @param expectedSize Number of items expected; the builder grows past it if needed
+         * @param previous     Store being replaced, or null
+         */
+        public Builder(int expectedSize, ItemStore previous) {
+            int capacity = Math.max(expectedSize, 4);
+            base = previous;
+            if (previous != null && previous.size() > 0
+                    && previous.codes.size() <= 2 * capacity && previous.names.size() <= 2 * capacity) {
+                this.previous = previous;
+                codes = previous.codes;
+                names = previous.names;
+            } else {
+                this.previous = null;
+                codes = new StringPool(capacity, capacity * 8);
+                names = new StringPool(capacity, capacity * 16);
+            }
+            idHigh = new long[capacity];
+            idLow = new int[capacity];
+            codeRefs = new int[capacity];
+            nameRefs = new int[capacity];
+            quantities = new int[capacity];
+            versions = new int[capacity];
+        }
+
+        /**
+         * Appends an item at version 0; its document number is the number of items added before it.
+         */
+        public Builder add(String id, String code, String name, int quantity) {
+            return add(id, code, name, quantity, 0);
+        }
+
+        /**
+         * Appends an item; its document number is the number of items added before it.
+         * @param version Server version of the item, for conditional updates
+         */
+        public Builder add(String id, String code, String name, int quantity, int version) {
+            ensureCapacity();
+            int before = -1;
+            if (ObjectId.isValid(id)) {
+                idHigh[size] = ObjectId.parseHigh(id);
+                idLow[size] = ObjectId.parseLow(id);
+                if (base != null) {
+                    before = base.indexOf(idHigh[size], idLow[size], size);
+                }
+            } else {
+                if (otherIds == null) {
+                    otherIds = new HashMap<>();
+                }
+                otherIds.put(size, id == null ? "" : id);
+                if (base != null) {
+                    before = base.indexOfOther(id);
+                }
+            }
+            if (before >= 0 && base.versions[before] > version) {
+                code = base.code(before); // Held values are newer than these
+                name = base.name(before);
+                quantity = base.quantities[before];
+                version = base.versions[before];
+            }
+            boolean shared = before >= 0 && previous != null;
+            boolean sameCode = shared && codes.contentEquals(previous.codeRefs[before], code);
+            codeRefs[size] = sameCode ? previous.codeRefs[before] : codes.add(code);
+            nameRefs[size] = shared && names.contentEquals(previous.nameRefs[before], name)
+                    ? previous.nameRefs[before] : names.add(name);
+            quantities[size] = quantity;
+            if (base != null && (before < 0 || base.quantities[before] != quantity
+                    || !(shared ? sameCode : base.code(before).equals(code)))) {
+                if (changedCount == changed.length) {
+                    changed = Arrays.copyOf(changed, changedCount * 2);
+                }
+                changed[changedCount++] = size;
+            }
+            versions[size] = version;
+            size++;
+            return this;
+        }
+
+        /**
+         * Appends the item with the given id as the store being refreshed holds it, e.g. to
+         * keep local values that a download does not reflect yet.
+         * @return False, appending nothing, if that store has no such item
+         */
+        public boolean addPrevious(String id) {
+            int doc = base == null ? -1 : base.indexOf(id);
+            if (doc < 0) {
+                return false;
+            }
+            addFrom(base, doc);
+            return true;
+        }
+
+        /**
+         * Appends a document of the store this builder refreshes, copying its pool handles
+         * rather than its text.
+         */
+        Builder addFrom(ItemStore source, int doc) {
+            if (source != previous) {
+                return add(source.id(doc), source.code(doc), source.name(doc), source.quantity(doc), source.version(doc));
+            }
+            ensureCapacity();
+            if (source.isOther(doc)) {
+                if (otherIds == null) {
+                    otherIds = new HashMap<>();
+                }
+                otherIds.put(size, source.otherIds.get(doc));
+            } else {
+                idHigh[size] = source.idHigh[doc];
+                idLow[size] = source.idLow[doc];
+            }
+            codeRefs[size] = source.codeRefs[doc];
+            nameRefs[size] = source.nameRefs[doc];
+            quantities[size] = source.quantities[doc];
+            versions[size] = source.versions[doc];
+            size++;
+            return this;
+        }
+
+        private void ensureCapacity() {
+            if (size == quantities.length) {
+                int capacity = size * 2;
+                idHigh = Arrays.copyOf(idHigh, capacity);
+                idLow = Arrays.copyOf(idLow, capacity);
+                codeRefs = Arrays.copyOf(codeRefs, capacity);
+                nameRefs = Arrays.copyOf(nameRefs, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+                versions = Arrays.copyOf(versions, capacity);
+            }
+        }
+
+        public ItemStore build() {
+            if (previous == null) {
+                codes.trimToSize(); // Shared pools keep their slack for the next refresh
+                names.trimToSize();
+            }
+            return new ItemStore(this);
+        }
+    }
+
+    /**
+     * Returns the number of items (documents) in the store.
+     */
+    public int size() {
+        return quantities.length;
+    }
+
+    public String id(int doc) {
+        if (otherIds != null) {
+            String other = otherIds.get(doc);
+            if (other != null) {
+                return other;
+            }
+        }
+        return ObjectId.toHexString(idHigh[doc], idLow[doc]);
+    }
+
+    public String code(int doc) {
+        return codes.get(codeRefs[doc]);
+    }
+
+    public String name(int doc) {
+        return names.get(nameRefs[doc]);
+    }
+
+    public int quantity(int doc) {
+        return quantities[doc];
+    }
+
+    /**
+     * Returns the server version the document's values were last confirmed at.
+     */
+    public int version(int doc) {
+        return versions[doc];
+    }
+
+    /**
+     * Returns the documents that are new, or whose code or quantity differs, compared with
+     * the store this one was built to refresh, in document order. Changes made in place
+     * afterwards ({@link #setQuantity}, {@link #setCode}) are not included.
+     * @return The changed documents, or null if the store was built from scratch
+     */
+    public int[] changedDocs() {
+        return changedDocs == null ? null : changedDocs.clone();
+    }
+
+    /**
+     * Returns the number of entries in the code and name pools, superseded ones included.
+     */
+    int pooledStrings() {
+        return codes.size() + names.size();
+    }
+
+    /**
+     * Finds the document with the given id.
+     * @param id Id as sent by the API
+     * @return The document number, or -1 if no item has that id
+     */
+    public int indexOf(String id) {
+        if (ObjectId.isValid(id)) {
+            return indexOf(ObjectId.parseHigh(id), ObjectId.parseLow(id), -1);
+        }
+        return indexOfOther(id);
+    }
+
+    /**
+     * Returns a new store with one item appended as the last document. Existing document
+     * numbers are unchanged; this store must not be used afterwards.
+     * The columns and the id lookup are copied in bulk and the pools are shared, so only the
+     * new item's text is encoded and nothing is rehashed. The new store's
+     * {@link #changedDocs} is just the new document.
+     */
+    public ItemStore with(String id, String code, String name, int quantity, int version) {
+        int doc = size();
+        long[] high = Arrays.copyOf(idHigh, doc + 1);
+        int[] low = Arrays.copyOf(idLow, doc + 1);
+        Map<Integer, String> others = otherIds == null ? null : new HashMap<>(otherIds);
+        boolean objectId = ObjectId.isValid(id);
+        if (objectId) {
+            high[doc] = ObjectId.parseHigh(id);
+            low[doc] = ObjectId.parseLow(id);
+        } else {
+            if (others == null) {
+                others = new HashMap<>();
+            }
+            others.put(doc, id == null ? "" : id);
+        }
+        int[] codeColumn = Arrays.copyOf(codeRefs, doc + 1);
+        codeColumn[doc] = codes.add(code);
+        int[] nameColumn = Arrays.copyOf(nameRefs, doc + 1);
+        nameColumn[doc] = names.add(name);
+        int[] quantityColumn = Arrays.copyOf(quantities, doc + 1);
+        quantityColumn[doc] = quantity;
+        int[] versionColumn = Arrays.copyOf(versions, doc + 1);
+        versionColumn[doc] = version;
+
+        ItemStore next = new ItemStore(this, high, low, others, codeColumn, nameColumn, quantityColumn,
+                versionColumn, new int[] {doc});
+        if (idTable != null && idTable.length >= 2 * (doc + 1)) { // Still at most half full
+            int[] table = idTable.clone();
+            if (objectId) {
+                next.insert(table, doc);
+            }
+            next.idTable = table;
+        }
+        return next;
+    }
+
+    /**
+     * Returns a copy of the store that shares nothing with it, so the copy can be read on
+     * another thread (e.g. to write it to disk) while this one keeps being edited.
+     * The columns and pools are copied in bulk; no text is decoded. The copy's
+     * {@link #changedDocs} is null.
+     */
+    public ItemStore snapshot() {
+        return new ItemStore(codes.copy(), names.copy(), idHigh.clone(), idLow.clone(),
+                otherIds == null ? null : new HashMap<>(otherIds), codeRefs.clone(), nameRefs.clone(),
+                quantities.clone(), versions.clone(), null);
+    }
+
+    /**
+     * Returns a new store without one document. Documents after it move down by one;
+     * this store must not be used afterwards.
+     * The columns are copied in bulk around the removed document and the pools are shared;
+     * the id lookup is rebuilt on the next search by id. The new store's
+     * {@link #changedDocs} is empty.
+     */
+    public ItemStore without(int removed) {
+        Map<Integer, String> others = null;
+        if (otherIds != null) {
+            for (Map.Entry<Integer, String> entry : otherIds.entrySet()) {
+                int doc = entry.getKey();
+                if (doc != removed) {
+                    if (others == null) {
+                        others = new HashMap<>();
+                    }
+                    others.put(doc < removed ? doc : doc - 1, entry.getValue());
+                }
+            }
+        }
+        long[] high = new long[size() - 1];
+        System.arraycopy(idHigh, 0, high, 0, removed);
+        System.arraycopy(idHigh, removed + 1, high, removed, high.length - removed);
+        return new ItemStore(this, high, remove(idLow, removed), others, remove(codeRefs, removed),
+                remove(nameRefs, removed), remove(quantities, removed), remove(versions, removed), new int[0]);
+    }
+
+    /**
+     * Records the id the server assigned to an item that was added with a temporary one.
+     */
+    public void setId(int doc, String id) {
+        if (otherIds != null) {
+            otherIds.remove(doc);
+        }
+        if (ObjectId.isValid(id)) {
+            idHigh[doc] = ObjectId.parseHigh(id);
+            idLow[doc] = ObjectId.parseLow(id);
+        } else {
+            if (otherIds == null) {
+                otherIds = new HashMap<>();
+            }
+            otherIds.put(doc, id);
+        }
+        idTable = null; // Rebuilt on the next lookup
+    }
+
+    /**
+     * Records a new quantity for a document, e.g. after a successful edit.
+     */
+    public void setQuantity(int doc, int quantity) {
+        quantities[doc] = quantity;
+    }
+
+    /**
+     * Records the server version a document's values now correspond to.
+     */
+    public void setVersion(int doc, int version) {
+        versions[doc] = version;
+    }
+
+    /**
+     * Records a new name for a document, e.g. after a successful edit.
+     */
+    public void setName(int doc, String name) {
+        nameRefs[doc] = names.add(name);
+    }
+
+    /**
+     * Records a new code for a document, e.g. after a successful edit.
+     */
+    public void setCode(int doc, String code) {
+        codeRefs[doc] = codes.add(code);
+    }
+
+    /**
+     * Returns every name in document order, as a view over the column.
+     * Each get() decodes a new String; set() is {@link #setName}.
+     */
+    public List<String> names() {
+        return new Column() {
+            @Override
+            public String get(int doc) {
+                return name(doc);
+            }
+
+            @Override
+            public String set(int doc, String name) {
+                String old = name(doc);
+                setName(doc, name);
+                return old;
+            }
+        };
+    }
+
+    /**
+     * Returns every code in document order, as a view over the column.
+     * Each get() decodes a new String; set() is {@link #setCode}.
+     */
+    public List<String> codes() {
+        return new Column() {
+            @Override
+            public String get(int doc) {
+                return code(doc);
+            }
+
+            @Override
+            public String set(int doc, String code) {
+                String old = code(doc);
+                setCode(doc, code);
+                return old;
+            }
+        };
+    }
+
+    /**
+     * Returns a copy of the quantity column in document order.
+     */
+    public int[] quantities() {
+        return quantities.clone();
+    }
+
+    /**
+     * Creates an item object for one document.
+     * @param doc     Document number
+     * @param factory Builds the item
+     * @param <T>     Type of item produced
+     * @return A new item holding the document's current values
+     */
+    public <T> T materialize(int doc, InventoryJson.ItemFactory<T> factory) {
+        return factory.create(id(doc), code(doc), name(doc), quantities[doc]);
+    }
+
+    /**
+     * Materializes one page of a view; only these rows become item objects.
+     * @param view     Document numbers in display order
+     * @param page     1-based page number
+     * @param pageSize Items per page
+     * @param factory  Builds each item
+     * @param <T>      Type of item produced
+     * @return An immutable page, empty if the page is past the end
+     */
+    public <T> List<T> page(DocView view, int page, int pageSize, InventoryJson.ItemFactory<T> factory) {
+        return range(view, (page - 1) * pageSize, pageSize, factory);
+    }
+
+    /**
+     * Materializes {@code count} rows of a view starting at position {@code offset}.
+     * @return An immutable list, shorter than {@code count} at the end of the view
+     */
+    public <T> List<T> range(DocView view, int offset, int count, InventoryJson.ItemFactory<T> factory) {
+        int end = Math.min(offset + count, view.length());
+        if (offset >= end) {
+            return Collections.emptyList();
+        }
+        List<T> rows = new ArrayList<>(end - offset);
+        for (int i = offset; i < end; i++) {
+            rows.add(materialize(view.get(i), factory));
+        }
+        return Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * Finds a document by ObjectId, checking {@code hint} first. Refreshes usually return
+     * items in the same order, so passing the new document number avoids building the table.
+     */
+    private int indexOf(long high, int low, int hint) {
+        if (hint >= 0 && hint < idHigh.length && idHigh[hint] == high && idLow[hint] == low && !isOther(hint)) {
+            return hint;
+        }
+        if (idTable == null) {
+            buildIdTable();
+        }
+        int mask = idTable.length - 1;
+        for (int slot = hash(high, low) & mask; idTable[slot] != 0; slot = (slot + 1) & mask) {
+            int doc = idTable[slot] - 1;
+            if (idHigh[doc] == high && idLow[doc] == low) {
+                return doc;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOfOther(String id) {
+        if (otherIds != null) {
+            for (Map.Entry<Integer, String> entry : otherIds.entrySet()) {
+                if (entry.getValue().equals(id == null ? "" : id)) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return -1;
+    }
+
+    private boolean isOther(int doc) {
+        return otherIds != null && otherIds.containsKey(doc);
+    }
+
+    private void buildIdTable() {
+        int[] table = new int[Math.max(Integer.highestOneBit(Math.max(size(), 1) * 2 - 1) << 1, 8)];
+        for (int doc = 0; doc < size(); doc++) {
+            if (!isOther(doc)) {
+                insert(table, doc);
+            }
+        }
+        idTable = table;
+    }
+
+    /**
+     * Adds a document's ObjectId to an id lookup table, which must have a free slot.
+     */
+    private void insert(int[] table, int doc) {
+        int mask = table.length - 1;
+        int slot = hash(idHigh[doc], idLow[doc]) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = doc + 1;
+    }
+
+    private static int hash(long high, int low) {
+        int h = (Long.hashCode(high) * 31 + low) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Fixed-size list over one column, for APIs that take a List of strings. */
+    private abstract class Column extends AbstractList<String> implements RandomAccess {
+        @Override
+        public int size() {
+            return quantities.length;
+        }
+    }
+
+    private static int[] remove(int[] column, int doc) {
+        int[] copy = new int[column.length - 1];
+        System.arraycopy(column, 0, copy, 0, doc);
+        System.arraycopy(column, doc + 1, copy, doc, copy.length - doc);
+        return copy;
+    }
+
+    private static int[] trim(int[] column, int size) {
+        return column.length == size ? column : Arrays.copyOf(column, size);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.inventoryapplication;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Reads claims from the payload of a JWT issued by the backend.
+ * The signature is not checked: the server verifies tokens on every request, and the app
+ * only uses the claims to decide what to show.
+ */
+public final class JwtPayload {
+
+    /** Role assumed when the token carries none. */
+    public static final String DEFAULT_ROLE = "User";
+
+    private JwtPayload() {
+    }
+
+    /**
+     * Decodes the payload (second) segment of a token.
+     * @param token A JWT in compact "header.payload.signature" form
+     * @return The payload claims
+     * @throws IllegalArgumentException If the token has no payload or it is not valid base64url
+     * @throws JSONException            If the payload is not a JSON object
+     */
+    public static JSONObject decode(String token) throws JSONException {
+        int start = token.indexOf('.');
+        int end = token.indexOf('.', start + 1);
+        if (start < 0) {
+            throw new IllegalArgumentException("Token has no payload");
+        }
+        String payload = token.substring(start + 1, end < 0 ? token.length() : end);
+        byte[] bytes = Base64.getUrlDecoder().decode(payload);
+        return new JSONObject(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the user's role claim for role-based access control.
+     * @param token A JWT in compact form
+     * @return The "role" claim, or {@link #DEFAULT_ROLE} if absent
+     * @throws IllegalArgumentException If the token cannot be decoded
+     * @throws JSONException            If the payload is not a JSON object
+     */
+    public static String role(String token) throws JSONException {
+        return decode(token).optString("role", DEFAULT_ROLE);
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.inventoryapplication;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Batches low-stock alerts into digests, so a busy shift produces one message per interval
+ * rather than one per item.
+ * Items reported low are queued by id, so repeated reports of the same item (every tap on
+ * an empty item, every sync) collapse into one entry holding its latest values. An item is
+ * reported in at most one digest until it is restocked; a queued item that is restocked
+ * before the digest goes out is dropped from it.
+ * A digest goes out a short gathering delay after the first queued item, but never sooner
+ * than the interval after the previous digest. If sending fails, the items stay queued for
+ * the next digest.
+ * Thread-safe; the sender is called on the scheduler's thread, outside any lock.
+ */
+public final class LowStockNotifier {
+
+    /** Most items named in one digest; the rest are counted. */
+    static final int MAX_LISTED = 10;
+
+    /** Queued item: its latest name and quantity. */
+    private static final class Entry {
+        final String name;
+        final int quantity;
+
+        Entry(String name, int quantity) {
+            this.name = name;
+            this.quantity = quantity;
+        }
+    }
+
+    private final Scheduler scheduler;
+    private final LongSupplier clock;
+    private final MessageSender sender;
+    private final long gatherMs;
+    private final Map<String, Entry> queued = new LinkedHashMap<>();
+    private final Set<String> reported = new HashSet<>();
+    private String recipient;
+    private long intervalMs;
+    private long lastSentAt = Long.MIN_VALUE;
+    private Runnable cancelDigest;
+    private boolean sending;
+
+    /**
+     * @param scheduler  Runs digests after a delay, off the main thread
+     * @param clock      Current time in milliseconds
+     * @param sender     Delivers the digests
+     * @param gatherMs   Wait after the first queued item, so a burst of changes lands in one digest
+     * @param intervalMs Shortest time between two digests
+     */
+    public LowStockNotifier(Scheduler scheduler, LongSupplier clock, MessageSender sender,
+                            long gatherMs, long intervalMs) {
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.sender = sender;
+        this.gatherMs = gatherMs;
+        this.intervalMs = intervalMs;
+    }
+
+    /**
+     * Sets where digests go; null or empty queues items without sending anything.
+     */
+    public synchronized void setRecipient(String recipient) {
+        this.recipient = recipient == null || recipient.trim().isEmpty() ? null : recipient.trim();
+        schedule();
+    }
+
+    /**
+     * Sets the shortest time between two digests; applies from the next digest scheduled.
+     */
+    public synchronized void setInterval(long intervalMs) {
+        this.intervalMs = intervalMs;
+    }
+
+    /**
+     * Queues an item that is low on stock, unless a digest already reported it.
+     * @param id       Item id, the key for de-duplication
+     * @param name     Name shown in the digest
+     * @param quantity Quantity shown in the digest
+     */
+    public synchronized void reportLow(String id, String name, int quantity) {
+        if (reported.contains(id)) {
+            return;
+        }
+        queued.put(id, new Entry(name, quantity));
+        schedule();
+    }
+
+    /**
+     * Records that an item is no longer low: it is dropped from the next digest and will be
+     * reported again if it runs low again.
+     */
+    public synchronized void resolve(String id) {
+        queued.remove(id);
+        reported.remove(id);
+    }
+
+    /**
+     * Returns the number of items waiting for the next digest.
+     */
+    public synchronized int queuedCount() {
+        return queued.size();
+    }
+
+    /**
+     * Forgets every queued and reported item and cancels the pending digest, e.g. on logout.
+     */
+    public synchronized void clear() {
+        queued.clear();
+        reported.clear();
+        if (cancelDigest != null) {
+            cancelDigest.run();
+            cancelDigest = null;
+        }
+    }
+
+    /**
+     * Builds the text of a digest.
+     * @param names      Names of the items, in the order they were queued
+     * @param quantities Their quantities
+     * @return E.g. "Low stock: Widget (0), Gadget (2)", with items past {@link #MAX_LISTED} counted
+     */
+    static String format(List<String> names, List<Integer> quantities) {
+        StringBuilder text = new StringBuilder(names.size() == 1 ? "Low stock: " : "Low stock (" + names.size() + " items): ");
+        int listed = Math.min(names.size(), MAX_LISTED);
+        for (int i = 0; i < listed; i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(names.get(i)).append(" (").append(quantities.get(i)).append(')');
+        }
+        if (names.size() > listed) {
+            text.append(" and ").append(names.size() - listed).append(" more");
+        }
+        return text.toString();
+    }
+
+    /** Schedules the next digest if items are waiting and none is scheduled or being sent. */
+    private void schedule() {
+        if (queued.isEmpty() || recipient == null || cancelDigest != null || sending) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long at = now + gatherMs;
+        if (lastSentAt != Long.MIN_VALUE) {
+            at = Math.max(at, lastSentAt + intervalMs);
+        }
+        cancelDigest = scheduler.schedule(this::sendDigest, at - now);
+    }
+
+    private void sendDigest() {
+        String to;
+        List<String> ids;
+        List<String> names = new ArrayList<>();
+        List<Integer> quantities = new ArrayList<>();
+        synchronized (this) {
+            cancelDigest = null;
+            if (queued.isEmpty() || recipient == null) {
+                return;
+            }
+            to = recipient;
+            ids = new ArrayList<>(queued.keySet());
+            for (Entry entry : queued.values()) {
+                names.add(entry.name);
+                quantities.add(entry.quantity);
+            }
+            queued.clear();
+            reported.addAll(ids); // Reports arriving during the send are not queued again
+            sending = true;
+            lastSentAt = clock.getAsLong();
+        }
+
+        boolean sent;
+        try {
+            sender.send(to, format(names, quantities));
+            sent = true;
+        } catch (Exception e) {
+            sent = false;
+        }
+
+        synchronized (this) {
+            sending = false;
+            if (!sent) {
+                // Put the items back ahead of anything queued meanwhile, keeping newer values
+                Map<String, Entry> retry = new LinkedHashMap<>();
+                for (int i = 0; i < ids.size(); i++) {
+                    if (reported.remove(ids.get(i))) { // Not resolved during the send
+                        retry.put(ids.get(i), new Entry(names.get(i), quantities.get(i)));
+                    }
+                }
+                retry.putAll(queued);
+                queued.clear();
+                queued.putAll(retry);
+            }
+            schedule();
+        }
+    }
+}
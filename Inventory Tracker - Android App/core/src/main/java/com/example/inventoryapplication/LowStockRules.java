@@ -0,0 +1,116 @@
+package com.example.inventoryapplication;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decides when an item counts as low on stock: its quantity is at or below the threshold
+ * that applies to its code.
+ * A threshold can be set for one item (by exact code), for a category of items sharing a
+ * code prefix (e.g. every "PLST" item), and as a default for everything else. An exact
+ * code wins over a prefix, and a longer prefix over a shorter one.
+ * Rules are written one per line or comma-separated, e.g. {@code "CP=5, PLST*=20, *=0"}.
+ * Immutable.
+ */
+public final class LowStockRules {
+
+    /** Only items that ran out are low. */
+    public static final LowStockRules DEFAULT = new LowStockRules(0, Collections.emptyMap(), Collections.emptyMap());
+
+    private final int defaultThreshold;
+    private final Map<String, Integer> byCode;
+    private final Map<String, Integer> byPrefix;
+    private final int longestPrefix;
+
+    private LowStockRules(int defaultThreshold, Map<String, Integer> byCode, Map<String, Integer> byPrefix) {
+        this.defaultThreshold = defaultThreshold;
+        this.byCode = byCode;
+        this.byPrefix = byPrefix;
+        int longest = 0;
+        for (String prefix : byPrefix.keySet()) {
+            longest = Math.max(longest, prefix.length());
+        }
+        longestPrefix = longest;
+    }
+
+    /**
+     * Parses rules of the form {@code CODE=n} (one item), {@code PREFIX*=n} (a category) and
+     * {@code *=n} (the default, 0 if absent), separated by commas or new lines.
+     * @param text Rules; null or blank means {@link #DEFAULT}
+     * @return The parsed rules
+     * @throws IllegalArgumentException If a rule is malformed or a threshold is negative
+     */
+    public static LowStockRules parse(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return DEFAULT;
+        }
+        int defaultThreshold = 0;
+        Map<String, Integer> byCode = new LinkedHashMap<>();
+        Map<String, Integer> byPrefix = new LinkedHashMap<>();
+        for (String rule : text.split("[,\\n]")) {
+            rule = rule.trim();
+            if (rule.isEmpty()) {
+                continue;
+            }
+            int eq = rule.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected CODE=n, PREFIX*=n or *=n: " + rule);
+            }
+            String key = rule.substring(0, eq).trim();
+            int threshold;
+            try {
+                threshold = Integer.parseInt(rule.substring(eq + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Threshold is not a number: " + rule);
+            }
+            if (threshold < 0) {
+                throw new IllegalArgumentException("Threshold cannot be negative: " + rule);
+            }
+            if (key.equals("*")) {
+                defaultThreshold = threshold;
+            } else if (key.endsWith("*")) {
+                byPrefix.put(key.substring(0, key.length() - 1), threshold);
+            } else {
+                byCode.put(key, threshold);
+            }
+        }
+        return new LowStockRules(defaultThreshold, byCode, byPrefix);
+    }
+
+    /**
+     * Returns the threshold that applies to an item code.
+     */
+    public int thresholdFor(String code) {
+        Integer exact = byCode.get(code);
+        if (exact != null) {
+            return exact;
+        }
+        for (int length = Math.min(code.length(), longestPrefix); length > 0; length--) {
+            Integer category = byPrefix.get(code.substring(0, length));
+            if (category != null) {
+                return category;
+            }
+        }
+        return defaultThreshold;
+    }
+
+    public boolean isLow(String code, int quantity) {
+        return quantity <= thresholdFor(code);
+    }
+
+    /**
+     * Writes the rules back in the form {@link #parse} reads.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Integer> rule : byCode.entrySet()) {
+            text.append(rule.getKey()).append('=').append(rule.getValue()).append(", ");
+        }
+        for (Map.Entry<String, Integer> rule : byPrefix.entrySet()) {
+            text.append(rule.getKey()).append("*=").append(rule.getValue()).append(", ");
+        }
+        return text.append("*=").append(defaultThreshold).toString();
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.inventoryapplication;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Live set of the catalog's items that are low on stock under {@link LowStockRules}.
+ * The set is maintained incrementally: an edit re-evaluates the one item it changed, and a
+ * refreshed catalog re-evaluates only the documents whose code or quantity changed
+ * ({@link ItemStore#changedDocs}), so keeping it current costs nothing per unchanged item.
+ * Only a catalog built from scratch, or new rules, evaluates every item.
+ * Items entering or leaving the set through an incremental change are reported to the
+ * listeners; a full evaluation is not, since it reflects no change in stock.
+ * Not thread-safe.
+ */
+public final class LowStockTracker {
+
+    /**
+     * Receives items entering or leaving the low-stock set.
+     */
+    public interface Listener {
+        /**
+         * @param id  Id of the item
+         * @param low True if it became low, false if it was restocked or removed
+         */
+        void onLowStockChanged(String id, boolean low);
+    }
+
+    private final List<Listener> listeners = new ArrayList<>();
+    private final Set<String> lowIds = new LinkedHashSet<>();
+    private LowStockRules rules;
+    private ItemStore store;
+    private BitSet lowDocs;  // Documents of the current store in lowIds; null until next needed
+
+    public LowStockTracker(LowStockRules rules) {
+        this.rules = rules;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public LowStockRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Replaces the rules and re-evaluates every item.
+     */
+    public void setRules(LowStockRules rules) {
+        this.rules = rules;
+        if (store != null) {
+            evaluateAll();
+        }
+    }
+
+    /**
+     * Takes a new catalog, e.g. after a sync, an addition or a deletion. Only its changed
+     * documents are evaluated; items gone from it leave the set.
+     * @param next The catalog now loaded
+     */
+    public void onCatalogReplaced(ItemStore next) {
+        if (next == store) {
+            return;
+        }
+        store = next;
+        lowDocs = null;
+        int[] changed = next.changedDocs();
+        if (changed == null) {
+            evaluateAll();
+            return;
+        }
+        for (Iterator<String> it = lowIds.iterator(); it.hasNext(); ) {
+            String id = it.next();
+            if (next.indexOf(id) < 0) {
+                it.remove();
+                notifyChanged(id, false);
+            }
+        }
+        for (int doc : changed) {
+            evaluate(doc);
+        }
+    }
+
+    /**
+     * Re-evaluates one item after its values changed in place.
+     * @param id Id of the item; items not in the catalog are ignored
+     */
+    public void onItemChanged(String id) {
+        int doc = store == null ? -1 : store.indexOf(id);
+        if (doc >= 0) {
+            evaluate(doc);
+        }
+    }
+
+    /**
+     * Carries an item's membership over to the id the server assigned it.
+     */
+    public void onIdChanged(String oldId, String newId) {
+        if (lowIds.remove(oldId)) {
+            lowIds.add(newId);
+        }
+    }
+
+    /**
+     * Returns the number of items low on stock.
+     */
+    public int size() {
+        return lowIds.size();
+    }
+
+    public boolean isLow(String id) {
+        return lowIds.contains(id);
+    }
+
+    /**
+     * Returns true if a document of the current catalog is low on stock.
+     */
+    public boolean isLowDoc(int doc) {
+        return lowDocBits().get(doc);
+    }
+
+    /**
+     * Returns the low-stock documents of the current catalog in document order, ready to be
+     * shown as a view of the store.
+     */
+    public int[] lowDocs() {
+        BitSet bits = lowDocBits();
+        int[] docs = new int[bits.cardinality()];
+        int i = 0;
+        for (int doc = bits.nextSetBit(0); doc >= 0; doc = bits.nextSetBit(doc + 1)) {
+            docs[i++] = doc;
+        }
+        return docs;
+    }
+
+    /**
+     * Forgets the catalog and the set, e.g. on logout.
+     */
+    public void clear() {
+        store = null;
+        lowDocs = null;
+        lowIds.clear();
+    }
+
+    private void evaluate(int doc) {
+        String id = store.id(doc);
+        boolean low = rules.isLow(store.code(doc), store.quantity(doc));
+        if (low ? lowIds.add(id) : lowIds.remove(id)) {
+            if (lowDocs != null) {
+                lowDocs.set(doc, low);
+            }
+            notifyChanged(id, low);
+        }
+    }
+
+    private void evaluateAll() {
+        lowIds.clear();
+        BitSet bits = new BitSet(store.size());
+        for (int doc = 0; doc < store.size(); doc++) {
+            if (rules.isLow(store.code(doc), store.quantity(doc))) {
+                lowIds.add(store.id(doc));
+                bits.set(doc);
+            }
+        }
+        lowDocs = bits;
+    }
+
+    private BitSet lowDocBits() {
+        if (lowDocs == null) {
+            BitSet bits = new BitSet(store == null ? 0 : store.size());
+            if (store != null) {
+                for (String id : lowIds) {
+                    int doc = store.indexOf(id);
+                    if (doc >= 0) {
+                        bits.set(doc);
+                    }
+                }
+            }
+            lowDocs = bits;
+        }
+        return lowDocs;
+    }
+
+    private void notifyChanged(String id, boolean low) {
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onLowStockChanged(id, low);
+        }
+    }
+}
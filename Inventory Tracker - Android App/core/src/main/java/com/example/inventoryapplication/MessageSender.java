@@ -0,0 +1,16 @@
+package com.example.inventoryapplication;
+
+/**
+ * Delivers a text message, e.g. a low-stock digest. The app sends SMS; tests record the
+ * messages instead.
+ */
+public interface MessageSender {
+
+    /**
+     * Sends one message. Called off the main thread; may block.
+     * @param recipient Address to send to, e.g. a phone number
+     * @param message   Text of the message
+     * @throws Exception If the message could not be handed off; it is then retried later
+     */
+    void send(String recipient, String message) throws Exception;
+}
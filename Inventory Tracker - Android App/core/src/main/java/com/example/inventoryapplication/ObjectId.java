@@ -0,0 +1,110 @@
+package com.example.inventoryapplication;
+
+/**
+ * A MongoDB ObjectId held as its 12 raw bytes rather than a 24-character hex String:
+ * the first eight bytes in {@link #high} and the last four in {@link #low}.
+ * The static helpers convert without allocating, so columnar stores can keep ids as a
+ * {@code long[]} and an {@code int[]} and only format a String for rendered rows.
+ */
+public final class ObjectId {
+
+    /** Length of an ObjectId in hex digits. */
+    public static final int HEX_LENGTH = 24;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    public final long high;
+    public final int low;
+
+    public ObjectId(long high, int low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * Parses a 24-digit hex id.
+     * @param hex The id as sent by the API
+     * @return The id, or null if {@code hex} is not a valid ObjectId
+     */
+    public static ObjectId parse(String hex) {
+        return isValid(hex) ? new ObjectId(parseHigh(hex), parseLow(hex)) : null;
+    }
+
+    /**
+     * Returns true if {@code hex} is exactly 24 lower-case hex digits, the form the API sends
+     * and {@link #toHexString} produces. Upper-case ids are rejected so that every id held
+     * as an ObjectId formats back to the same String; callers keep those as Strings.
+     */
+    public static boolean isValid(String hex) {
+        if (hex == null || hex.length() != HEX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < HEX_LENGTH; i++) {
+            char c = hex.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the first eight bytes of a valid id. Callers must check {@link #isValid} first.
+     */
+    public static long parseHigh(String hex) {
+        long value = 0;
+        for (int i = 0; i < 16; i++) {
+            value = (value << 4) | Character.digit(hex.charAt(i), 16);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the last four bytes of a valid id. Callers must check {@link #isValid} first.
+     */
+    public static int parseLow(String hex) {
+        int value = 0;
+        for (int i = 16; i < HEX_LENGTH; i++) {
+            value = (value << 4) | Character.digit(hex.charAt(i), 16);
+        }
+        return value;
+    }
+
+    /**
+     * Formats an id as the API sends it: 24 lower-case hex digits.
+     */
+    public static String toHexString(long high, int low) {
+        char[] chars = new char[HEX_LENGTH];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX_DIGITS[(int) (high & 0xF)];
+            high >>>= 4;
+        }
+        for (int i = HEX_LENGTH - 1; i >= 16; i--) {
+            chars[i] = HEX_DIGITS[low & 0xF];
+            low >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ObjectId)) {
+            return false;
+        }
+        ObjectId other = (ObjectId) o;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high) * 31 + low;
+    }
+
+    @Override
+    public String toString() {
+        return toHexString(high, low);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.inventoryapplication;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Slices one page out of an index view over a list of items.
+ */
+public final class Pages {
+
+    private Pages() {
+    }
+
+    /**
+     * Returns the items at positions {@code view.get((page-1)*pageSize) ..} of {@code items}.
+     * Only the visible slice is copied; the view itself is never materialized.
+     * @param items    Every loaded item
+     * @param view     Positions in {@code items}, in display order
+     * @param page     1-based page number
+     * @param pageSize Items per page
+     * @param <T>      Type of item
+     * @return An immutable page, empty if the page is past the end
+     */
+    public static <T> List<T> slice(List<T> items, DocView view, int page, int pageSize) {
+        int start = (page - 1) * pageSize;
+        int end = Math.min(start + pageSize, view.length());
+        if (start >= end) {
+            return Collections.emptyList();
+        }
+        List<T> slice = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            slice.add(items.get(view.get(i)));
+        }
+        return Collections.unmodifiableList(slice);
+    }
+}
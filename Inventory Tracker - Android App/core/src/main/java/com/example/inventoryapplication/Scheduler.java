@@ -0,0 +1,15 @@
+package com.example.inventoryapplication;
+
+/**
+ * Runs tasks after a delay. The app posts them to a handler; tests run them when they
+ * advance a manual clock. Each user states which thread its tasks must run on.
+ */
+public interface Scheduler {
+
+    /**
+     * @param task    Task to run
+     * @param delayMs Delay before it runs
+     * @return Cancels the task if it has not run yet
+     */
+    Runnable schedule(Runnable task, long delayMs);
+}
@@ -0,0 +1,136 @@
+package com.example.inventoryapplication;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Debounces search queries and evaluates them off the calling thread.
+ * Each call to {@link #submit} supersedes the previous one: a query that is still waiting out
+ * the quiet period is dropped, a query that is already running is cancelled, and a result that
+ * finishes after a newer query was submitted is never delivered. Only the latest query's result
+ * reaches the listener, on the executor supplied at construction (normally the main thread).
+ * @param <R> Type of the search result
+ */
+public class SearchDebouncer<R> {
+
+    /**
+     * Work performed on the background thread for a single query.
+     * @param <R> Type of the search result
+     */
+    public interface Search<R> {
+        R run(String query) throws Exception;
+    }
+
+    /**
+     * Receives the result of the most recent query on the callback executor.
+     * @param <R> Type of the search result
+     */
+    public interface Listener<R> {
+        void onResult(String query, R result);
+
+        /**
+         * Called instead of {@link #onResult} when the latest query's search threw.
+         * Ignored by default.
+         */
+        default void onError(String query, Exception error) {
+        }
+    }
+
+    private final long delayMillis;
+    private final Executor callbackExecutor;
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "SearchDebouncer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Incremented on every submit and cancel; results tagged with an older value are stale. */
+    private final AtomicLong generation = new AtomicLong();
+    private ScheduledFuture<?> pending;
+
+    /**
+     * @param delayMillis      Quiet period a query must survive before it is evaluated
+     * @param callbackExecutor Executor results are delivered on
+     */
+    public SearchDebouncer(long delayMillis, Executor callbackExecutor) {
+        this.delayMillis = delayMillis;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Schedules {@code search} for {@code query}, replacing any earlier query.
+     * @param query    The text being searched for
+     * @param search   Evaluation performed on the background thread
+     * @param listener Receives the result if no newer query has arrived by then
+     */
+    public void submit(String query, Search<R> search, Listener<R> listener) {
+        submit(query, delayMillis, search, listener);
+    }
+
+    /**
+     * Schedules {@code search} for {@code query} after a custom delay, replacing any earlier query.
+     * A delay of zero suits explicit actions such as page changes that need no debouncing.
+     * @param query       The text being searched for
+     * @param delayMillis Time to wait before evaluating
+     * @param search      Evaluation performed on the background thread
+     * @param listener    Receives the result if no newer query has arrived by then
+     */
+    public synchronized void submit(String query, long delayMillis, Search<R> search, Listener<R> listener) {
+        long ticket = generation.incrementAndGet();
+        cancelPending();
+        pending = worker.schedule(() -> {
+            if (ticket != generation.get()) {
+                return;
+            }
+            R result;
+            try {
+                result = search.run(query);
+            } catch (Exception e) {
+                if (ticket == generation.get() && !(e instanceof InterruptedException)) {
+                    callbackExecutor.execute(() -> {
+                        if (ticket == generation.get()) {
+                            listener.onError(query, e);
+                        }
+                    });
+                }
+                return;
+            }
+            if (ticket != generation.get() || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            callbackExecutor.execute(() -> {
+                // A newer query may have been submitted while this result was being posted
+                if (ticket == generation.get()) {
+                    listener.onResult(query, result);
+                }
+            });
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Drops any waiting or running query so that its result is never delivered.
+     */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        cancelPending();
+    }
+
+    /**
+     * Cancels outstanding work and stops the background thread.
+     */
+    public synchronized void shutdown() {
+        cancel();
+        worker.shutdownNow();
+    }
+
+    private void cancelPending() {
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+}
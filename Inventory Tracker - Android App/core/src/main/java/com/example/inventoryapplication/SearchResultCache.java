@@ -0,0 +1,151 @@
+package com.example.inventoryapplication;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU cache of server search pages keyed by (query, page, pageSize).
+ * Entries expire after a fixed time-to-live, and the whole cache is dropped whenever the
+ * app mutates inventory locally, since any cached page could then be out of date. Each drop
+ * starts a new generation; a page fetched under an earlier generation is not stored, as the
+ * server may have answered before the change.
+ * All methods are synchronized so lookups may come from a background thread.
+ * @param <V> Type of the cached page
+ */
+public class SearchResultCache<V> {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    /** Access-ordered map; the eldest entry is the least recently used one. */
+    private final LinkedHashMap<Key, Entry<V>> entries;
+
+    /** Incremented by every {@link #invalidateAll}. */
+    private long generation;
+
+    /**
+     * @param maxEntries Maximum number of pages kept before the least recently used is evicted
+     * @param ttlMillis  How long a page stays valid after it was stored
+     */
+    public SearchResultCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxEntries Maximum number of pages kept before the least recently used is evicted
+     * @param ttlMillis  How long a page stays valid after it was stored
+     * @param clock      Source of the current time in milliseconds
+     */
+    public SearchResultCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<Key, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry<V>> eldest) {
+                return size() > SearchResultCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached page, or null if it was never stored, was evicted or has expired.
+     */
+    public synchronized V get(String query, int page, int pageSize) {
+        Key key = new Key(query, page, pageSize);
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (clock.getAsLong() - entry.storedAt >= ttlMillis) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Stores a page, evicting the least recently used page if the cache is full.
+     */
+    public synchronized void put(String query, int page, int pageSize, V value) {
+        entries.put(new Key(query, page, pageSize), new Entry<>(value, clock.getAsLong()));
+    }
+
+    /**
+     * Stores a page only if the cache has not been invalidated since {@code fetchedAt} was
+     * read from {@link #generation}, i.e. since the request for it was sent.
+     * @return True if the page was stored
+     */
+    public synchronized boolean put(String query, int page, int pageSize, V value, long fetchedAt) {
+        if (fetchedAt != generation) {
+            return false;
+        }
+        put(query, page, pageSize, value);
+        return true;
+    }
+
+    /**
+     * Returns the current generation, to be read before requesting a page that will be stored.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Drops every cached page and starts a new generation. Called after any local add, edit
+     * or delete.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of pages currently held, including any not yet noticed to be expired.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Key {
+        private final String query;
+        private final int page;
+        private final int pageSize;
+
+        Key(String query, int page, int pageSize) {
+            this.query = query == null ? "" : query;
+            this.page = page;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return page == other.page && pageSize == other.pageSize && query.equals(other.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, page, pageSize);
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long storedAt;
+
+        Entry(V value, long storedAt) {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.inventoryapplication;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded window over a long, paged list for infinite scrolling.
+ * The window holds at most {@code maxPages} consecutive pages. As the visible range nears
+ * either edge, the adjacent page is requested from a {@link PageSource}; once it arrives the
+ * page on the opposite edge is evicted. Scrolling back reloads evicted pages on demand, so the
+ * number of items held stays constant no matter how far the user scrolls.
+ * All methods, and all {@link PageSource} callbacks, must run on the same thread.
+ * @param <T> Type of the list items
+ */
+public class SlidingWindow<T> {
+
+    /**
+     * Supplies pages of the underlying list. Loads may complete synchronously or later.
+     * @param <T> Type of the list items
+     */
+    public interface PageSource<T> {
+        void load(int offset, int count, Callback<T> callback);
+    }
+
+    /**
+     * Completion callback for a {@link PageSource} load.
+     * @param <T> Type of the list items
+     */
+    public interface Callback<T> {
+        void onLoaded(List<T> items, int total);
+
+        void onError(Exception error);
+    }
+
+    /**
+     * Receives a new immutable snapshot whenever the window contents change.
+     * @param <T> Type of the list items
+     */
+    public interface Listener<T> {
+        void onWindowChanged(List<T> items, int windowStart, int total);
+    }
+
+    private final int pageSize;
+    private final int maxPages;
+    private final int prefetchDistance;
+    private final Listener<T> listener;
+
+    private PageSource<T> source;
+    private final List<T> items = new ArrayList<>();
+    private int windowStart;
+    private int total;
+    private boolean loading;
+
+    /** Incremented on every reset or refresh so that loads for an earlier source are ignored. */
+    private int generation;
+
+    /**
+     * @param pageSize         Items requested per load
+     * @param maxPages         Pages kept before the farthest one is evicted
+     * @param prefetchDistance How close (in items) the visible range may get to an edge before
+     *                         the next page is requested
+     * @param listener         Receives window snapshots
+     */
+    public SlidingWindow(int pageSize, int maxPages, int prefetchDistance, Listener<T> listener) {
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.prefetchDistance = prefetchDistance;
+        this.listener = listener;
+    }
+
+    /**
+     * Discards the current window and starts again at the top of a new source.
+     * @param newSource Source of the list to display
+     */
+    public void reset(PageSource<T> newSource) {
+        generation++;
+        source = newSource;
+        items.clear();
+        windowStart = 0;
+        total = 0;
+        loading = false;
+        load(0, true);
+    }
+
+    /**
+     * Reloads the rows currently held from a new source without moving the window, for when
+     * the list changed in place (an edited item) rather than being replaced. Falls back to
+     * {@link #reset} if the window's position no longer exists in the new list.
+     * @param newSource Source of the updated list
+     */
+    public void refresh(PageSource<T> newSource) {
+        generation++;
+        source = newSource;
+        int ticket = generation;
+        int start = windowStart;
+        loading = true;
+        newSource.load(start, Math.max(items.size(), pageSize), new Callback<T>() {
+            @Override
+            public void onLoaded(List<T> page, int newTotal) {
+                if (ticket != generation) {
+                    return;
+                }
+                if (page.isEmpty() && start > 0) {
+                    reset(newSource);
+                    return;
+                }
+                loading = false;
+                total = newTotal;
+                items.clear();
+                items.addAll(page);
+                listener.onWindowChanged(Collections.unmodifiableList(new ArrayList<>(items)), windowStart, total);
+            }
+
+            @Override
+            public void onError(Exception error) {
+                if (ticket == generation) {
+                    loading = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * Replaces rows in the held window without reloading it, e.g. to show an item that
+     * changed while its page stays put.
+     * @param replacement Returns the row to show instead of each held row (or the row itself)
+     */
+    public void replaceAll(UnaryOperator<T> replacement) {
+        items.replaceAll(replacement);
+        listener.onWindowChanged(Collections.unmodifiableList(new ArrayList<>(items)), windowStart, total);
+    }
+
+    /**
+     * Reports the visible range, in window positions, and loads an adjacent page if needed.
+     * @param firstVisible First visible position, or a negative value if nothing is visible
+     * @param lastVisible  Last visible position
+     */
+    public void onVisibleRange(int firstVisible, int lastVisible) {
+        if (source == null || loading || firstVisible < 0) {
+            return;
+        }
+        int windowEnd = windowStart + items.size();
+        if (lastVisible >= items.size() - prefetchDistance && windowEnd < total) {
+            load(windowEnd, true);
+        } else if (firstVisible < prefetchDistance && windowStart > 0) {
+            load(Math.max(windowStart - pageSize, 0), false);
+        }
+    }
+
+    /**
+     * Returns the absolute position of the first item held in the window.
+     */
+    public int getWindowStart() {
+        return windowStart;
+    }
+
+    /**
+     * Returns the total size of the underlying list as last reported by the source.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    private void load(int offset, boolean forward) {
+        int ticket = generation;
+        int count = forward ? pageSize : windowStart - offset;
+        loading = true;
+        source.load(offset, count, new Callback<T>() {
+            @Override
+            public void onLoaded(List<T> page, int newTotal) {
+                if (ticket != generation) {
+                    return;
+                }
+                loading = false;
+                total = newTotal;
+                if (forward) {
+                    items.addAll(page);
+                    evictFromStart();
+                } else {
+                    items.addAll(0, page);
+                    windowStart = offset;
+                    evictFromEnd();
+                }
+                listener.onWindowChanged(Collections.unmodifiableList(new ArrayList<>(items)), windowStart, total);
+            }
+
+            @Override
+            public void onError(Exception error) {
+                if (ticket == generation) {
+                    loading = false; // Allow the next scroll event to retry
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops whole pages from the front so that windowStart stays page-aligned.
+     */
+    private void evictFromStart() {
+        int excess = items.size() - pageSize * maxPages;
+        if (excess > 0) {
+            int drop = Math.min((excess + pageSize - 1) / pageSize * pageSize, items.size());
+            items.subList(0, drop).clear();
+            windowStart += drop;
+        }
+    }
+
+    private void evictFromEnd() {
+        int excess = items.size() - pageSize * maxPages;
+        if (excess > 0) {
+            items.subList(items.size() - excess, items.size()).clear();
+        }
+    }
+}
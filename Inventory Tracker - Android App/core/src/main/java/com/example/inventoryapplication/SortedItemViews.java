@@ -0,0 +1,357 @@
+package com.example.inventoryapplication;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Precomputed sort orders and quantity range filters over the loaded items.
+ * For each sort key the class keeps an order array (document ids in sorted order) and its
+ * inverse, a rank array (position of each document in that order). Switching sort keys or
+ * low-stock thresholds then costs no re-sort: a full listing is the order array itself, a
+ * "quantity &lt;= threshold" view is a prefix of the quantity order found by binary search,
+ * and any filtered subset can be ordered by comparing precomputed int ranks.
+ * Quantity, name and code changes reposition a single document instead of rebuilding the orders.
+ * Views read straight from an order array are not copied, so they follow those changes;
+ * derive the view again after making one.
+ */
+public class SortedItemViews {
+
+    /**
+     * Available list orderings. {@link #SERVER} keeps the order the API returned, or for a
+     * search result the order the matches were ranked in.
+     */
+    public enum SortKey { SERVER, NAME, CODE, QUANTITY }
+
+    private final List<String> names;
+    private final List<String> codes;
+    private final int[] quantities;
+
+    private final int[] byName;
+    private final int[] byCode;
+    private final int[] byQuantity;
+    private final int[] nameRank;
+    private final int[] codeRank;
+    private final int[] quantityRank;
+
+    private final DocOrder nameOrder;
+    private final DocOrder codeOrder;
+    private final DocOrder quantityOrder;
+
+    /** Total order over document ids, compared without boxing. */
+    private interface DocOrder {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Builds the sort orders for document {@code i} = ({@code names.get(i)}, {@code codes.get(i)},
+     * {@code quantities[i]}). This is the only O(n log n) step.
+     * The name and code lists are kept by reference (they may be views over a columnar store)
+     * and only read again when a single document is repositioned.
+     * @param names      Item names in server order; must support set() if names are updated
+     * @param codes      Item codes in server order; must support set() if codes are updated
+     * @param quantities Item quantities in server order
+     */
+    public SortedItemViews(List<String> names, List<String> codes, int[] quantities) {
+        int size = quantities.length;
+        this.names = names;
+        this.codes = codes;
+        this.quantities = quantities.clone();
+
+        // Ties always fall back to server order so every ordering is total and stable
+        nameOrder = textOrder(names::get);
+        codeOrder = textOrder(codes::get);
+        quantityOrder = (a, b) -> {
+            int c = Integer.compare(this.quantities[a], this.quantities[b]);
+            return c != 0 ? c : Integer.compare(a, b);
+        };
+
+        // Read each text once for the initial sorts; the copies are dropped afterwards
+        String[] nameKeys = names.toArray(new String[0]);
+        String[] codeKeys = codes.toArray(new String[0]);
+        byName = sortedDocs(size, textOrder(doc -> nameKeys[doc]));
+        byCode = sortedDocs(size, textOrder(doc -> codeKeys[doc]));
+        byQuantity = sortedDocs(size, quantityOrder);
+        nameRank = inverse(byName);
+        codeRank = inverse(byCode);
+        quantityRank = inverse(byQuantity);
+    }
+
+    /**
+     * Returns the number of documents in the views.
+     * @return Document count
+     */
+    public int size() {
+        return quantities.length;
+    }
+
+    /**
+     * Returns the current quantity of a document as known to the views.
+     */
+    public int quantity(int doc) {
+        return quantities[doc];
+    }
+
+    /**
+     * Number of documents whose quantity is at most {@code threshold}; these are exactly the
+     * first entries of the quantity order.
+     * @param threshold Inclusive upper bound on quantity
+     * @return Size of the low-stock prefix
+     */
+    public int lowStockCount(int threshold) {
+        int lo = 0;
+        int hi = byQuantity.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (quantities[byQuantity[mid]] <= threshold) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Produces the visible list of document ids for a search result.
+     * Unfiltered listings in a precomputed order, and the low-stock prefix in quantity order,
+     * read the order array in place and take constant time; only filtered subsets are copied.
+     * @param matches   Document ids in server or relevance order, or null for "every document"
+     * @param key       Requested ordering
+     * @param threshold Only keep documents with quantity at most this value; negative disables
+     * @return Document ids in display order
+     */
+    public DocView view(int[] matches, SortKey key, int threshold) {
+        if (matches == null) {
+            // Unfiltered: answer straight from the precomputed orders
+            if (threshold >= 0) {
+                int count = lowStockCount(threshold);
+                if (key == SortKey.QUANTITY) {
+                    return DocView.prefix(byQuantity, count);
+                }
+                if (key == SortKey.SERVER) {
+                    return DocView.of(lowInServerOrder(count));
+                }
+                return DocView.of(orderSubset(Arrays.copyOf(byQuantity, count), key));
+            }
+            return key == SortKey.SERVER ? DocView.all(size()) : DocView.prefix(order(key), size());
+        }
+
+        int[] subset = matches;
+        if (threshold >= 0) {
+            subset = new int[matches.length];
+            int kept = 0;
+            for (int doc : matches) {
+                if (quantities[doc] <= threshold) {
+                    subset[kept++] = doc;
+                }
+            }
+            subset = Arrays.copyOf(subset, kept);
+        }
+        return DocView.of(orderSubset(subset, key));
+    }
+
+    /**
+     * Moves a document to its new place in the quantity order after its quantity changed.
+     * @param doc      Document id
+     * @param quantity New quantity
+     */
+    public void updateQuantity(int doc, int quantity) {
+        int from = quantityRank[doc];
+        quantities[doc] = quantity;
+        reposition(byQuantity, quantityRank, from, quantityOrder);
+    }
+
+    /**
+     * Moves a document to its new place in the name order after it was renamed.
+     * The name is written through to the names list unless the list already holds it.
+     * @param doc  Document id
+     * @param name New name
+     */
+    public void updateName(int doc, String name) {
+        int from = nameRank[doc];
+        if (!name.equals(names.get(doc))) {
+            names.set(doc, name);
+        }
+        reposition(byName, nameRank, from, nameOrder);
+    }
+
+    /**
+     * Moves a document to its new place in the code order after its code changed.
+     * The code is written through to the codes list unless the list already holds it.
+     * @param doc  Document id
+     * @param code New code
+     */
+    public void updateCode(int doc, String code) {
+        int from = codeRank[doc];
+        if (!code.equals(codes.get(doc))) {
+            codes.set(doc, code);
+        }
+        reposition(byCode, codeRank, from, codeOrder);
+    }
+
+    /**
+     * Returns the first {@code count} documents of the quantity order in document id order,
+     * by marking them and scanning the ids rather than sorting.
+     */
+    private int[] lowInServerOrder(int count) {
+        boolean[] member = new boolean[size()];
+        for (int i = 0; i < count; i++) {
+            member[byQuantity[i]] = true;
+        }
+        int[] result = new int[count];
+        int filled = 0;
+        for (int doc = 0; filled < count; doc++) {
+            if (member[doc]) {
+                result[filled++] = doc;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sorts a subset of documents by comparing their precomputed ranks.
+     * Subsets covering most of the catalog are instead read off the full order array.
+     */
+    private int[] orderSubset(int[] subset, SortKey key) {
+        if (key == SortKey.SERVER) {
+            return subset;
+        }
+        int[] order = order(key);
+        int[] rank = rank(key);
+
+        if (subset.length > size() / 8) {
+            boolean[] member = new boolean[size()];
+            for (int doc : subset) {
+                member[doc] = true;
+            }
+            int[] result = new int[subset.length];
+            int filled = 0;
+            for (int doc : order) {
+                if (member[doc]) {
+                    result[filled++] = doc;
+                }
+            }
+            return result;
+        }
+
+        // Pack (rank, doc) into one long so the subset sorts as primitives
+        long[] packed = new long[subset.length];
+        for (int i = 0; i < subset.length; i++) {
+            packed[i] = ((long) rank[subset[i]] << 32) | subset[i];
+        }
+        Arrays.sort(packed);
+        int[] result = new int[subset.length];
+        for (int i = 0; i < packed.length; i++) {
+            result[i] = (int) packed[i];
+        }
+        return result;
+    }
+
+    private int[] order(SortKey key) {
+        switch (key) {
+            case NAME:
+                return byName;
+            case CODE:
+                return byCode;
+            case QUANTITY:
+                return byQuantity;
+            default:
+                throw new IllegalArgumentException("No precomputed order for " + key);
+        }
+    }
+
+    private int[] rank(SortKey key) {
+        switch (key) {
+            case NAME:
+                return nameRank;
+            case CODE:
+                return codeRank;
+            case QUANTITY:
+                return quantityRank;
+            default:
+                throw new IllegalArgumentException("No precomputed rank for " + key);
+        }
+    }
+
+    /**
+     * Moves the document at {@code order[from]} to where it now sorts, shifting the documents
+     * in between by one place and fixing up their ranks. The rest of the order is still sorted,
+     * so the new slot is found by binary search on the side the document moves to.
+     */
+    private static void reposition(int[] order, int[] rank, int from, DocOrder comparator) {
+        int doc = order[from];
+        int to;
+        if (from > 0 && comparator.compare(order[from - 1], doc) > 0) {
+            // First slot in [0, from) holding a document that sorts after doc
+            int lo = 0;
+            int hi = from - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (comparator.compare(order[mid], doc) > 0) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            to = lo;
+        } else if (from < order.length - 1 && comparator.compare(order[from + 1], doc) < 0) {
+            // Last slot in (from, length) holding a document that sorts before doc
+            int lo = from + 1;
+            int hi = order.length - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (comparator.compare(order[mid], doc) < 0) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            to = lo;
+        } else {
+            return;
+        }
+        if (to < from) {
+            System.arraycopy(order, to, order, to + 1, from - to);
+        } else {
+            System.arraycopy(order, from + 1, order, from, to - from);
+        }
+        order[to] = doc;
+        for (int i = Math.min(from, to); i <= Math.max(from, to); i++) {
+            rank[order[i]] = i;
+        }
+    }
+
+    private static int[] sortedDocs(int size, DocOrder comparator) {
+        Integer[] docs = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            docs[i] = i;
+        }
+        Arrays.sort(docs, (Comparator<Integer>) comparator::compare);
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = docs[i];
+        }
+        return order;
+    }
+
+    private static int[] inverse(int[] order) {
+        int[] rank = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            rank[order[i]] = i;
+        }
+        return rank;
+    }
+
+    private static DocOrder textOrder(IntFunction<String> text) {
+        return (a, b) -> {
+            int c = compareText(text.apply(a), text.apply(b));
+            return c != 0 ? c : Integer.compare(a, b);
+        };
+    }
+
+    private static int compareText(String a, String b) {
+        return (a == null ? "" : a).compareToIgnoreCase(b == null ? "" : b);
+    }
+}
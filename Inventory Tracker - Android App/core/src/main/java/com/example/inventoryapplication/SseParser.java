@@ -0,0 +1,106 @@
+package com.example.inventoryapplication;
+
+/**
+ * Incremental parser for the Server-Sent Events wire format ({@code text/event-stream}).
+ * Lines are fed in one at a time; each blank line completes an event, which is handed to
+ * the listener with its type, data and the stream's current event id. Comment lines
+ * (heartbeats) are ignored, multi-line data is joined with newlines, and {@code retry}
+ * fields are reported separately.
+ * Not thread-safe.
+ */
+public final class SseParser {
+
+    /**
+     * Receives parsed events.
+     */
+    public interface Listener {
+        /**
+         * @param type Event type, "message" if the event named none
+         * @param id   Last event id the stream has sent, or null if none yet
+         * @param data Event data
+         */
+        void onEvent(String type, String id, String data);
+
+        /**
+         * The server asked for a different reconnection delay.
+         */
+        void onRetry(long retryMs);
+    }
+
+    private final Listener listener;
+    private final StringBuilder data = new StringBuilder();
+    private String type;
+    private String lastEventId;
+    private boolean hasData;
+
+    /**
+     * @param lastEventId Id to report until the stream sends one, e.g. the id resumed from
+     * @param listener    Receives the events
+     */
+    public SseParser(String lastEventId, Listener listener) {
+        this.lastEventId = lastEventId;
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the id of the last event received, or the one passed to the constructor.
+     */
+    public String lastEventId() {
+        return lastEventId;
+    }
+
+    /**
+     * Parses one line, without its line terminator.
+     */
+    public void line(String line) {
+        if (line.isEmpty()) {
+            dispatch();
+            return;
+        }
+        if (line.charAt(0) == ':') {
+            return; // Comment
+        }
+        int colon = line.indexOf(':');
+        String field = colon < 0 ? line : line.substring(0, colon);
+        String value = colon < 0 ? "" : line.substring(colon + 1);
+        if (value.startsWith(" ")) {
+            value = value.substring(1);
+        }
+        switch (field) {
+            case "event":
+                type = value;
+                break;
+            case "data":
+                if (hasData) {
+                    data.append('\n');
+                }
+                data.append(value);
+                hasData = true;
+                break;
+            case "id":
+                if (value.indexOf('\0') < 0) {
+                    lastEventId = value;
+                }
+                break;
+            case "retry":
+                try {
+                    listener.onRetry(Long.parseLong(value));
+                } catch (NumberFormatException e) {
+                    // Ignored, as the format requires
+                }
+                break;
+            default:
+                break; // Unknown fields are ignored
+        }
+    }
+
+    /** Completes the event being built; events without data are dropped, as the format requires. */
+    private void dispatch() {
+        if (hasData) {
+            listener.onEvent(type == null || type.isEmpty() ? "message" : type, lastEventId, data.toString());
+        }
+        data.setLength(0);
+        hasData = false;
+        type = null;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.inventoryapplication;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only pool of strings packed into one byte array, addressed by int handles.
+ * Handles stay valid as the pool grows, so several generations of a store may share one pool.
+ * A {@code String} costs two objects (the String and its backing array, about 40 bytes of
+ * headers and fields) on top of its text; here each value costs its UTF-8 bytes plus one
+ * 4-byte offset. Values are decoded into a new String on every {@link #get}, so the pool
+ * suits large columns that are read a few rows at a time.
+ * Not thread-safe.
+ */
+public final class StringPool {
+
+    private byte[] data;
+    private int[] offsets;  // Value h occupies data[offsets[h] .. offsets[h + 1])
+    private int size;
+
+    /**
+     * @param expectedSize  Number of values expected; the pool grows past it if needed
+     * @param expectedBytes Total UTF-8 length expected; the pool grows past it if needed
+     */
+    public StringPool(int expectedSize, int expectedBytes) {
+        data = new byte[Math.max(expectedBytes, 16)];
+        offsets = new int[Math.max(expectedSize, 4) + 1];
+    }
+
+    /**
+     * Appends a value. Null is stored as the empty string.
+     * @param value String to store
+     * @return Its handle; handles are assigned 0, 1, 2, ... in order of addition
+     */
+    public int add(String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        int start = offsets[size];
+        if (start + bytes.length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, start + bytes.length));
+        }
+        if (size + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        System.arraycopy(bytes, 0, data, start, bytes.length);
+        offsets[size + 1] = start + bytes.length;
+        return size++;
+    }
+
+    private StringPool(byte[] data, int[] offsets, int size) {
+        this.data = data;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    /**
+     * Returns a copy holding the same values under the same handles, without spare capacity.
+     * The two pools share nothing, so each may be used on its own thread.
+     */
+    public StringPool copy() {
+        return new StringPool(Arrays.copyOf(data, offsets[size]), Arrays.copyOf(offsets, size + 1), size);
+    }
+
+    /**
+     * Decodes the value with the given handle.
+     */
+    public String get(int handle) {
+        int start = offsets[handle];
+        return new String(data, start, offsets[handle + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns true if the value with the given handle equals {@code value}.
+     * The String is encoded on the fly and compared with the stored bytes, so nothing is
+     * decoded or allocated.
+     */
+    public boolean contentEquals(int handle, String value) {
+        if (value == null) {
+            value = "";
+        }
+        int pos = offsets[handle];
+        int end = offsets[handle + 1];
+        int n = value.length();
+        for (int i = 0; i < n; i++) {
+            int c = value.charAt(i);
+            if (Character.isHighSurrogate((char) c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                c = Character.toCodePoint((char) c, value.charAt(++i));
+            } else if (Character.isSurrogate((char) c)) {
+                c = '?'; // Unpaired surrogates encode as '?', as String.getBytes does
+            }
+            int length = c < 0x80 ? 1 : c < 0x800 ? 2 : c < 0x10000 ? 3 : 4;
+            if (end - pos < length) {
+                return false;
+            }
+            // Leading byte, then six bits per continuation byte
+            int lead = length == 1 ? c : length == 2 ? 0xC0 | (c >> 6) : length == 3 ? 0xE0 | (c >> 12) : 0xF0 | (c >> 18);
+            if ((data[pos++] & 0xFF) != lead) {
+                return false;
+            }
+            for (int shift = (length - 2) * 6; shift >= 0; shift -= 6) {
+                if ((data[pos++] & 0xFF) != (0x80 | ((c >> shift) & 0x3F))) {
+                    return false;
+                }
+            }
+        }
+        return pos == end;
+    }
+
+    /**
+     * Returns the number of values added.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Releases spare capacity once no more values will be added for a while.
+     */
+    public void trimToSize() {
+        data = Arrays.copyOf(data, offsets[size]);
+        offsets = Arrays.copyOf(offsets, size + 1);
+    }
+}
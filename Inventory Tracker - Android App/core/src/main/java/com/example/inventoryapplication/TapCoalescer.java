@@ -0,0 +1,144 @@
+package com.example.inventoryapplication;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces rapid quantity taps into one net delta write per key.
+ * Each key (an item id) has its own accumulator and its own timers, so taps on different
+ * items interleave freely without delaying or merging into each other. A key's net delta is
+ * written once no tap has arrived for the quiet period, or at the latest after the maximum
+ * delay from its first unsent tap, so continuous tapping cannot postpone the write forever.
+ * Taps that cancel out (+1 then -1) write nothing.
+ * At most one write per key is in flight: taps made while it runs accumulate and are
+ * written after it completes, so the writes for a key reach the sink in tap order.
+ * Not thread-safe; taps, timers and completions must all run on the same thread.
+ * @param <K> Key type
+ */
+public final class TapCoalescer<K> {
+
+    /**
+     * Performs the coalesced writes.
+     */
+    public interface Sink<K> {
+        /**
+         * Writes one net delta. {@code done} must be run exactly once, on the coalescer's
+         * thread, when the write has finished, whether or not it succeeded.
+         */
+        void write(K key, int netDelta, Runnable done);
+    }
+
+    /** Accumulator for one key. */
+    private static final class Pending {
+        int delta;
+        Runnable cancelQuiet;
+        Runnable cancelDeadline;
+        boolean inFlight;
+        boolean flushWhenDone;
+    }
+
+    private final long quietMs;
+    private final long maxDelayMs;
+    private final Scheduler scheduler;
+    private final Sink<K> sink;
+    private final Map<K, Pending> pending = new HashMap<>();
+
+    /**
+     * @param quietMs    Time without taps after which a key's delta is written
+     * @param maxDelayMs Longest a tap waits before being written, however fast taps keep coming
+     * @param scheduler  Runs the timers on the coalescer's thread
+     * @param sink       Receives the net deltas
+     */
+    public TapCoalescer(long quietMs, long maxDelayMs, Scheduler scheduler, Sink<K> sink) {
+        this.quietMs = quietMs;
+        this.maxDelayMs = Math.max(quietMs, maxDelayMs);
+        this.scheduler = scheduler;
+        this.sink = sink;
+    }
+
+    /**
+     * Records a tap and restarts the key's quiet period.
+     * @param key   Item tapped
+     * @param delta Change, e.g. +1 or -1
+     */
+    public void tap(K key, int delta) {
+        Pending p = pending.computeIfAbsent(key, k -> new Pending());
+        p.delta += delta;
+        if (p.cancelQuiet != null) {
+            p.cancelQuiet.run();
+        }
+        p.cancelQuiet = scheduler.schedule(() -> {
+            p.cancelQuiet = null;
+            flush(key);
+        }, quietMs);
+        if (p.cancelDeadline == null) {
+            p.cancelDeadline = scheduler.schedule(() -> {
+                p.cancelDeadline = null;
+                flush(key);
+            }, maxDelayMs);
+        }
+    }
+
+    /**
+     * Returns the delta tapped for a key but not yet handed to the sink.
+     */
+    public int pending(K key) {
+        Pending p = pending.get(key);
+        return p == null ? 0 : p.delta;
+    }
+
+    /**
+     * Writes a key's accumulated delta now instead of waiting for its quiet period.
+     * If a write for the key is in flight, the delta is written as soon as it completes.
+     */
+    public void flush(K key) {
+        Pending p = pending.get(key);
+        if (p == null) {
+            return;
+        }
+        cancelTimers(p);
+        if (p.inFlight) {
+            p.flushWhenDone = true;
+            return;
+        }
+        int delta = p.delta;
+        if (delta == 0) {
+            pending.remove(key); // Nothing to write and nothing in flight
+            return;
+        }
+        p.delta = 0;
+        p.inFlight = true;
+        sink.write(key, delta, () -> {
+            p.inFlight = false;
+            if (p.flushWhenDone) {
+                p.flushWhenDone = false;
+                flush(key);
+            } else if (p.delta == 0 && p.cancelQuiet == null) {
+                pending.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Writes every key's accumulated delta now, e.g. before the app goes to the background.
+     */
+    public void flushAll() {
+        List<K> keys = new ArrayList<>(pending.keySet());
+        for (K key : keys) {
+            flush(key);
+        }
+    }
+
+    private static void cancelTimers(Pending p) {
+        if (p.cancelQuiet != null) {
+            p.cancelQuiet.run();
+            p.cancelQuiet = null;
+        }
+        if (p.cancelDeadline != null) {
+            p.cancelDeadline.run();
+            p.cancelDeadline = null;
+        }
+    }
+}
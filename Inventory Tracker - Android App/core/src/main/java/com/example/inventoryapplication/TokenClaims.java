@@ -0,0 +1,86 @@
+package com.example.inventoryapplication;
+
+import org.json.JSONObject;
+
+/**
+ * A login token together with the claims the app needs from it, decoded once when the token
+ * is received or loaded rather than on every check.
+ * Like {@link JwtPayload}, this does not verify the signature; it only lets the app tell,
+ * without a round trip, whether a stored token is still worth sending and when to renew it.
+ */
+public final class TokenClaims {
+
+    private final String token;
+    private final String role;
+    private final long issuedAtMs;
+    private final long expiresAtMs;
+
+    private TokenClaims(String token, String role, long issuedAtMs, long expiresAtMs) {
+        this.token = token;
+        this.role = role;
+        this.issuedAtMs = issuedAtMs;
+        this.expiresAtMs = expiresAtMs;
+    }
+
+    /**
+     * Decodes a token's claims. A token that cannot be decoded is kept but treated as
+     * already expired, so it is never sent in the belief that it is valid.
+     * @param token A JWT in compact form
+     * @return The token and its claims
+     */
+    public static TokenClaims parse(String token) {
+        try {
+            JSONObject payload = JwtPayload.decode(token);
+            // "exp" and "iat" are in seconds; a token without "exp" never expires
+            long expiresAt = payload.has("exp") ? payload.getLong("exp") * 1000 : Long.MAX_VALUE;
+            long issuedAt = payload.has("iat") ? payload.getLong("iat") * 1000 : 0;
+            return new TokenClaims(token, payload.optString("role", JwtPayload.DEFAULT_ROLE), issuedAt, expiresAt);
+        } catch (Exception e) {
+            return new TokenClaims(token, JwtPayload.DEFAULT_ROLE, 0, 0);
+        }
+    }
+
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Returns the "role" claim, or {@link JwtPayload#DEFAULT_ROLE} if absent.
+     */
+    public String role() {
+        return role;
+    }
+
+    /**
+     * Returns when the token expires, in epoch milliseconds; {@code Long.MAX_VALUE} if never.
+     */
+    public long expiresAtMs() {
+        return expiresAtMs;
+    }
+
+    /**
+     * Returns true if the token will still be accepted at the given time.
+     * @param nowMs  Current time in epoch milliseconds
+     * @param skewMs Margin for the difference between this device's clock and the server's
+     */
+    public boolean isValidAt(long nowMs, long skewMs) {
+        return nowMs < expiresAtMs - skewMs;
+    }
+
+    /**
+     * Returns when the token should be renewed: {@code marginMs} before it expires, or half
+     * way through its life if that is shorter, so short-lived tokens are not renewed at once.
+     * @param marginMs How long before expiry to renew a long-lived token
+     * @return Epoch milliseconds; {@code Long.MAX_VALUE} if the token never expires
+     */
+    public long refreshAtMs(long marginMs) {
+        if (expiresAtMs == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        long margin = marginMs;
+        if (issuedAtMs > 0 && issuedAtMs < expiresAtMs) {
+            margin = Math.min(margin, (expiresAtMs - issuedAtMs) / 2);
+        }
+        return expiresAtMs - margin;
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.inventoryapplication;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory trigram (3-gram) index over item names and codes.
+ * Each distinct trigram maps to a sorted int postings list of the documents (item positions)
+ * that contain it in either field. Substring queries of three or more characters are answered
+ * by intersecting the postings of the query's trigrams and verifying the surviving candidates,
+ * so the cost follows the size of the smallest postings list instead of the catalog size.
+ * Shorter queries fall back to a linear scan. Results always match case-insensitive
+ * {@link String#contains(CharSequence)} on the name or the code.
+ * A rename or code change ({@link #updateName}, {@link #updateCode}) only touches the postings
+ * of the trigrams the document gained or lost. Updates come from one thread; searches may run
+ * on others, and one that overlaps an update may see the document under either value, so its
+ * result should be discarded.
+ */
+public class TrigramIndex {
+
+    /** Length of the n-grams stored in the index. */
+    static final int GRAM_LENGTH = 3;
+
+    /** Lower-cased names and codes, indexed by document id, used to verify candidates. */
+    private final String[] names;
+    private final String[] codes;
+
+    /**
+     * Trigram key (three packed chars) to sorted, duplicate-free document ids. An update puts
+     * new lists rather than changing existing ones, so a search can keep reading the list it has.
+     */
+    private final Map<Long, int[]> postings;
+
+    private TrigramIndex(String[] names, String[] codes, Map<Long, int[]> postings) {
+        this.names = names;
+        this.codes = codes;
+        this.postings = postings;
+    }
+
+    /**
+     * Builds an index where document {@code i} is {@code names.get(i)} / {@code codes.get(i)}.
+     * @param names Item names in display order
+     * @param codes Item codes in display order; must be the same size as {@code names}
+     * @return An index over the given fields
+     */
+    public static TrigramIndex build(List<String> names, List<String> codes) {
+        int size = names.size();
+        String[] lowerNames = new String[size];
+        String[] lowerCodes = new String[size];
+
+        // Growable postings used only while building; trimmed to exact length afterwards
+        Map<Long, Postings> building = new HashMap<>();
+        for (int doc = 0; doc < size; doc++) {
+            lowerNames[doc] = normalize(names.get(doc));
+            lowerCodes[doc] = normalize(codes.get(doc));
+            addGrams(building, lowerNames[doc], doc);
+            addGrams(building, lowerCodes[doc], doc);
+        }
+
+        Map<Long, int[]> compact = new ConcurrentHashMap<>(building.size() * 2);
+        for (Map.Entry<Long, Postings> entry : building.entrySet()) {
+            compact.put(entry.getKey(), entry.getValue().toArray());
+        }
+        return new TrigramIndex(lowerNames, lowerCodes, compact);
+    }
+
+    /**
+     * Returns the number of indexed documents.
+     * @return Document count
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Renames a document, updating the postings of the trigrams that only the old or only the
+     * new name contains.
+     * @param doc  Document id
+     * @param name New name, as stored (not lower-cased)
+     */
+    public void updateName(int doc, String name) {
+        update(doc, normalize(name), codes[doc]);
+    }
+
+    /**
+     * Changes a document's code, updating the postings of the trigrams that only the old or
+     * only the new code contains.
+     * @param doc  Document id
+     * @param code New code, as stored (not lower-cased)
+     */
+    public void updateCode(int doc, String code) {
+        update(doc, names[doc], normalize(code));
+    }
+
+    /**
+     * Replaces a document's lower-cased fields and moves it between postings lists for the
+     * trigrams the two fields together gained or lost.
+     */
+    private void update(int doc, String name, String code) {
+        if (name.equals(names[doc]) && code.equals(codes[doc])) {
+            return;
+        }
+        Set<Long> before = grams(names[doc]);
+        before.addAll(grams(codes[doc]));
+        Set<Long> after = grams(name);
+        after.addAll(grams(code));
+        names[doc] = name;
+        codes[doc] = code;
+        for (Long key : before) {
+            if (!after.contains(key)) {
+                int[] list = postings.get(key);
+                int at = Arrays.binarySearch(list, doc);
+                if (list.length == 1) {
+                    postings.remove(key);
+                } else {
+                    int[] shorter = new int[list.length - 1];
+                    System.arraycopy(list, 0, shorter, 0, at);
+                    System.arraycopy(list, at + 1, shorter, at, shorter.length - at);
+                    postings.put(key, shorter);
+                }
+            }
+        }
+        for (Long key : after) {
+            if (!before.contains(key)) {
+                int[] list = postings.get(key);
+                if (list == null) {
+                    postings.put(key, new int[] {doc});
+                } else {
+                    int at = -Arrays.binarySearch(list, doc) - 1;
+                    int[] longer = new int[list.length + 1];
+                    System.arraycopy(list, 0, longer, 0, at);
+                    longer[at] = doc;
+                    System.arraycopy(list, at, longer, at + 1, list.length - at);
+                    postings.put(key, longer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the postings list for one trigram key, or null if no document contains it.
+     */
+    int[] postings(long key) {
+        return postings.get(key);
+    }
+
+    /**
+     * Returns the lower-cased name of a document.
+     */
+    String name(int doc) {
+        return names[doc];
+    }
+
+    /**
+     * Returns the lower-cased code of a document.
+     */
+    String code(int doc) {
+        return codes[doc];
+    }
+
+    /**
+     * Finds every document whose name or code contains {@code query}, ignoring case.
+     * @param query Search text; an empty query matches every document
+     * @return Matching document ids in ascending order
+     */
+    public int[] search(String query) {
+        String q = normalize(query);
+        if (q.length() < GRAM_LENGTH) {
+            return scan(q);
+        }
+
+        // Gather the postings of every trigram in the query, shortest first
+        int gramCount = q.length() - GRAM_LENGTH + 1;
+        int[][] lists = new int[gramCount][];
+        for (int i = 0; i < gramCount; i++) {
+            int[] list = postings.get(gramKey(q, i));
+            if (list == null) {
+                return new int[0]; // A trigram that never occurs means no document can match
+            }
+            lists[i] = list;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+
+        // Intersect into the shortest list, then verify against the real substring test
+        int[] candidates = lists[0].clone();
+        int count = candidates.length;
+        for (int i = 1; i < lists.length && count > 0; i++) {
+            if (lists[i] != lists[i - 1]) {
+                count = intersect(candidates, count, lists[i]);
+            }
+        }
+
+        int matched = 0;
+        for (int i = 0; i < count; i++) {
+            int doc = candidates[i];
+            if (names[doc].contains(q) || codes[doc].contains(q)) {
+                candidates[matched++] = doc;
+            }
+        }
+        return Arrays.copyOf(candidates, matched);
+    }
+
+    /**
+     * Linear fallback for queries too short to be answered by trigrams.
+     * @param q Normalized query
+     * @return Matching document ids in ascending order
+     */
+    private int[] scan(String q) {
+        int[] result = new int[names.length];
+        int matched = 0;
+        for (int doc = 0; doc < names.length; doc++) {
+            if (names[doc].contains(q) || codes[doc].contains(q)) {
+                result[matched++] = doc;
+            }
+        }
+        return matched == result.length ? result : Arrays.copyOf(result, matched);
+    }
+
+    /**
+     * Keeps in {@code target[0..count)} only the ids also present in {@code other}.
+     * Both inputs are sorted; the walk over {@code other} gallops so a short target
+     * list does not pay for a long one.
+     * @return The new number of ids held in {@code target}
+     */
+    private static int intersect(int[] target, int count, int[] other) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < count && j < other.length; i++) {
+            int doc = target[i];
+            j = gallop(other, j, doc);
+            if (j < other.length && other[j] == doc) {
+                target[kept++] = doc;
+                j++;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Returns the first index at or after {@code from} whose value is {@code >= key}.
+     */
+    private static int gallop(int[] sorted, int from, int key) {
+        int step = 1;
+        int hi = from;
+        while (hi < sorted.length && sorted[hi] < key) {
+            from = hi + 1;
+            hi += step;
+            step <<= 1;
+        }
+        int lo = from;
+        hi = Math.min(hi, sorted.length);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Adds every trigram of {@code text} to the postings of {@code doc}.
+     */
+    private static void addGrams(Map<Long, Postings> building, String text, int doc) {
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            Postings list = building.get(gramKey(text, i));
+            if (list == null) {
+                list = new Postings();
+                building.put(gramKey(text, i), list);
+            }
+            list.add(doc);
+        }
+    }
+
+    /**
+     * Returns the distinct trigram keys of {@code text}.
+     */
+    private static Set<Long> grams(String text) {
+        Set<Long> keys = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            keys.add(gramKey(text, i));
+        }
+        return keys;
+    }
+
+    /**
+     * Packs the three chars starting at {@code offset} into a single key.
+     */
+    static long gramKey(String text, int offset) {
+        return ((long) text.charAt(offset) << 32)
+                | ((long) text.charAt(offset + 1) << 16)
+                | text.charAt(offset + 2);
+    }
+
+    /**
+     * Lower-cases a field or query the same way the list screen's search always has.
+     */
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase();
+    }
+
+    /**
+     * Append-only int list used while building. Documents are added in ascending order,
+     * so a repeated trigram within the same document only needs a check of the last entry.
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(docs, size);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.inventoryapplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs {@link ChangeStreamClient} against a local stand-in for {@code GET /api/items/changes}
+ * that follows the API's contract: events carry ids, and a connection with Last-Event-ID
+ * replays only the events after it.
+ */
+public class ChangeStreamClientTest {
+
+    /** The stand-in's event log; event n has id "n" and data "change n". */
+    private final List<String> log = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> resumedFrom = Collections.synchronizedList(new ArrayList<>());
+    /** Authorization header of each connection, checked on the test thread. */
+    private final List<String> authorizations = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger connections = new AtomicInteger();
+    /** Responds with this status instead of streaming while it is not 200. */
+    private volatile int status = 200;
+    /** Closes each connection after replaying, simulating a dropped stream. */
+    private volatile boolean dropAfterReplay = true;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private StandInServer server;
+    private ChangeStreamClient client;
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    private final AtomicInteger polls = new AtomicInteger();
+    /** The handler throws on an event with this data. */
+    private volatile String failOn;
+
+    @Before
+    public void startServer() throws IOException {
+        server = new StandInServer(Executors.newCachedThreadPool());
+        String url = server.route("/api/items/changes", this::handle);
+        client = new ChangeStreamClient(url, () -> "token", new ChangeStreamClient.Handler() {
+            @Override
+            public void onEvent(String type, String data) {
+                if (data.equals(failOn)) {
+                    throw new IllegalStateException("Cannot apply " + data);
+                }
+                received.add(type + ":" + data);
+            }
+
+            @Override
+            public void onPoll() {
+                polls.incrementAndGet();
+            }
+        }, 20, 80, 0, 3);
+    }
+
+    @After
+    public void stopServer() {
+        client.stop();
+        release.countDown();
+        server.close();
+    }
+
+    @Test
+    public void resumesAfterDisconnectWithoutDuplicates() throws Exception {
+        log.addAll(Arrays.asList("change 1", "change 2"));
+        client.start();
+        assertEquals("upsert:change 1", received.poll(5, TimeUnit.SECONDS));
+        assertEquals("upsert:change 2", received.poll(5, TimeUnit.SECONDS));
+        // Once the client has resumed, the stand-in is done replaying to the first connection
+        waitFor(() -> resumedFrom.contains("2"));
+
+        // Changes made while the client was disconnected are replayed once it reconnects
+        log.add("change 3");
+        assertEquals("upsert:change 3", received.poll(5, TimeUnit.SECONDS));
+        dropAfterReplay = false;
+        log.add("change 4");
+        assertEquals("upsert:change 4", received.poll(5, TimeUnit.SECONDS));
+        assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+
+        assertEquals("4", client.lastEventId());
+        assertNull(resumedFrom.get(0));
+        assertTrue(resumedFrom.contains("2"));
+        assertEquals(0, polls.get());
+        List<String> sent = new ArrayList<>(authorizations);
+        assertFalse(sent.isEmpty());
+        assertEquals(Collections.nCopies(sent.size(), "Bearer token"), sent);
+    }
+
+    @Test
+    public void pollsWhileStreamIsUnavailable() throws Exception {
+        status = 503;
+        client.start();
+        waitFor(() -> polls.get() >= 2);
+        assertTrue("expected polling, got " + polls.get(), polls.get() >= 2);
+        assertTrue(received.isEmpty());
+
+        // Once the stream is back, events flow again and polling stops
+        dropAfterReplay = false;
+        log.add("change 1");
+        status = 200;
+        assertEquals("upsert:change 1", received.poll(5, TimeUnit.SECONDS));
+        int pollsWhenBack = polls.get();
+        Thread.sleep(200);
+        assertEquals(pollsWhenBack, polls.get());
+    }
+
+    @Test
+    public void stopClosesTheStream() throws Exception {
+        dropAfterReplay = false;
+        log.add("change 1");
+        client.start();
+        assertEquals("upsert:change 1", received.poll(5, TimeUnit.SECONDS));
+        client.stop();
+        int seen = connections.get();
+        Thread.sleep(200);
+        assertEquals(seen, connections.get());
+
+        // Restarting resumes after the last event
+        log.add("change 2");
+        client.start();
+        assertEquals("upsert:change 2", received.poll(5, TimeUnit.SECONDS));
+        assertEquals("1", resumedFrom.get(resumedFrom.size() - 1));
+    }
+
+    @Test
+    public void handlerFailureReconnectsWithoutRedelivery() throws Exception {
+        dropAfterReplay = false;
+        failOn = "change 1";
+        log.add("change 1");
+        client.start();
+        waitFor(() -> connections.get() >= 2);
+        assertEquals(2, connections.get());
+        assertEquals("1", resumedFrom.get(1));
+
+        log.add("change 2");
+        assertEquals("upsert:change 2", received.poll(5, TimeUnit.SECONDS));
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void parserHandlesCommentsRetryAndMultilineData() {
+        List<String> events = new ArrayList<>();
+        long[] retry = {0};
+        SseParser parser = new SseParser("7", new SseParser.Listener() {
+            @Override
+            public void onEvent(String type, String id, String data) {
+                events.add(type + "|" + id + "|" + data);
+            }
+
+            @Override
+            public void onRetry(long retryMs) {
+                retry[0] = retryMs;
+            }
+        });
+        for (String line : Arrays.asList("retry: 3000", "", ": heartbeat", "",
+                "data: a", "data:b", "", "id: 8", "event: delete", "data: {}", "")) {
+            parser.line(line);
+        }
+        assertEquals(3000, retry[0]);
+        assertEquals(Arrays.asList("message|7|a\nb", "delete|8|{}"), events);
+        assertEquals("8", parser.lastEventId());
+    }
+
+    /** Stands in for itemsChanges in the website's changes controller. */
+    private void handle(HttpExchange exchange) throws IOException {
+        connections.incrementAndGet();
+        String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        resumedFrom.add(lastEventId);
+        authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+        if (status != 200) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            write(out, "retry: 20\n\n");
+            int next = lastEventId == null ? 0 : Integer.parseInt(lastEventId);
+            while (true) {
+                while (next < log.size()) {
+                    next++;
+                    write(out, "id: " + next + "\nevent: upsert\ndata: " + log.get(next - 1) + "\n\n");
+                }
+                if (dropAfterReplay) {
+                    return;
+                }
+                write(out, ": heartbeat\n\n");
+                if (release.await(10, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    /** Waits up to five seconds for the condition; the caller asserts on the outcome. */
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void write(OutputStream out, String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.inventoryapplication;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks the list screen's typo-tolerant search: what it finds, the order it ranks results
+ * in, and that its caps hold on a catalog far larger than they allow for.
+ */
+public class FuzzySearchTest {
+
+    private static final TrigramIndex CATALOG = TrigramIndex.build(
+            Arrays.asList("Napkin", "Spoon", "Napkn tray", "Knapsack", "Fork", "Paper napkins"),
+            Arrays.asList("NP-1", "SP-1", "NT-1", "KS-1", "FK-1", "PN-1"));
+
+    @Test
+    public void typosFindTheIntendedItem() {
+        TrigramIndex index = TrigramIndex.build(Arrays.asList("Napkin", "Spoon", "Fork"),
+                Arrays.asList("NP-1", "SP-1", "FK-1"));
+        assertArrayEquals(new int[] {0}, FuzzySearch.matchItems(index, "napkn", 10));
+        assertArrayEquals(new int[] {1}, FuzzySearch.matchItems(index, "spoom", 10));
+        assertArrayEquals(new int[] {1}, FuzzySearch.matchItems(index, "Spon", 10));
+    }
+
+    @Test
+    public void exactMatchesComeBeforeTheFuzzyFallback() {
+        // "napkn" occurs exactly in one name, so the fuzzy search is not consulted
+        assertArrayEquals(new int[] {2}, FuzzySearch.matchItems(CATALOG, "NAPKN", 10));
+        assertArrayEquals(new int[] {0, 5}, FuzzySearch.matchItems(CATALOG, "napkin", 10));
+    }
+
+    @Test
+    public void resultsAreRankedByDistanceAndCutToTopK() {
+        // Distance 0 for "Napkn tray", 1 for "Napkin" and "Paper napkins", 2 for "Knapsack"
+        int[] ranked = FuzzySearch.search(CATALOG, "napkn", 10);
+        assertArrayEquals(new int[] {2, 0, 5, 3}, ranked);
+        assertArrayEquals(new int[] {2, 0}, FuzzySearch.search(CATALOG, "napkn", 2));
+        assertArrayEquals(new int[0], FuzzySearch.search(CATALOG, "napkn", 0));
+    }
+
+    @Test
+    public void emptyQueryMeansEveryItem() {
+        assertNull(FuzzySearch.matchItems(CATALOG, "", 10));
+        assertNull(FuzzySearch.matchItems(CATALOG, null, 10));
+        assertArrayEquals(new int[0], FuzzySearch.search(CATALOG, "np", 10)); // Too short to be fuzzy
+    }
+
+    @Test
+    public void capsBoundTheWorkOnALargeCatalog() {
+        // Every item shares every trigram of the query, so each postings list is longer than
+        // the postings budget and every item is within the allowed distance
+        int size = FuzzySearch.MAX_POSTINGS_SCANNED + 20_000;
+        List<String> names = new ArrayList<>(size);
+        List<String> codes = new ArrayList<>(size);
+        for (int doc = 0; doc < size; doc++) {
+            names.add("Napkin " + doc);
+            codes.add("N" + doc);
+        }
+        TrigramIndex index = TrigramIndex.build(names, codes);
+
+        int[] result = FuzzySearch.search(index, "napkn", Integer.MAX_VALUE);
+        assertEquals(FuzzySearch.MAX_SCORED_CANDIDATES, result.length);
+        for (int doc : result) {
+            // Only the budgeted part of the rarest postings list was read
+            assertTrue(String.valueOf(doc), doc < FuzzySearch.MAX_POSTINGS_SCANNED);
+        }
+        assertEquals(10, FuzzySearch.search(index, "napkn", 10).length);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.inventoryapplication;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Covers {@link ItemStore} refreshes, including downloads merged with local changes through
+ * {@link InventoryJson#parseStore(JSONArray, ItemStore, InventoryJson.LocalChanges)}, and
+ * single-item additions and removals.
+ */
+public class ItemStoreTest {
+
+    private static final String A = "65a000000000000000000001";
+    private static final String B = "65a000000000000000000002";
+    private static final String C = "65a000000000000000000003";
+    private static final String D = "65a000000000000000000004";
+
+    /** Local changes held in plain collections. */
+    private static final class FakeLocal implements InventoryJson.LocalChanges {
+        final Set<String> deleted = new HashSet<>();
+        final Set<String> unanswered = new HashSet<>();
+        final Map<String, Integer> unsent = new HashMap<>();
+        List<String> heldOnly = Collections.emptyList();
+
+        @Override
+        public boolean isDeleted(String id) {
+            return deleted.contains(id);
+        }
+
+        @Override
+        public boolean isUnanswered(String id) {
+            return unanswered.contains(id);
+        }
+
+        @Override
+        public int unsentDelta(String id) {
+            return unsent.getOrDefault(id, 0);
+        }
+
+        @Override
+        public Collection<String> heldOnly() {
+            return heldOnly;
+        }
+    }
+
+    @Test
+    public void refreshReusesUnchangedTextAndReportsChanges() throws Exception {
+        ItemStore held = store(item(A, "A1", "Bolt", 5, 1), item(B, "B1", "Nut", 7, 1),
+                item(C, "C1", "Washer", 2, 1));
+        int pooled = held.pooledStrings();
+        ItemStore next = InventoryJson.parseStore(array(item(A, "A1", "Bolt", 5, 1), item(B, "B1", "Nut", 8, 2),
+                item(C, "C1", "Flat washer", 2, 2), item(D, "D1", "Screw", 1, 1)), held);
+
+        // Only the new name and the new item's code and name are encoded
+        assertEquals(pooled + 3, next.pooledStrings());
+        assertEquals("Bolt", next.name(0));
+        assertEquals("Flat washer", next.name(2));
+        assertEquals("D1", next.code(3));
+        // B's quantity changed and D is new; a rename alone is not reported
+        assertArrayEquals(new int[] {1, 3}, next.changedDocs());
+        assertNull(held.changedDocs());
+    }
+
+    @Test
+    public void refreshKeepsNewerHeldVersions() throws Exception {
+        ItemStore held = store(item(A, "A1", "Bolt", 5, 3), item(B, "B1", "Nut", 7, 1));
+        // Read before the change to A that the store already holds
+        ItemStore next = InventoryJson.parseStore(array(item(A, "A1", "Bolt", 2, 2), item(B, "B1", "Nut", 9, 2)), held);
+
+        assertEquals(5, next.quantity(0));
+        assertEquals(3, next.version(0));
+        assertEquals(9, next.quantity(1));
+        assertEquals(2, next.version(1));
+        assertArrayEquals(new int[] {1}, next.changedDocs());
+    }
+
+    @Test
+    public void mergeKeepsLocalChanges() throws Exception {
+        ItemStore held = store(item(A, "A1", "Bolt", 6, 1), item(B, "B1", "Nut", 8, 1),
+                item(C, "C1", "Washer", 1, 1), item("pending:1", "P1", "Screw", 4, 0));
+        FakeLocal local = new FakeLocal();
+        local.unanswered.add(A);               // Edit in flight; the download may predate it
+        local.unsent.put(B, 2);                // Taps not sent yet
+        local.deleted.add(C);                  // Deleted after the download was read
+        local.heldOnly = Arrays.asList("pending:1", D); // An addition, and an id gone from both
+
+        ItemStore next = InventoryJson.parseStore(array(item(A, "A1", "Bolt", 5, 1),
+                item(B, "B1", "Nut", 3, 2), item(C, "C1", "Washer", 1, 1)), held, local);
+
+        assertEquals(3, next.size());
+        assertEquals(A, next.id(0));
+        assertEquals(6, next.quantity(0));
+        assertEquals(B, next.id(1));
+        assertEquals(5, next.quantity(1));
+        assertEquals(2, next.version(1));
+        assertEquals("pending:1", next.id(2));
+        assertEquals("Screw", next.name(2));
+        assertEquals(-1, next.indexOf(C));
+        // B's merged quantity differs from the held one; A and the kept addition do not
+        assertArrayEquals(new int[] {1}, next.changedDocs());
+    }
+
+    @Test
+    public void addPreviousNeedsTheHeldItem() {
+        ItemStore held = store(item(A, "A1", "Bolt", 6, 1));
+        ItemStore.Builder builder = new ItemStore.Builder(1, held);
+        assertFalse(builder.addPrevious(B));
+        assertTrue(builder.addPrevious(A));
+        assertEquals(6, builder.build().quantity(0));
+    }
+
+    @Test
+    public void withAndWithoutKeepTheOtherDocuments() {
+        ItemStore held = store(item(A, "A1", "Bolt", 5, 1), item("pending:1", "P1", "Screw", 4, 0),
+                item(B, "B1", "Nut", 7, 1));
+        assertEquals(2, held.indexOf(B)); // Builds the id lookup that with() carries over
+
+        ItemStore added = held.with(C, "C1", "W\u00E4sher", 2, 3);
+        assertEquals(4, added.size());
+        assertEquals(3, added.indexOf(C));
+        assertEquals(2, added.indexOf(B));
+        assertEquals(1, added.indexOf("pending:1"));
+        assertEquals("W\u00E4sher", added.name(3));
+        assertEquals(3, added.version(3));
+        assertArrayEquals(new int[] {3}, added.changedDocs());
+
+        ItemStore removed = added.without(1);
+        assertEquals(3, removed.size());
+        assertEquals(-1, removed.indexOf("pending:1"));
+        assertEquals(Arrays.asList(A, B, C), Arrays.asList(removed.id(0), removed.id(1), removed.id(2)));
+        assertEquals(Arrays.asList("Bolt", "Nut", "W\u00E4sher"), removed.names());
+        assertArrayEquals(new int[] {5, 7, 2}, removed.quantities());
+        assertEquals(2, removed.indexOf(C));
+        assertArrayEquals(new int[0], removed.changedDocs());
+
+        ItemStore replaced = removed.without(2).with("pending:2", "P2", "Pin", 9, 0);
+        assertEquals(2, replaced.indexOf("pending:2"));
+        assertEquals(-1, replaced.indexOf(C));
+    }
+
+    @Test
+    public void snapshotIsUnaffectedByLaterEdits() throws Exception {
+        ItemStore live = store(item(A, "A1", "Bolt", 5, 1), item("pending:1", "P1", "Scr\u00E9w", 4, 0));
+        String written = InventoryJson.toJson(live).toString();
+        ItemStore snapshot = live.snapshot();
+        assertNull(snapshot.changedDocs());
+
+        live.setName(0, "Bolt, long"); // Appends to the live pools, which may grow
+        live.setCode(1, "P2");
+        live.setQuantity(0, 6);
+        for (int i = 0; i < 100; i++) {
+            live.setName(1, "Rename " + i);
+        }
+        live.with(B, "B1", "Nut", 7, 1);
+
+        assertEquals(written, InventoryJson.toJson(snapshot).toString());
+        assertEquals(1, snapshot.indexOf("pending:1"));
+    }
+
+    @Test
+    public void upperCaseIdsRoundTripAsStrings() {
+        String upper = "65A0000000000000000000FF";
+        ItemStore held = store(item(upper, "U1", "Upper", 1, 1));
+        assertEquals(upper, held.id(0));
+        assertEquals(0, held.indexOf(upper));
+    }
+
+    private static JSONObject item(String id, String code, String name, int quantity, int version) {
+        return new JSONObject().put("_id", id).put("code", code).put("name", name)
+                .put("quantity", quantity).put("version", version);
+    }
+
+    private static JSONArray array(JSONObject... items) {
+        return new JSONArray(Arrays.asList(items));
+    }
+
+    private static ItemStore store(JSONObject... items) {
+        ItemStore.Builder builder = new ItemStore.Builder(items.length);
+        for (JSONObject o : items) {
+            builder.add(o.getString("_id"), o.getString("code"), o.getString("name"), o.getInt("quantity"),
+                    o.getInt("version"));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.inventoryapplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Drives {@link LowStockNotifier} on a manual clock, delivering digests to a fake sender.
+ */
+public class LowStockNotifierTest {
+
+    private static final long GATHER_MS = 5_000;
+    private static final long INTERVAL_MS = 60_000;
+
+    /** Records messages instead of sending them; fails while {@code failing} is set. */
+    private static final class FakeSender implements MessageSender {
+        final List<String> messages = new ArrayList<>();
+        boolean failing;
+
+        @Override
+        public void send(String recipient, String message) throws Exception {
+            if (failing) {
+                throw new Exception("No service");
+            }
+            messages.add(recipient + ": " + message);
+        }
+    }
+
+    private ManualScheduler scheduler;
+    private FakeSender sender;
+    private LowStockNotifier notifier;
+
+    @Before
+    public void setUp() {
+        scheduler = new ManualScheduler();
+        sender = new FakeSender();
+        notifier = new LowStockNotifier(scheduler, () -> scheduler.now, sender, GATHER_MS, INTERVAL_MS);
+        notifier.setRecipient("15550001111");
+    }
+
+    @Test
+    public void burstIsSentAsOneDeduplicatedDigest() {
+        notifier.reportLow("a", "Widget", 0);
+        notifier.reportLow("b", "Gadget", 0);
+        notifier.reportLow("a", "Widget", 0); // Same item again
+        scheduler.advance(GATHER_MS);
+
+        assertEquals(Collections.singletonList("15550001111: Low stock (2 items): Widget (0), Gadget (0)"),
+                sender.messages);
+    }
+
+    @Test
+    public void digestsAreAtLeastOneIntervalApart() {
+        notifier.reportLow("a", "Widget", 0);
+        scheduler.advance(GATHER_MS);
+        notifier.reportLow("b", "Gadget", 0);
+        scheduler.advance(INTERVAL_MS - 1);
+        assertEquals(1, sender.messages.size());
+
+        scheduler.advance(1);
+        assertEquals(2, sender.messages.size());
+        assertEquals("15550001111: Low stock: Gadget (0)", sender.messages.get(1));
+    }
+
+    @Test
+    public void reportedItemIsNotRepeatedUntilRestocked() {
+        notifier.reportLow("a", "Widget", 0);
+        scheduler.advance(GATHER_MS);
+        notifier.reportLow("a", "Widget", 0);
+        scheduler.advance(INTERVAL_MS * 2);
+        assertEquals(1, sender.messages.size());
+
+        notifier.resolve("a"); // Restocked, then empty again
+        notifier.reportLow("a", "Widget", 0);
+        scheduler.advance(INTERVAL_MS);
+        assertEquals(2, sender.messages.size());
+    }
+
+    @Test
+    public void restockedBeforeDigestIsDropped() {
+        notifier.reportLow("a", "Widget", 0);
+        notifier.reportLow("b", "Gadget", 0);
+        notifier.resolve("a");
+        scheduler.advance(GATHER_MS);
+
+        assertEquals(Collections.singletonList("15550001111: Low stock: Gadget (0)"), sender.messages);
+    }
+
+    @Test
+    public void failedDigestIsRetriedNextInterval() {
+        sender.failing = true;
+        notifier.reportLow("a", "Widget", 0);
+        scheduler.advance(GATHER_MS);
+        assertTrue(sender.messages.isEmpty());
+        assertEquals(1, notifier.queuedCount());
+
+        sender.failing = false;
+        notifier.reportLow("b", "Gadget", 0);
+        scheduler.advance(INTERVAL_MS);
+        assertEquals(Collections.singletonList("15550001111: Low stock (2 items): Widget (0), Gadget (0)"),
+                sender.messages);
+    }
+
+    @Test
+    public void nothingIsSentWithoutRecipient() {
+        notifier.setRecipient("");
+        notifier.reportLow("a", "Widget", 0);
+        scheduler.advance(INTERVAL_MS);
+        assertTrue(sender.messages.isEmpty());
+
+        notifier.setRecipient("15550001111");
+        scheduler.advance(GATHER_MS);
+        assertEquals(1, sender.messages.size());
+    }
+
+    @Test
+    public void longDigestCountsTheRest() {
+        List<String> names = new ArrayList<>();
+        List<Integer> quantities = new ArrayList<>();
+        for (int i = 0; i < LowStockNotifier.MAX_LISTED + 3; i++) {
+            names.add("Item " + i);
+            quantities.add(0);
+        }
+        String text = LowStockNotifier.format(names, quantities);
+        assertTrue(text, text.startsWith("Low stock (13 items): Item 0 (0), "));
+        assertTrue(text, text.endsWith("Item 9 (0) and 3 more"));
+        assertEquals("Low stock: Widget (4)", LowStockNotifier.format(Arrays.asList("Widget"), Arrays.asList(4)));
+    }
+}
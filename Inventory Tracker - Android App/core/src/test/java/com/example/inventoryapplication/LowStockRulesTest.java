@@ -0,0 +1,64 @@
+package com.example.inventoryapplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * Covers parsing {@link LowStockRules} and the precedence between its kinds of rule.
+ */
+public class LowStockRulesTest {
+
+    @Test
+    public void exactCodeBeatsLongerPrefixBeatsShorterPrefixBeatsDefault() {
+        LowStockRules rules = LowStockRules.parse("PL*=3, PLST*=20, PLST-9=1, *=2");
+        assertEquals(1, rules.thresholdFor("PLST-9"));
+        assertEquals(20, rules.thresholdFor("PLST-1"));
+        assertEquals(3, rules.thresholdFor("PLX"));
+        assertEquals(2, rules.thresholdFor("CP-1"));
+        assertEquals(2, rules.thresholdFor(""));
+        assertTrue(rules.isLow("PLST-1", 20));
+        assertFalse(rules.isLow("PLST-1", 21));
+    }
+
+    @Test
+    public void defaultIsZeroUnlessGiven() {
+        LowStockRules rules = LowStockRules.parse("CP=5");
+        assertEquals(0, rules.thresholdFor("BOLT"));
+        assertTrue(rules.isLow("BOLT", 0));
+        assertFalse(rules.isLow("BOLT", 1));
+    }
+
+    @Test
+    public void rulesMaySpanLinesWithSpacesAndBlankEntries() {
+        LowStockRules rules = LowStockRules.parse("  CP = 5 ,\n\nPLST* =20\n, *= 4,");
+        assertEquals(5, rules.thresholdFor("CP"));
+        assertEquals(20, rules.thresholdFor("PLST1"));
+        assertEquals(4, rules.thresholdFor("X"));
+        assertEquals("CP=5, PLST*=20, *=4", rules.toString());
+        assertEquals(rules.toString(), LowStockRules.parse(rules.toString()).toString());
+    }
+
+    @Test
+    public void missingRulesMeanTheDefault() {
+        assertSame(LowStockRules.DEFAULT, LowStockRules.parse(null));
+        assertSame(LowStockRules.DEFAULT, LowStockRules.parse(" \n "));
+        assertEquals("*=0", LowStockRules.DEFAULT.toString());
+    }
+
+    @Test
+    public void malformedRulesAreRejected() {
+        for (String text : new String[] {"CP", "=5", "CP=", "CP=five", "CP=-1", "*=1.5", "CP=5, PLST"}) {
+            try {
+                LowStockRules.parse(text);
+                fail("Accepted " + text);
+            } catch (IllegalArgumentException expected) {
+                // The message names the offending rule for the settings screen
+            }
+        }
+    }
+}
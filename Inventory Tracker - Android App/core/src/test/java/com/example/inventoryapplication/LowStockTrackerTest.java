@@ -0,0 +1,140 @@
+package com.example.inventoryapplication;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Checks that {@link LowStockTracker}, kept current through {@link ItemStore#changedDocs} and
+ * single-item changes, always agrees with a full rescan of the catalog, and that the changes
+ * it reports add up to the same set.
+ */
+public class LowStockTrackerTest {
+
+    private static final LowStockRules RULES = LowStockRules.parse("PL*=5, PL-7=9, *=1");
+    private static final String[] CODES = {"PL-1", "PL-7", "BOLT", "NUT", "PLX"};
+
+    private static String id(int n) {
+        return String.format("65a%021x", n);
+    }
+
+    @Test
+    public void incrementalUpdatesMatchAFullRescan() {
+        Random random = new Random(5);
+        List<String> ids = new ArrayList<>();
+        ItemStore.Builder builder = new ItemStore.Builder(100);
+        for (int n = 0; n < 100; n++) {
+            ids.add(id(n));
+            builder.add(id(n), code(random), "Item " + n, random.nextInt(12));
+        }
+        ItemStore store = builder.build();
+        assertNull(store.changedDocs()); // Built from scratch: the first catalog is a full scan
+
+        LowStockTracker tracker = new LowStockTracker(RULES);
+        tracker.onCatalogReplaced(store);
+        Set<String> reported = rescan(store);
+        tracker.addListener((id, low) -> {
+            if (low) {
+                assertTrue(id, reported.add(id));
+            } else {
+                assertTrue(id, reported.remove(id));
+            }
+        });
+        assertMatches(store, tracker, reported);
+
+        int next = 100;
+        for (int round = 0; round < 60; round++) {
+            switch (round % 4) {
+                case 0:
+                case 1: {
+                    // A refresh changing some quantities and codes, dropping and adding items
+                    ItemStore.Builder refresh = new ItemStore.Builder(store.size(), store);
+                    for (int doc = 0; doc < store.size(); doc++) {
+                        int pick = random.nextInt(10);
+                        if (pick == 0) {
+                            continue; // Deleted elsewhere
+                        }
+                        refresh.add(store.id(doc), pick == 1 ? code(random) : store.code(doc), store.name(doc),
+                                pick == 2 ? random.nextInt(12) : store.quantity(doc));
+                    }
+                    for (int i = random.nextInt(4); i > 0; i--) {
+                        refresh.add(id(next++), code(random), "New", random.nextInt(12));
+                    }
+                    store = refresh.build();
+                    tracker.onCatalogReplaced(store);
+                    break;
+                }
+                case 2:
+                    store = random.nextBoolean() || store.size() == 0
+                            ? store.with(id(next++), code(random), "Added", random.nextInt(12), 0)
+                            : store.without(random.nextInt(store.size()));
+                    tracker.onCatalogReplaced(store);
+                    break;
+                default:
+                    // Edits in place, one item at a time
+                    for (int i = 0; i < 5 && store.size() > 0; i++) {
+                        int doc = random.nextInt(store.size());
+                        store.setQuantity(doc, random.nextInt(12));
+                        if (random.nextBoolean()) {
+                            store.setCode(doc, code(random));
+                        }
+                        tracker.onItemChanged(store.id(doc));
+                    }
+                    break;
+            }
+            assertMatches(store, tracker, reported);
+        }
+    }
+
+    @Test
+    public void newRulesRescanWithoutReporting() {
+        ItemStore store = new ItemStore.Builder(2).add(id(1), "PL-1", "Pipe", 4).add(id(2), "NUT", "Nut", 4).build();
+        LowStockTracker tracker = new LowStockTracker(RULES);
+        tracker.onCatalogReplaced(store);
+        List<String> events = new ArrayList<>();
+        tracker.addListener((id, low) -> events.add(id + low));
+        assertArrayEquals(new int[] {0}, tracker.lowDocs());
+
+        tracker.setRules(LowStockRules.parse("*=4"));
+        assertArrayEquals(new int[] {0, 1}, tracker.lowDocs());
+        assertTrue(events.isEmpty());
+        assertEquals(2, tracker.size());
+    }
+
+    private static void assertMatches(ItemStore store, LowStockTracker tracker, Set<String> reported) {
+        Set<String> expected = rescan(store);
+        assertEquals(expected, reported);
+        assertEquals(expected.size(), tracker.size());
+        List<Integer> docs = new ArrayList<>();
+        for (int doc = 0; doc < store.size(); doc++) {
+            assertEquals(store.id(doc), expected.contains(store.id(doc)), tracker.isLow(store.id(doc)));
+            assertEquals(store.id(doc), expected.contains(store.id(doc)), tracker.isLowDoc(doc));
+            if (expected.contains(store.id(doc))) {
+                docs.add(doc);
+            }
+        }
+        assertArrayEquals(docs.stream().mapToInt(Integer::intValue).toArray(), tracker.lowDocs());
+    }
+
+    private static Set<String> rescan(ItemStore store) {
+        Set<String> low = new HashSet<>();
+        for (int doc = 0; doc < store.size(); doc++) {
+            if (RULES.isLow(store.code(doc), store.quantity(doc))) {
+                low.add(store.id(doc));
+            }
+        }
+        return low;
+    }
+
+    private static String code(Random random) {
+        return CODES[random.nextInt(CODES.length)];
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.inventoryapplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scheduler for tests that drive timers by hand: tasks run, in due order, only when the test
+ * advances time, and {@link #now} doubles as the clock.
+ */
+final class ManualScheduler implements Scheduler {
+
+    long now;
+    private final List<long[]> due = new ArrayList<>();
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @Override
+    public Runnable schedule(Runnable task, long delayMs) {
+        long[] at = {now + delayMs};
+        due.add(at);
+        tasks.add(task);
+        return () -> at[0] = Long.MAX_VALUE;
+    }
+
+    /**
+     * Moves time forward, running every task that falls due on the way.
+     */
+    void advance(long ms) {
+        long end = now + ms;
+        while (true) {
+            int next = -1;
+            for (int i = 0; i < due.size(); i++) {
+                if (due.get(i)[0] <= end && (next < 0 || due.get(i)[0] < due.get(next)[0])) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            now = due.get(next)[0];
+            due.remove(next);
+            tasks.remove(next).run();
+        }
+        now = end;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.inventoryapplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Round-trips {@link ObjectId}s between the API's hex form and their raw bytes.
+ */
+public class ObjectIdTest {
+
+    @Test
+    public void hexRoundTrips() {
+        String[] ids = {"000000000000000000000000", "ffffffffffffffffffffffff", "65a1b2c3d4e5f60718293a4b",
+                "8000000000000000f0000000"};
+        for (String hex : ids) {
+            ObjectId id = ObjectId.parse(hex);
+            assertEquals(hex, id.toString());
+            assertEquals(hex, ObjectId.toHexString(ObjectId.parseHigh(hex), ObjectId.parseLow(hex)));
+            assertEquals(id, new ObjectId(id.high, id.low));
+        }
+        assertEquals(0x8000000000000000L, ObjectId.parse("8000000000000000f0000000").high);
+        assertEquals(0xf0000000, ObjectId.parse("8000000000000000f0000000").low);
+    }
+
+    @Test
+    public void onlyLowerCaseHexIsValid() {
+        assertTrue(ObjectId.isValid("65a1b2c3d4e5f60718293a4b"));
+        assertFalse(ObjectId.isValid("65A1B2C3D4E5F60718293A4B"));
+        assertFalse(ObjectId.isValid("65a1b2c3d4e5f60718293a4"));
+        assertFalse(ObjectId.isValid("65a1b2c3d4e5f60718293a4bc"));
+        assertFalse(ObjectId.isValid("65a1b2c3d4e5f60718293a4g"));
+        assertFalse(ObjectId.isValid("pending:1"));
+        assertFalse(ObjectId.isValid(null));
+        assertNull(ObjectId.parse("65A1B2C3D4E5F60718293A4B"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.inventoryapplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Drives {@link SearchResultCache} on a manual clock.
+ */
+public class SearchResultCacheTest {
+
+    private static final long TTL_MS = 60_000;
+
+    private long now;
+    private SearchResultCache<String> cache;
+
+    @Before
+    public void setUp() {
+        cache = new SearchResultCache<>(3, TTL_MS, () -> now);
+    }
+
+    @Test
+    public void leastRecentlyUsedPageIsEvicted() {
+        cache.put("bolt", 1, 20, "a");
+        cache.put("bolt", 2, 20, "b");
+        cache.put("nut", 1, 20, "c");
+        assertEquals("a", cache.get("bolt", 1, 20)); // Now more recent than page 2
+        cache.put("nut", 2, 20, "d");
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get("bolt", 2, 20));
+        assertEquals("a", cache.get("bolt", 1, 20));
+        assertEquals("c", cache.get("nut", 1, 20));
+        assertEquals("d", cache.get("nut", 2, 20));
+    }
+
+    @Test
+    public void keysDifferByQueryPageAndPageSize() {
+        cache.put("bolt", 1, 20, "a");
+        assertNull(cache.get("bolt", 1, 50));
+        assertNull(cache.get("bolt", 2, 20));
+        assertNull(cache.get("Bolt", 1, 20));
+        cache.put(null, 1, 20, "all");
+        assertEquals("all", cache.get("", 1, 20));
+    }
+
+    @Test
+    public void pagesExpireAfterTheTtl() {
+        cache.put("bolt", 1, 20, "a");
+        now += TTL_MS - 1;
+        cache.put("bolt", 2, 20, "b");
+        assertEquals("a", cache.get("bolt", 1, 20));
+
+        now += 1;
+        assertNull(cache.get("bolt", 1, 20));
+        assertEquals(1, cache.size()); // Dropped once noticed
+        assertEquals("b", cache.get("bolt", 2, 20));
+    }
+
+    @Test
+    public void pageFetchedBeforeAnInvalidationIsNotStored() {
+        cache.put("bolt", 1, 20, "a");
+        long sent = cache.generation();
+        cache.invalidateAll(); // A local edit while the request was in flight
+        assertEquals(0, cache.size());
+
+        assertFalse(cache.put("bolt", 2, 20, "stale", sent));
+        assertNull(cache.get("bolt", 2, 20));
+
+        long resent = cache.generation();
+        assertTrue(cache.put("bolt", 2, 20, "fresh", resent));
+        assertEquals("fresh", cache.get("bolt", 2, 20));
+    }
+}
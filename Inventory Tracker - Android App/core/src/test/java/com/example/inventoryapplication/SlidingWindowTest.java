@@ -0,0 +1,85 @@
+package com.example.inventoryapplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scrolls a {@link SlidingWindow} over a long list served synchronously, checking the window
+ * stays bounded and page-aligned and that evicted pages are loaded again on the way back.
+ */
+public class SlidingWindowTest {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_PAGES = 5;
+    private static final int PREFETCH = 10;
+    private static final int TOTAL = 10_013; // Ends with a partial page
+
+    /** Serves the positions themselves as items and records each load's offset. */
+    private final List<Integer> loadedOffsets = new ArrayList<>();
+    private final SlidingWindow.PageSource<Integer> source = (offset, count, callback) -> {
+        loadedOffsets.add(offset);
+        List<Integer> page = new ArrayList<>();
+        for (int i = offset; i < Math.min(offset + count, TOTAL); i++) {
+            page.add(i);
+        }
+        callback.onLoaded(page, TOTAL);
+    };
+
+    private List<Integer> shown;
+    private int shownStart;
+    private SlidingWindow<Integer> window;
+
+    @Before
+    public void setUp() {
+        window = new SlidingWindow<>(PAGE_SIZE, MAX_PAGES, PREFETCH, (items, windowStart, total) -> {
+            shown = items;
+            shownStart = windowStart;
+        });
+        window.reset(source);
+    }
+
+    @Test
+    public void scrollingToTheEndAndBackKeepsTheWindowBounded() {
+        assertWindow();
+        while (shownStart + shown.size() < TOTAL) {
+            window.onVisibleRange(shown.size() - 5, shown.size() - 1); // Near the bottom edge
+            assertWindow();
+        }
+        assertEquals(TOTAL - 1, (int) shown.get(shown.size() - 1));
+        int forwardLoads = loadedOffsets.size();
+        assertEquals((TOTAL + PAGE_SIZE - 1) / PAGE_SIZE, forwardLoads); // Each page once
+
+        while (shownStart > 0) {
+            window.onVisibleRange(0, 5); // Near the top edge
+            assertWindow();
+        }
+        assertEquals(0, (int) shown.get(0));
+        // Every page but those still held was evicted on the way down and loaded again
+        List<Integer> reloaded = loadedOffsets.subList(forwardLoads, loadedOffsets.size());
+        assertEquals((TOTAL + PAGE_SIZE - 1) / PAGE_SIZE - MAX_PAGES, reloaded.size());
+        assertEquals(0, (int) reloaded.get(reloaded.size() - 1));
+    }
+
+    @Test
+    public void nothingIsLoadedAwayFromTheEdges() {
+        window.onVisibleRange(0, 5); // Already at the top of the list
+        window.onVisibleRange(10, 20);
+        assertEquals(1, loadedOffsets.size());
+        window.onVisibleRange(-1, -1); // Nothing visible
+        assertEquals(1, loadedOffsets.size());
+    }
+
+    private void assertWindow() {
+        assertTrue(shown.size() + " held", shown.size() <= PAGE_SIZE * MAX_PAGES);
+        assertEquals(0, shownStart % PAGE_SIZE);
+        assertEquals(shownStart, window.getWindowStart());
+        for (int i = 0; i < shown.size(); i++) {
+            assertEquals(shownStart + i, (int) shown.get(i)); // Consecutive, no gaps or repeats
+        }
+    }
+}
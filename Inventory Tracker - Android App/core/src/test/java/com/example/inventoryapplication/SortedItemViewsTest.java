@@ -0,0 +1,99 @@
+package com.example.inventoryapplication;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Checks every {@link SortedItemViews} view against a brute-force filter and sort, after
+ * random quantity, name and code changes have repositioned documents in place.
+ */
+public class SortedItemViewsTest {
+
+    private static final String[] WORDS = {"bolt", "Nut", "washer", "screw", "Anchor", "hinge", null};
+
+    @Test
+    public void viewsMatchABruteForceSortAfterUpdates() {
+        Random random = new Random(11);
+        int size = 300;
+        List<String> names = new ArrayList<>();
+        List<String> codes = new ArrayList<>();
+        int[] quantities = new int[size];
+        for (int doc = 0; doc < size; doc++) {
+            names.add(word(random));
+            codes.add("C" + random.nextInt(100));
+            quantities[doc] = random.nextInt(20);
+        }
+        SortedItemViews views = new SortedItemViews(names, codes, quantities);
+
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 25; i++) {
+                int doc = random.nextInt(size);
+                switch (random.nextInt(3)) {
+                    case 0:
+                        quantities[doc] = random.nextInt(20);
+                        views.updateQuantity(doc, quantities[doc]);
+                        break;
+                    case 1:
+                        String name = word(random);
+                        names.set(doc, name);
+                        views.updateName(doc, name == null ? "" : name);
+                        break;
+                    default:
+                        codes.set(doc, "C" + random.nextInt(100));
+                        views.updateCode(doc, codes.get(doc));
+                        break;
+                }
+            }
+            int[] matches = random.ints(random.nextInt(size), 0, size).distinct().toArray();
+            for (int[] subset : new int[][] {null, matches, {}}) {
+                for (SortedItemViews.SortKey key : SortedItemViews.SortKey.values()) {
+                    for (int threshold : new int[] {-1, 0, 5, 19}) {
+                        String message = key + " <= " + threshold + (subset == null ? "" : " of " + subset.length);
+                        assertArrayEquals(message, expected(subset, key, threshold, names, codes, quantities),
+                                views.view(subset, key, threshold).toArray());
+                    }
+                }
+            }
+        }
+    }
+
+    private static int[] expected(int[] matches, SortedItemViews.SortKey key, int threshold,
+                                  List<String> names, List<String> codes, int[] quantities) {
+        IntStream docs = matches == null ? IntStream.range(0, quantities.length) : IntStream.of(matches);
+        List<Integer> kept = new ArrayList<>();
+        docs.filter(doc -> threshold < 0 || quantities[doc] <= threshold).forEach(kept::add);
+        Comparator<Integer> byText;
+        switch (key) {
+            case NAME:
+                byText = Comparator.comparing(doc -> text(names.get(doc)), String.CASE_INSENSITIVE_ORDER);
+                break;
+            case CODE:
+                byText = Comparator.comparing(doc -> text(codes.get(doc)), String.CASE_INSENSITIVE_ORDER);
+                break;
+            case QUANTITY:
+                byText = Comparator.comparingInt(doc -> quantities[doc]);
+                break;
+            default:
+                byText = null; // Server or relevance order is kept as given
+                break;
+        }
+        if (byText != null) {
+            kept.sort(byText.thenComparing(Comparator.naturalOrder()));
+        }
+        return kept.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String text(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
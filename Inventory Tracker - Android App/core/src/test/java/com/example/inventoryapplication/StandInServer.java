@@ -0,0 +1,50 @@
+package com.example.inventoryapplication;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Local HTTP server for tests that run client code against stand-ins for the website's API.
+ * Each test registers handlers that follow the contract of the controllers they replace,
+ * named in the handler's doc comment, so the client sees the same statuses and bodies as
+ * it would from the real backend.
+ */
+final class StandInServer implements AutoCloseable {
+
+    static {
+        // Without TCP_NODELAY each small write waits out the client's delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Starts serving on a free loopback port.
+     * @param executor Runs the handlers; shut down by {@link #close}
+     */
+    StandInServer(ExecutorService executor) throws IOException {
+        this.executor = executor;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Serves {@code path} and everything below it with {@code handler}.
+     * @return The full URL of {@code path}
+     */
+    String route(String path, HttpHandler handler) {
+        server.createContext(path, handler);
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
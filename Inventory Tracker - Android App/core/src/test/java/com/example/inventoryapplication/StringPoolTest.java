@@ -0,0 +1,57 @@
+package com.example.inventoryapplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Checks that {@link StringPool#contentEquals} agrees with decoding and comparing, including
+ * for text outside ASCII, where it encodes UTF-8 by hand.
+ */
+public class StringPoolTest {
+
+    @Test
+    public void contentEqualsMatchesStoredText() {
+        String[] values = {
+                "", "Bolt",
+                "\u00C9crou 8 mm",                      // Two-byte UTF-8
+                "\u0428\u0430\u0439\u0431\u0430",       // Cyrillic, two bytes each
+                "\u30CD\u30B8",                         // Katakana, three bytes each
+                "Box \uD83D\uDCE6",                     // Surrogate pair, four bytes
+                "\uD83D\uDCE6\uD83D\uDD29",             // Two pairs
+        };
+        StringPool pool = new StringPool(1, 1);
+        for (String value : values) {
+            int handle = pool.add(value);
+            assertEquals(value, pool.get(handle));
+            for (String other : values) {
+                assertEquals(value + " vs " + other, value.equals(other), pool.contentEquals(handle, other));
+            }
+        }
+    }
+
+    @Test
+    public void contentEqualsRejectsPrefixesAndNearMisses() {
+        StringPool pool = new StringPool(4, 16);
+        int box = pool.add("Box \uD83D\uDCE6");
+        assertFalse(pool.contentEquals(box, "Box "));
+        assertFalse(pool.contentEquals(box, "Box \uD83D\uDCE6 "));
+        assertFalse(pool.contentEquals(box, "Box \uD83D\uDCE7")); // Same high surrogate, next code point
+        assertFalse(pool.contentEquals(box, "Box \uD83D")); // Unpaired high surrogate
+
+        int empty = pool.add(null);
+        assertTrue(pool.contentEquals(empty, ""));
+        assertTrue(pool.contentEquals(empty, null));
+    }
+
+    @Test
+    public void contentEqualsTreatsUnpairedSurrogatesAsGetBytesDoes() {
+        StringPool pool = new StringPool(4, 16);
+        int handle = pool.add("a\uDC00b");
+        assertEquals("a?b", pool.get(handle));
+        assertTrue(pool.contentEquals(handle, "a\uDC00b"));
+        assertTrue(pool.contentEquals(handle, "a?b"));
+    }
+}
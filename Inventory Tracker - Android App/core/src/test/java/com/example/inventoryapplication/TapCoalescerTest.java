@@ -0,0 +1,143 @@
+package com.example.inventoryapplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Drives {@link TapCoalescer} on a manual clock, recording the writes it hands to the sink.
+ */
+public class TapCoalescerTest {
+
+    private static final long QUIET_MS = 400;
+    private static final long MAX_DELAY_MS = 1_500;
+
+    /** Records writes; each stays in flight until the test completes it, unless {@code autoDone}. */
+    private static final class RecordingSink implements TapCoalescer.Sink<String> {
+        final List<String> writes = new ArrayList<>();
+        final List<Runnable> inFlight = new ArrayList<>();
+        boolean autoDone = true;
+
+        @Override
+        public void write(String key, int netDelta, Runnable done) {
+            writes.add(key + (netDelta > 0 ? "+" : "") + netDelta);
+            if (autoDone) {
+                done.run();
+            } else {
+                inFlight.add(done);
+            }
+        }
+
+        void complete(int index) {
+            inFlight.remove(index).run();
+        }
+    }
+
+    private ManualScheduler scheduler;
+    private RecordingSink sink;
+    private TapCoalescer<String> coalescer;
+
+    @Before
+    public void setUp() {
+        scheduler = new ManualScheduler();
+        sink = new RecordingSink();
+        coalescer = new TapCoalescer<>(QUIET_MS, MAX_DELAY_MS, scheduler, sink);
+    }
+
+    @Test
+    public void interleavedKeysAreWrittenSeparately() {
+        coalescer.tap("a", 1);
+        coalescer.tap("b", -1);
+        coalescer.tap("a", 1);
+        coalescer.tap("b", -1);
+        coalescer.tap("a", 1);
+        assertEquals(3, coalescer.pending("a"));
+        assertEquals(-2, coalescer.pending("b"));
+        scheduler.advance(QUIET_MS);
+
+        Collections.sort(sink.writes); // Both quiet periods end together
+        assertEquals(Arrays.asList("a+3", "b-2"), sink.writes);
+        assertEquals(0, coalescer.pending("a"));
+    }
+
+    @Test
+    public void eachTapRestartsTheQuietPeriod() {
+        coalescer.tap("a", 1);
+        scheduler.advance(QUIET_MS - 1);
+        coalescer.tap("a", 1);
+        scheduler.advance(QUIET_MS - 1);
+        assertTrue(sink.writes.isEmpty());
+
+        scheduler.advance(1);
+        assertEquals(Collections.singletonList("a+2"), sink.writes);
+    }
+
+    @Test
+    public void continuousTappingIsWrittenByTheDeadline() {
+        long elapsed = 0;
+        while (elapsed < MAX_DELAY_MS) {
+            coalescer.tap("a", 1);
+            scheduler.advance(QUIET_MS / 2);
+            elapsed += QUIET_MS / 2;
+        }
+        // Taps at 0, 200, ..., 1400 ms; the deadline at 1500 ms writes all eight
+        assertEquals(Collections.singletonList("a+8"), sink.writes);
+
+        coalescer.tap("a", 1); // A new deadline starts from the first unsent tap
+        scheduler.advance(QUIET_MS);
+        assertEquals(Arrays.asList("a+8", "a+1"), sink.writes);
+    }
+
+    @Test
+    public void tapsDuringAWriteAreSentAfterItCompletes() {
+        sink.autoDone = false;
+        coalescer.tap("a", 1);
+        scheduler.advance(QUIET_MS);
+        assertEquals(Collections.singletonList("a+1"), sink.writes);
+
+        coalescer.tap("a", 1);
+        coalescer.tap("a", 1);
+        scheduler.advance(MAX_DELAY_MS); // Due, but the first write is still running
+        assertEquals(Collections.singletonList("a+1"), sink.writes);
+        assertEquals(2, coalescer.pending("a"));
+
+        sink.complete(0);
+        assertEquals(Arrays.asList("a+1", "a+2"), sink.writes);
+
+        coalescer.tap("a", -1); // Not yet due when the second write completes
+        sink.complete(0);
+        assertEquals(2, sink.writes.size());
+        scheduler.advance(QUIET_MS);
+        assertEquals(Arrays.asList("a+1", "a+2", "a-1"), sink.writes);
+    }
+
+    @Test
+    public void tapsThatCancelOutWriteNothing() {
+        coalescer.tap("a", 1);
+        coalescer.tap("a", -1);
+        scheduler.advance(MAX_DELAY_MS);
+
+        assertTrue(sink.writes.isEmpty());
+        assertEquals(0, coalescer.pending("a"));
+    }
+
+    @Test
+    public void flushAllWritesEveryKeyAtOnce() {
+        coalescer.tap("a", 1);
+        coalescer.tap("b", 2);
+        coalescer.tap("c", 1);
+        coalescer.tap("c", -1);
+        coalescer.flushAll();
+        Collections.sort(sink.writes); // Keys are flushed in no particular order
+        assertEquals(Arrays.asList("a+1", "b+2"), sink.writes);
+
+        scheduler.advance(MAX_DELAY_MS); // The cancelled timers write nothing more
+        assertEquals(2, sink.writes.size());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.inventoryapplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Covers the expiry and renewal decisions {@link TokenClaims} makes from a token's claims.
+ */
+public class TokenClaimsTest {
+
+    private static final long HOUR_MS = 3_600_000;
+    private static final long ISSUED_MS = 1_700_000_000_000L;
+
+    /** Builds an unsigned token around a JSON payload. */
+    private static String token(String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".signature";
+    }
+
+    private static TokenClaims issuedFor(long lifetimeMs) {
+        return TokenClaims.parse(token("{\"iat\":" + ISSUED_MS / 1000 + ",\"exp\":" + (ISSUED_MS + lifetimeMs) / 1000
+                + ",\"role\":\"Admin\"}"));
+    }
+
+    @Test
+    public void validityAllowsForClockSkew() {
+        TokenClaims claims = issuedFor(HOUR_MS);
+        long expires = ISSUED_MS + HOUR_MS;
+        assertEquals(expires, claims.expiresAtMs());
+        assertEquals("Admin", claims.role());
+        assertTrue(claims.isValidAt(expires - 1, 0));
+        assertFalse(claims.isValidAt(expires, 0));
+        assertTrue(claims.isValidAt(expires - 30_001, 30_000));
+        assertFalse(claims.isValidAt(expires - 30_000, 30_000)); // Inside the skew margin
+    }
+
+    @Test
+    public void longLivedTokenIsRenewedTheMarginBeforeExpiry() {
+        TokenClaims claims = issuedFor(24 * HOUR_MS);
+        assertEquals(ISSUED_MS + 24 * HOUR_MS - HOUR_MS, claims.refreshAtMs(HOUR_MS));
+    }
+
+    @Test
+    public void shortLivedTokenIsRenewedHalfWay() {
+        TokenClaims claims = issuedFor(20 * 60_000);
+        assertEquals(ISSUED_MS + 10 * 60_000, claims.refreshAtMs(HOUR_MS));
+    }
+
+    @Test
+    public void withoutIssuedAtTheMarginApplies() {
+        long expires = ISSUED_MS + 20 * 60_000;
+        TokenClaims claims = TokenClaims.parse(token("{\"exp\":" + expires / 1000 + "}"));
+        assertEquals(expires - HOUR_MS, claims.refreshAtMs(HOUR_MS));
+        assertEquals(JwtPayload.DEFAULT_ROLE, claims.role());
+    }
+
+    @Test
+    public void tokenWithoutExpiryNeverExpires() {
+        TokenClaims claims = TokenClaims.parse(token("{\"iat\":" + ISSUED_MS / 1000 + "}"));
+        assertEquals(Long.MAX_VALUE, claims.expiresAtMs());
+        assertEquals(Long.MAX_VALUE, claims.refreshAtMs(HOUR_MS));
+        assertTrue(claims.isValidAt(Long.MAX_VALUE - HOUR_MS, 30_000));
+    }
+
+    @Test
+    public void malformedTokensAreTreatedAsExpired() {
+        String[] tokens = {null, "", "no-dots", "a.!!not-base64!!.c", token("not json"), token("{\"exp\":\"soon\"}")};
+        for (String token : tokens) {
+            TokenClaims claims = TokenClaims.parse(token);
+            assertEquals(token, token, claims.token()); // Kept, but never believed valid
+            assertFalse(token, claims.isValidAt(0, 0));
+            assertTrue(token, claims.refreshAtMs(HOUR_MS) <= 0);
+        }
+    }
+}
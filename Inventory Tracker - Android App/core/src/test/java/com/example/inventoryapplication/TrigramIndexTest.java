@@ -0,0 +1,146 @@
+package com.example.inventoryapplication;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that {@link TrigramIndex} answers exactly as a case-insensitive
+ * {@link String#contains} over names and codes, and that renaming documents or changing their
+ * codes in place leaves it answering as an index built from scratch over the new values.
+ */
+public class TrigramIndexTest {
+
+    private static final String[] WORDS = {"bolt", "nut", "washer", "screw", "anchor", "hinge", "Bracket"};
+
+    @Test
+    public void searchMatchesContainsForEveryQueryLength() {
+        Random random = new Random(3);
+        List<String> names = new ArrayList<>();
+        List<String> codes = new ArrayList<>();
+        for (int doc = 0; doc < 300; doc++) {
+            names.add(doc % 50 == 0 ? null : name(random));
+            codes.add(doc % 40 == 0 ? null : "Ab-" + random.nextInt(500));
+        }
+        TrigramIndex index = TrigramIndex.build(names, codes);
+
+        List<String> queries = new ArrayList<>(Arrays.asList("", "a", "B", "ab", "-1", "ZZZ", "Ab-", "ab-1", "r 1"));
+        for (int i = 0; i < 400; i++) {
+            // Pieces of 0 to 8 characters cut from a name or a code, in random case
+            List<String> source = random.nextBoolean() ? names : codes;
+            String text = source.get(random.nextInt(source.size()));
+            if (text == null) {
+                continue;
+            }
+            int start = random.nextInt(text.length() + 1);
+            int end = Math.min(text.length(), start + random.nextInt(9));
+            queries.add(randomCase(random, text.substring(start, end)));
+        }
+        for (String query : queries) {
+            assertArrayEquals(query, contains(names, codes, query), index.search(query));
+        }
+    }
+
+    @Test
+    public void codeOnlyMatchesAreFound() {
+        TrigramIndex index = TrigramIndex.build(Arrays.asList("Bolt", "Nut", "Washer"),
+                Arrays.asList("HX-440", "nt-2", "hx-441"));
+        assertArrayEquals(new int[] {0, 2}, index.search("hX-44"));
+        assertArrayEquals(new int[] {2}, index.search("X-441"));
+        assertArrayEquals(new int[] {1}, index.search("T-"));
+    }
+
+    @Test
+    public void trigramsSplitBetweenNameAndCodeDoNotMatch() {
+        // "boltx" has the trigrams bol and olt in the name and ltx in the code, but neither
+        // field contains the whole query
+        TrigramIndex index = TrigramIndex.build(Arrays.asList("Bolt", "Boltx rail"), Arrays.asList("LTX-1", "R-2"));
+        assertArrayEquals(new int[] {1}, index.search("BoltX"));
+        assertArrayEquals(new int[0], index.search("bolt ltx"));
+        assertArrayEquals(new int[] {0}, index.search("ltx-"));
+    }
+
+    @Test
+    public void updatesMatchARebuild() {
+        Random random = new Random(7);
+        List<String> names = new ArrayList<>();
+        List<String> codes = new ArrayList<>();
+        for (int doc = 0; doc < 200; doc++) {
+            names.add(name(random));
+            codes.add("C" + doc);
+        }
+        TrigramIndex index = TrigramIndex.build(names, codes);
+
+        for (int i = 0; i < 300; i++) {
+            int doc = random.nextInt(names.size());
+            if (i % 3 == 0) {
+                String code = "C" + random.nextInt(1000);
+                codes.set(doc, code);
+                index.updateCode(doc, code);
+            } else {
+                String name = i % 10 == 1 ? codes.get(doc) : name(random); // Sometimes shares the code's trigrams
+                names.set(doc, name);
+                index.updateName(doc, name);
+            }
+        }
+
+        TrigramIndex rebuilt = TrigramIndex.build(names, codes);
+        List<String> queries = new ArrayList<>(Arrays.asList(WORDS));
+        queries.addAll(Arrays.asList("bol", "er ", "c1", "c12", "ew", "zzz", ""));
+        for (String query : queries) {
+            assertArrayEquals(query, rebuilt.search(query), index.search(query));
+        }
+    }
+
+    @Test
+    public void renameDropsTrigramsNoLongerUsed() {
+        TrigramIndex index = TrigramIndex.build(Arrays.asList("Bolt", "Nut"), Arrays.asList("B1", "N1"));
+        index.updateName(0, "Washer");
+        assertArrayEquals(new int[0], index.search("bolt"));
+        assertNull(index.postings(TrigramIndex.gramKey("bol", 0)));
+        assertArrayEquals(new int[] {0}, index.search("WASH"));
+        assertArrayEquals(new int[] {0}, index.search("b1"));
+    }
+
+    @Test
+    public void codeChangeMovesTheDocumentBetweenCodes() {
+        TrigramIndex index = TrigramIndex.build(Arrays.asList("Bolt", "Nut"), Arrays.asList("AB-100", "CD-200"));
+        index.updateCode(0, "XY-900");
+        assertArrayEquals(new int[0], index.search("ab-1"));
+        assertArrayEquals(new int[] {0}, index.search("xy-9"));
+        assertArrayEquals(new int[] {0}, index.search("bolt"));
+        index.updateCode(1, "XY-901");
+        assertArrayEquals(new int[] {0, 1}, index.search("XY-90"));
+    }
+
+    private static int[] contains(List<String> names, List<String> codes, String query) {
+        String q = query.toLowerCase();
+        List<Integer> matches = new ArrayList<>();
+        for (int doc = 0; doc < names.size(); doc++) {
+            String name = names.get(doc) == null ? "" : names.get(doc).toLowerCase();
+            String code = codes.get(doc) == null ? "" : codes.get(doc).toLowerCase();
+            if (name.contains(q) || code.contains(q)) {
+                matches.add(doc);
+            }
+        }
+        return matches.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String randomCase(Random random, String text) {
+        StringBuilder mixed = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            mixed.append(random.nextBoolean() ? Character.toUpperCase(c) : Character.toLowerCase(c));
+        }
+        return mixed.toString();
+    }
+
+    private static String name(Random random) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                + random.nextInt(50);
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.inventoryapplication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Many clients editing one item at once against a local stand-in for
+ * {@code PATCH /api/items/:code}, with the API's optimistic concurrency contract: a change
+ * carrying expectedVersion only applies at that version, and a refusal is a 409 whose body
+ * holds the current item. Clients send through {@link ConflictRetry}, the retry loop the
+ * app's repository uses, and no accepted change may be lost.
+ */
+public class VersionConflictTest {
+
+    private static final int INITIAL_QUANTITY = 500;
+    private static final int CLIENTS = 8;
+    private static final int CHANGES_PER_CLIENT = 60;
+
+    /** High enough that, with this many clients, every mergeable change gets through. */
+    private static final int MAX_RETRIES = 1_000;
+
+    /** The stand-in's single item; guarded by the server. */
+    private String serverName = "Widget";
+    private int serverQuantity = INITIAL_QUANTITY;
+    private int serverVersion = 0;
+
+    private StandInServer server;
+    private URI itemUri;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Before
+    public void startServer() throws IOException {
+        server = new StandInServer(Executors.newFixedThreadPool(CLIENTS));
+        itemUri = URI.create(server.route("/api/items/W1", this::handle));
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void concurrentChangesAreMergedWithoutLosingAny() throws Exception {
+        AtomicInteger acceptedDelta = new AtomicInteger();
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger lastRenameVersion = new AtomicInteger(-1);
+        String[] lastRename = new String[1];
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<?>> runs = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            int clientNo = c;
+            runs.add(clients.submit(() -> {
+                Random random = new Random(clientNo);
+                JSONObject[] seen = {get()};
+                ConflictRetry.Transport transport = (body, answer) -> {
+                    try {
+                        HttpResponse<String> response = patch(body);
+                        JSONObject reply = new JSONObject(response.body());
+                        if (response.statusCode() != 200) {
+                            assertEquals(409, response.statusCode());
+                            conflicts.incrementAndGet();
+                            answer.refused(reply.getJSONObject("item"), new IOException("HTTP 409"));
+                            return;
+                        }
+                        acceptedDelta.addAndGet(body.optInt("delta", 0));
+                        accepted.incrementAndGet();
+                        if (body.has("name")) {
+                            synchronized (lastRename) {
+                                if (reply.getInt("version") > lastRenameVersion.get()) {
+                                    lastRenameVersion.set(reply.getInt("version"));
+                                    lastRename[0] = body.getString("name");
+                                }
+                            }
+                        }
+                        answer.accepted(reply);
+                    } catch (IOException | InterruptedException e) {
+                        answer.refused(null, e);
+                    }
+                };
+                ConflictRetry.Listener listener = new ConflictRetry.Listener() {
+                    @Override
+                    public void onRebased(int version) {
+                    }
+
+                    @Override
+                    public void onAccepted(JSONObject item) {
+                        seen[0] = item;
+                    }
+
+                    @Override
+                    public void onFailed(JSONObject item, Exception error) {
+                        assertNotNull("failed without a conflict: " + error, item);
+                        seen[0] = item; // Left to the user; carry on from the server's state
+                    }
+                };
+                for (int i = 0; i < CHANGES_PER_CLIENT; i++) {
+                    int delta = random.nextInt(7) - 3;
+                    String rename = random.nextInt(5) == 0 ? "Widget " + clientNo + "-" + i : null;
+                    if (delta == 0 && rename == null) {
+                        delta = 1;
+                    }
+                    new ConflictRetry(seen[0].getString("name"), delta, rename, seen[0].getInt("version"),
+                            MAX_RETRIES, transport, listener).start();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> run : runs) {
+            run.get(60, TimeUnit.SECONDS);
+        }
+        clients.shutdown();
+
+        JSONObject end = get();
+        assertTrue("expected conflicts with " + CLIENTS + " clients", conflicts.get() > 0);
+        assertEquals(INITIAL_QUANTITY + acceptedDelta.get(), end.getInt("quantity"));
+        assertEquals(accepted.get(), end.getInt("version"));
+        if (lastRename[0] != null) {
+            assertEquals(lastRename[0], end.getString("name"));
+        }
+    }
+
+    @Test
+    public void rebaseKeepsDeltasAndUntouchedRenames() {
+        ConflictMerge.Change merged = ConflictMerge.rebase("A", -2, "B", "A", 10, 7);
+        assertNotNull(merged);
+        assertEquals(-2, merged.delta());
+        assertEquals("B", merged.name());
+        assertEquals(7, merged.expectedVersion());
+
+        merged = ConflictMerge.rebase("A", 0, "B", "B", 10, 8);
+        assertNotNull(merged);
+        assertTrue(merged.isEmpty()); // Someone made the same rename
+
+        assertNull(ConflictMerge.rebase("A", 1, "B", "C", 10, 8)); // Renamed differently
+        assertNull(ConflictMerge.rebase("A", -5, null, "A", 3, 8)); // Not enough stock left
+    }
+
+    @Test
+    public void retryStopsAtTheLimitAndAcceptsWhatTheServerAlreadyHas() {
+        List<JSONObject> sent = new ArrayList<>();
+        List<String> outcomes = new ArrayList<>();
+        ConflictRetry.Listener listener = new ConflictRetry.Listener() {
+            @Override
+            public void onRebased(int version) {
+                outcomes.add("rebased " + version);
+            }
+
+            @Override
+            public void onAccepted(JSONObject item) {
+                outcomes.add("accepted " + item.getInt("version"));
+            }
+
+            @Override
+            public void onFailed(JSONObject item, Exception error) {
+                outcomes.add("failed " + (item == null ? "-" : item.getInt("version")));
+            }
+        };
+
+        // Every attempt conflicts: re-based twice, then given up
+        int[] version = {4};
+        new ConflictRetry("A", 2, null, 3, 2, (body, answer) -> {
+            sent.add(body);
+            version[0]++;
+            answer.refused(new JSONObject().put("name", "A").put("quantity", 10).put("version", version[0]), null);
+        }, listener).start();
+        assertEquals(3, sent.size());
+        assertEquals(2, sent.get(0).getInt("delta"));
+        assertEquals(3, sent.get(0).getInt("expectedVersion"));
+        assertEquals(5, sent.get(1).getInt("expectedVersion"));
+        assertEquals(6, sent.get(2).getInt("expectedVersion"));
+        assertEquals(Arrays.asList("rebased 5", "rebased 6", "failed 7"), outcomes);
+
+        // Someone made the same rename: nothing is left to send
+        sent.clear();
+        outcomes.clear();
+        new ConflictRetry("A", 0, "B", 3, 2, (body, answer) -> {
+            sent.add(body);
+            answer.refused(new JSONObject().put("name", "B").put("quantity", 10).put("version", 4), null);
+        }, listener).start();
+        assertEquals(1, sent.size());
+        assertEquals(Arrays.asList("rebased 4", "accepted 4"), outcomes);
+
+        // A plain delta is sent without a version condition, and fails outright on other errors
+        sent.clear();
+        outcomes.clear();
+        new ConflictRetry("A", -1, null, ConflictRetry.ANY_VERSION, 2, (body, answer) -> {
+            sent.add(body);
+            answer.refused(null, new IOException("offline"));
+        }, listener).start();
+        assertFalse(sent.get(0).has("expectedVersion"));
+        assertEquals(Collections.singletonList("failed -"), outcomes);
+    }
+
+    private JSONObject get() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(itemUri).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        return new JSONObject(response.body());
+    }
+
+    private HttpResponse<String> patch(JSONObject body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(itemUri)
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** Stands in for itemsAdjustItem in the website's items controller. */
+    private void handle(HttpExchange exchange) throws IOException {
+        int status;
+        JSONObject reply;
+        synchronized (this) {
+            if ("PATCH".equals(exchange.getRequestMethod())) {
+                JSONObject body = new JSONObject(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                int delta = body.optInt("delta", 0);
+                if (body.has("expectedVersion") && body.getInt("expectedVersion") != serverVersion) {
+                    status = 409;
+                    reply = new JSONObject().put("reason", "version").put("item", item());
+                } else if (serverQuantity + delta < 0) {
+                    status = 409;
+                    reply = new JSONObject().put("reason", "quantity").put("item", item());
+                } else {
+                    serverQuantity += delta;
+                    serverName = body.optString("name", serverName);
+                    serverVersion++;
+                    status = 200;
+                    reply = item();
+                }
+            } else {
+                status = 200;
+                reply = item();
+            }
+        }
+        byte[] data = reply.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, data.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(data);
+        }
+    }
+
+    private JSONObject item() {
+        return new JSONObject().put("code", "W1").put("name", serverName)
+                .put("quantity", serverQuantity).put("version", serverVersion);
+    }
+}
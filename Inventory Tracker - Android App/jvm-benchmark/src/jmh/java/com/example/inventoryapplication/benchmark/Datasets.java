@@ -0,0 +1,95 @@
+package com.example.inventoryapplication.benchmark;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic catalogs shaped like the items API response.
+ * Names and codes are built from the seed inventory's vocabulary plus a number, so trigram
+ * and fuzzy searches see realistic overlap between items.
+ */
+final class Datasets {
+
+    private static final String[] WORDS = {
+            "Cup", "Napkin", "Fork", "Spoon", "Knife", "Plate", "Bowl", "Straw", "Lid", "Tray",
+            "Sugar", "Cream", "Coffee", "Tea", "Filter", "Towel", "Glove", "Bag", "Box", "Cloth"
+    };
+
+    private Datasets() {
+    }
+
+    /**
+     * A plain item, standing in for the app's Android-bound Item class.
+     */
+    static final class Row {
+        final String id;
+        final String code;
+        final String name;
+        final int quantity;
+
+        Row(String id, String code, String name, int quantity) {
+            this.id = id;
+            this.code = code;
+            this.name = name;
+            this.quantity = quantity;
+        }
+    }
+
+    /**
+     * Generates {@code size} items; the same size always yields the same items.
+     */
+    static List<Row> rows(int size) {
+        Random random = new Random(size);
+        List<Row> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String first = WORDS[random.nextInt(WORDS.length)];
+            String second = WORDS[random.nextInt(WORDS.length)];
+            String code = (first.substring(0, 2) + second.substring(0, 2)).toUpperCase() + i;
+            rows.add(new Row(String.format("%024x", i), code, first + " " + second + " " + i, random.nextInt(250)));
+        }
+        return rows;
+    }
+
+    /**
+     * Serializes items as the body of {@code GET /api/items}.
+     */
+    static String json(List<Row> rows) {
+        JSONArray array = new JSONArray();
+        for (Row row : rows) {
+            JSONObject o = new JSONObject();
+            o.put("_id", row.id);
+            o.put("code", row.code);
+            o.put("name", row.name);
+            o.put("quantity", row.quantity);
+            array.put(o);
+        }
+        return array.toString();
+    }
+
+    static List<String> names(List<Row> rows) {
+        List<String> names = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            names.add(row.name);
+        }
+        return names;
+    }
+
+    static List<String> codes(List<Row> rows) {
+        List<String> codes = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            codes.add(row.code);
+        }
+        return codes;
+    }
+
+    static int[] quantities(List<Row> rows) {
+        int[] quantities = new int[rows.size()];
+        for (int i = 0; i < quantities.length; i++) {
+            quantities[i] = rows.get(i).quantity;
+        }
+        return quantities;
+    }
+}
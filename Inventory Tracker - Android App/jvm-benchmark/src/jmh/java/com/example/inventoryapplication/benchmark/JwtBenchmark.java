@@ -0,0 +1,52 @@
+package com.example.inventoryapplication.benchmark;
+
+import com.example.inventoryapplication.JwtPayload;
+import com.example.inventoryapplication.TokenClaims;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a token shaped like the backend's (HS256 header, user claims, 32-byte signature):
+ * the role alone, and all the claims TokenManager decodes once per token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtBenchmark {
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        JSONObject payload = new JSONObject()
+                .put("_id", "67fb142a36adecb31feb5700")
+                .put("email", "manager@example.com")
+                .put("name", "Store Manager")
+                .put("role", "Admin")
+                .put("exp", 1_900_000_000L)
+                .put("iat", 1_800_000_000L);
+        token = encoder.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(new byte[32]);
+    }
+
+    @Benchmark
+    public String role() {
+        return JwtPayload.role(token);
+    }
+
+    @Benchmark
+    public TokenClaims claims() {
+        return TokenClaims.parse(token);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.inventoryapplication.benchmark;
+
+import com.example.inventoryapplication.DocView;
+import com.example.inventoryapplication.ItemStore;
+import com.example.inventoryapplication.Pages;
+import com.example.inventoryapplication.SortedItemViews;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * View and page construction as in InventoryListActivity.applyView and updatePage:
+ * building a sorted, low-stock-filtered view and slicing a page from the middle of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageBenchmark {
+
+    private static final int PAGE_SIZE = 25;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private List<Datasets.Row> rows;
+    private ItemStore store;
+    private SortedItemViews views;
+    private DocView byName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rows = Datasets.rows(size);
+        ItemStore.Builder builder = new ItemStore.Builder(size);
+        for (Datasets.Row row : rows) {
+            builder.add(row.id, row.code, row.name, row.quantity);
+        }
+        store = builder.build();
+        views = new SortedItemViews(Datasets.names(rows), Datasets.codes(rows), Datasets.quantities(rows));
+        byName = views.view(null, SortedItemViews.SortKey.NAME, -1);
+    }
+
+    @Benchmark
+    public DocView sortedView() {
+        return views.view(null, SortedItemViews.SortKey.NAME, -1);
+    }
+
+    @Benchmark
+    public DocView lowStockView() {
+        return views.view(null, SortedItemViews.SortKey.NAME, 10);
+    }
+
+    @Benchmark
+    public List<Datasets.Row> slicePage() {
+        int middlePage = byName.length() / PAGE_SIZE / 2 + 1;
+        return Pages.slice(rows, byName, middlePage, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Datasets.Row> storePage() {
+        int middlePage = byName.length() / PAGE_SIZE / 2 + 1;
+        return store.page(byName, middlePage, PAGE_SIZE, Datasets.Row::new);
+    }
+}
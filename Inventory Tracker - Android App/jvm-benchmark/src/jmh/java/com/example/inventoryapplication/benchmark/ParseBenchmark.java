@@ -0,0 +1,63 @@
+package com.example.inventoryapplication.benchmark;
+
+import com.example.inventoryapplication.InventoryJson;
+import com.example.inventoryapplication.ItemStore;
+import org.json.JSONArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Items response parsing as in InventoryListActivity.fetchInventoryItems: the JSON text to
+ * a JSONArray (done by Volley on its network thread) and the JSONArray to items (done on the
+ * main thread), either as one object per item or into the columnar ItemStore, fresh or as
+ * a refresh of an existing store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParseBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private String body;
+    private JSONArray array;
+    private ItemStore previous;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        body = Datasets.json(Datasets.rows(size));
+        array = new JSONArray(body);
+        previous = InventoryJson.parseStore(array);
+    }
+
+    @Benchmark
+    public JSONArray parseText() {
+        return new JSONArray(body);
+    }
+
+    @Benchmark
+    public List<Datasets.Row> readItems() {
+        return InventoryJson.parseItems(array, Datasets.Row::new);
+    }
+
+    @Benchmark
+    public ItemStore readStore() {
+        return InventoryJson.parseStore(array);
+    }
+
+    /** A refresh where nothing changed: pooled codes and names are reused, not copied. */
+    @Benchmark
+    public ItemStore refreshStore() {
+        return InventoryJson.parseStore(array, previous);
+    }
+}
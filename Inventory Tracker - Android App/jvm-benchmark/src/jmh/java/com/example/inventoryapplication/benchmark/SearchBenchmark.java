@@ -0,0 +1,54 @@
+package com.example.inventoryapplication.benchmark;
+
+import com.example.inventoryapplication.FuzzySearch;
+import com.example.inventoryapplication.TrigramIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search as in InventoryListActivity.filterItems: exact trigram search with the fuzzy
+ * fallback, for a short query, a full word and a misspelling; plus the index rebuild
+ * that follows every refresh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"sp", "napkin", "napkni"})
+    public String query;
+
+    private List<String> names;
+    private List<String> codes;
+    private TrigramIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Datasets.Row> rows = Datasets.rows(size);
+        names = Datasets.names(rows);
+        codes = Datasets.codes(rows);
+        index = TrigramIndex.build(names, codes);
+    }
+
+    @Benchmark
+    public int[] matchItems() {
+        return FuzzySearch.matchItems(index, query, 20);
+    }
+
+    @Benchmark
+    public TrigramIndex buildIndex() {
+        return TrigramIndex.build(names, codes);
+    }
+}
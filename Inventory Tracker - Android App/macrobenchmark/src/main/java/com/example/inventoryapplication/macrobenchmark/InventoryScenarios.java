@@ -0,0 +1,106 @@
+package com.example.inventoryapplication.macrobenchmark;
+
+import android.content.ComponentName;
+import android.content.Intent;
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.BySelector;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+import java.util.regex.Pattern;
+
+/**
+ * Shared UI steps for the inventory benchmarks.
+ * Every scenario runs against the stand-in server in {@code macrobenchmark/standin-server},
+ * which accepts any credentials and serves a fixed catalog, so results are comparable run to run.
+ */
+final class InventoryScenarios {
+
+    /** Package of the app under test. */
+    static final String PACKAGE = "com.example.inventoryapplication";
+
+    /** Longest wait for a screen or the first list rows before a scenario fails. */
+    private static final long TIMEOUT_MS = 10_000;
+
+    private InventoryScenarios() {
+    }
+
+    /**
+     * Intent that opens the inventory list directly. Only resolvable in the benchmark build,
+     * which exports the activity.
+     */
+    static Intent inventoryListIntent() {
+        Intent intent = new Intent();
+        intent.setComponent(new ComponentName(PACKAGE, PACKAGE + ".InventoryListActivity"));
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        return intent;
+    }
+
+    /**
+     * Logs in through the login screen so an auth token is stored, then leaves the app on
+     * the inventory list. The stand-in server accepts any email and password. If a token
+     * from an earlier iteration is still valid the app skips the login screen, and so does this.
+     */
+    static void logIn(MacrobenchmarkScope scope) {
+        scope.startActivityAndWait();
+        UiDevice device = scope.getDevice();
+        UiObject2 first = device.wait(Until.findObject(
+                By.res(Pattern.compile(PACKAGE + ":id/(usernameInput|itemListView)"))), TIMEOUT_MS);
+        if (first == null) {
+            throw new IllegalStateException("Neither the login screen nor the list was shown");
+        }
+        if (first.getResourceName().endsWith("itemListView")) {
+            waitForRows(device); // Already logged in
+            return;
+        }
+        first.setText("benchmark@example.com");
+        device.findObject(By.res(PACKAGE, "passwordInput")).setText("benchmark");
+        device.findObject(By.res(PACKAGE, "loginBtn")).click();
+        waitForRows(device);
+    }
+
+    /**
+     * Opens the list directly and waits until inventory rows are on screen.
+     */
+    static void openList(MacrobenchmarkScope scope) {
+        scope.startActivityAndWait(inventoryListIntent());
+        waitForRows(scope.getDevice());
+    }
+
+    /**
+     * Turns on infinite scrolling from the overflow menu unless it is already on.
+     * The setting is persisted, so the scroll scenario sees the whole catalog in one list.
+     */
+    static void enableInfiniteScroll(UiDevice device) {
+        device.findObject(By.desc("More options")).click();
+        UiObject2 option = device.wait(Until.findObject(By.text("Infinite scroll")), TIMEOUT_MS);
+        UiObject2 checkbox = option.getParent().findObject(By.checkable(true));
+        if (checkbox != null && checkbox.isChecked()) {
+            device.pressBack();
+        } else {
+            option.click();
+        }
+        waitForRows(device);
+    }
+
+    /**
+     * Returns the inventory RecyclerView, with gesture margins set so flings avoid the
+     * system navigation areas.
+     */
+    static UiObject2 list(UiDevice device) {
+        UiObject2 list = device.findObject(By.res(PACKAGE, "itemListView"));
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        return list;
+    }
+
+    /**
+     * Blocks until at least one inventory row is displayed.
+     */
+    static void waitForRows(UiDevice device) {
+        BySelector row = By.res(PACKAGE, "itemName");
+        if (!device.wait(Until.hasObject(row), TIMEOUT_MS)) {
+            throw new IllegalStateException("No inventory rows within " + TIMEOUT_MS + " ms; is the stand-in server running?");
+        }
+    }
+}
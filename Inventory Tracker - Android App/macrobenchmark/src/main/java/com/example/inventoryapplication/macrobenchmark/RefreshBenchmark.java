@@ -0,0 +1,103 @@
+package com.example.inventoryapplication.macrobenchmark;
+
+import android.net.Uri;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.BySelector;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.Until;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import kotlin.Unit;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Frame timing for a refresh that changes one quantity while a full 50-item page is bound:
+ * only that row should be rebound, so the refresh should cost about as much as one row.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RefreshBenchmark {
+
+    /** Stand-in hook that raises one item's quantity without telling the change feed. */
+    private static final String BUMP_URL = "http://127.0.0.1:3000/api/bench/bump";
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void refreshOneQuantity() {
+        benchmarkRule.measureRepeated(
+                InventoryScenarios.PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(),
+                StartupMode.WARM,
+                10,
+                scope -> {
+                    InventoryScenarios.logIn(scope);
+                    // Infinite scroll binds the first page of 50 rows at once
+                    InventoryScenarios.enableInfiniteScroll(scope.getDevice());
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    UiDevice device = scope.getDevice();
+                    String name = device.findObject(By.res(InventoryScenarios.PACKAGE, "itemName")).getText();
+                    int quantity = bump(name);
+                    device.findObject(By.res(InventoryScenarios.PACKAGE, "refreshButton")).click();
+
+                    // Matched afresh rather than through the old row, which the refresh may rebind
+                    BySelector updated = By.res(InventoryScenarios.PACKAGE, "itemRowLayout")
+                            .hasChild(By.res(InventoryScenarios.PACKAGE, "itemName").text(name))
+                            .hasChild(By.res(InventoryScenarios.PACKAGE, "editQuantity").text(String.valueOf(quantity)));
+                    if (!device.wait(Until.hasObject(updated), TIMEOUT_MS)) {
+                        throw new IllegalStateException("Refresh did not show the new quantity of " + name);
+                    }
+                    device.waitForIdle();
+                    return Unit.INSTANCE;
+                });
+    }
+
+    /**
+     * Asks the stand-in server to raise the named item's quantity by one.
+     * @return The item's new quantity
+     */
+    private static int bump(String name) {
+        HttpURLConnection connection = null;
+        try {
+            String url = Uri.parse(BUMP_URL).buildUpon().appendQueryParameter("name", name).build().toString();
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestMethod("POST");
+            int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IllegalStateException("Stand-in server refused the change: HTTP " + status);
+            }
+            try (InputStream in = connection.getInputStream()) {
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                byte[] buffer = new byte[1024];
+                for (int n; (n = in.read(buffer)) != -1; ) {
+                    body.write(buffer, 0, n);
+                }
+                return new JSONObject(body.toString("UTF-8")).getInt("quantity");
+            }
+        } catch (IOException | JSONException e) {
+            throw new IllegalStateException("No usable answer from the stand-in server; is it running?", e);
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.inventoryapplication.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiObject2;
+import java.util.Collections;
+import kotlin.Unit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Frame timing while flinging through the whole 5,000-item stand-in catalog with infinite
+ * scrolling on, which exercises row binding, diffing and sliding-window page loads together.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ScrollBenchmark {
+
+    /** Safety cap on flings in case the list never reports reaching its end. */
+    private static final int MAX_FLINGS = 400;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void scrollWholeCatalog() {
+        benchmarkRule.measureRepeated(
+                InventoryScenarios.PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(),
+                StartupMode.WARM,
+                5,
+                scope -> {
+                    InventoryScenarios.logIn(scope);
+                    InventoryScenarios.enableInfiniteScroll(scope.getDevice());
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    UiObject2 list = InventoryScenarios.list(scope.getDevice());
+                    // fling() returns false once the list can scroll no further
+                    for (int i = 0; i < MAX_FLINGS && list.fling(Direction.DOWN); i++) {
+                        scope.getDevice().waitForIdle();
+                    }
+                    return Unit.INSTANCE;
+                });
+    }
+}
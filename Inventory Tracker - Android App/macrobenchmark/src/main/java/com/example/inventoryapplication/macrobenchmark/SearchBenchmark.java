@@ -0,0 +1,61 @@
+package com.example.inventoryapplication.macrobenchmark;
+
+import android.os.SystemClock;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+import java.util.Collections;
+import kotlin.Unit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Frame timing while typing a search query one character at a time, then clearing it.
+ * Each keystroke goes through the debouncer, trigram/fuzzy search and list diffing, so
+ * jank here points at work leaking back onto the UI thread.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SearchBenchmark {
+
+    /** Typed one prefix at a time; includes a typo so the fuzzy fallback runs too. */
+    private static final String QUERY = "napkni";
+
+    /** Pause between keystrokes, roughly a fast typist. */
+    private static final long KEYSTROKE_INTERVAL_MS = 120;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void typeQuery() {
+        benchmarkRule.measureRepeated(
+                InventoryScenarios.PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(),
+                StartupMode.WARM,
+                10,
+                scope -> {
+                    InventoryScenarios.logIn(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    UiDevice device = scope.getDevice();
+                    device.findObject(By.res(InventoryScenarios.PACKAGE, "searchView")).click();
+                    UiObject2 field = device.wait(Until.findObject(By.focused(true)), 5_000);
+                    for (int i = 1; i <= QUERY.length(); i++) {
+                        field.setText(QUERY.substring(0, i));
+                        SystemClock.sleep(KEYSTROKE_INTERVAL_MS);
+                    }
+                    field.setText("");
+                    InventoryScenarios.waitForRows(device);
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.inventoryapplication.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.util.Collections;
+import kotlin.Unit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Cold start to the first frame showing inventory rows.
+ * The list activity calls reportFullyDrawn() once the first items are bound, so
+ * timeToFullDisplayMs covers process start, the items request and the first list frame;
+ * timeToInitialDisplayMs is the empty-list first frame.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void coldStartToList() {
+        benchmarkRule.measureRepeated(
+                InventoryScenarios.PACKAGE,
+                Collections.singletonList(new StartupTimingMetric()),
+                new CompilationMode.Partial(),
+                StartupMode.COLD,
+                10,
+                scope -> {
+                    // Store a token first; the process is killed again before measuring
+                    InventoryScenarios.logIn(scope);
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    InventoryScenarios.openList(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,233 @@
+// Stand-in for the Inventory Tracker API used by the :macrobenchmark module.
+// Serves the same routes and response shapes the app uses, from memory, with no database
+// or real authentication, so benchmark runs do not depend on a live backend.
+//
+// Usage:  node server.js [--items 5000] [--port 3000]
+//         adb reverse tcp:3000 tcp:3000
+//
+// The catalog is seeded from "Inventory Tracker - MongoDB/inventory.items.json" and repeated
+// with numbered names and codes until it reaches --items entries.
+
+const http = require('http');
+const fs = require('fs');
+const path = require('path');
+
+// Parse "--name value" command line options
+function option(name, fallback) {
+    const i = process.argv.indexOf('--' + name);
+    return i >= 0 && i + 1 < process.argv.length ? process.argv[i + 1] : fallback;
+}
+
+const port = parseInt(option('port', '3000'), 10);
+const itemCount = parseInt(option('items', '5000'), 10);
+const seedFile = option('seed',
+    path.join(__dirname, '..', '..', '..', 'Inventory Tracker - MongoDB', 'inventory.items.json'));
+
+// Build the catalog: the seed items first, then numbered copies of them
+function buildCatalog() {
+    const seed = JSON.parse(fs.readFileSync(seedFile, 'utf8'));
+    const items = [];
+    for (let i = 0; i < itemCount; i++) {
+        const base = seed[i % seed.length];
+        const round = Math.floor(i / seed.length);
+        items.push({
+            _id: i.toString(16).padStart(24, '0'), // Deterministic ObjectId-shaped ids in insertion order
+            code: round === 0 ? base.code : base.code + round,
+            name: round === 0 ? base.name : base.name + ' ' + round,
+            quantity: (base.quantity + round * 7) % 250,
+            version: 0
+        });
+    }
+    return items;
+}
+
+const items = buildCatalog();
+
+// Unsigned JWT-shaped token with a far-future expiry; the app only stores and forwards it
+function fakeToken() {
+    const encode = (o) => Buffer.from(JSON.stringify(o)).toString('base64url');
+    const exp = Math.floor(Date.now() / 1000) + 365 * 24 * 3600;
+    return encode({ alg: 'none', typ: 'JWT' }) + '.' +
+        encode({ email: 'benchmark@example.com', role: 'Admin', exp }) + '.';
+}
+
+function send(res, status, body) {
+    const json = JSON.stringify(body);
+    res.writeHead(status, { 'Content-Type': 'application/json', 'Content-Length': Buffer.byteLength(json) });
+    res.end(json);
+}
+
+function readBody(req) {
+    return new Promise((resolve) => {
+        let data = '';
+        req.on('data', (chunk) => { data += chunk; });
+        req.on('end', () => {
+            try {
+                resolve(data ? JSON.parse(data) : {});
+            } catch (err) {
+                resolve({});
+            }
+        });
+    });
+}
+
+// Same optimistic concurrency contract as the real API: a change carrying expectedVersion
+// only applies at that version, and is otherwise answered with 409 and the current item
+function versionConflict(res, item, expected) {
+    if (expected === undefined || expected === null || expected === '' || Number(expected) === item.version) {
+        return false;
+    }
+    send(res, 409, { message: 'Item was changed by someone else', reason: 'version', item });
+    return true;
+}
+
+// Change feed with the same contract as the real API's GET /items/changes: Server-Sent
+// Events "upsert" and "delete", resumable with Last-Event-ID from a bounded log
+const epoch = Date.now().toString(36);
+const changeLog = [];
+const streams = new Set();
+let sequence = 0;
+
+function writeEvent(res, event) {
+    res.write(`id: ${event.id}\nevent: ${event.type}\ndata: ${JSON.stringify(event.data)}\n\n`);
+}
+
+function recordChange(type, item) {
+    const data = type === 'delete' ? { _id: item._id, code: item.code } : item;
+    const event = { id: epoch + '-' + (++sequence), seq: sequence, type, data };
+    changeLog.push(event);
+    if (changeLog.length > 1000) {
+        changeLog.shift();
+    }
+    streams.forEach((res) => writeEvent(res, event));
+}
+
+function streamChanges(req, res, url) {
+    res.writeHead(200, { 'Content-Type': 'text/event-stream', 'Cache-Control': 'no-cache', 'Connection': 'keep-alive' });
+    res.write('retry: 3000\n\n');
+    const lastEventId = req.headers['last-event-id'] || url.searchParams.get('lastEventId');
+    if (lastEventId) {
+        const [idEpoch, idSeq] = lastEventId.split('-');
+        const seq = parseInt(idSeq, 10);
+        const resumable = idEpoch === epoch && seq <= sequence
+            && (seq === sequence || (changeLog.length > 0 && changeLog[0].seq <= seq + 1));
+        if (resumable) {
+            changeLog.filter((event) => event.seq > seq).forEach((event) => writeEvent(res, event));
+        } else {
+            res.write(`id: ${epoch}-${sequence}\nevent: reset\ndata: {}\n\n`);
+        }
+    } else {
+        res.write(`id: ${epoch}-${sequence}\nevent: ready\ndata: {}\n\n`);
+    }
+    streams.add(res);
+    const heartbeat = setInterval(() => res.write(': heartbeat\n\n'), 25000);
+    req.on('close', () => {
+        clearInterval(heartbeat);
+        streams.delete(res);
+    });
+}
+
+// Mirrors itemsSearch in the website's items controller
+function search(url) {
+    const query = (url.searchParams.get('q') || '').toLowerCase();
+    const page = Math.max(parseInt(url.searchParams.get('page'), 10) || 1, 1);
+    const pageSize = Math.min(Math.max(parseInt(url.searchParams.get('pageSize'), 10) || 10, 1), 100);
+    const matches = query.length === 0 ? items : items.filter((item) =>
+        item.name.toLowerCase().includes(query) || item.code.toLowerCase().includes(query));
+    const start = (page - 1) * pageSize;
+    return { items: matches.slice(start, start + pageSize), total: matches.length, page, pageSize };
+}
+
+const server = http.createServer(async (req, res) => {
+    const url = new URL(req.url, 'http://localhost');
+    const parts = url.pathname.split('/').filter((p) => p.length > 0); // e.g. ["api", "items", "CP"]
+    if (parts[0] !== 'api') {
+        return send(res, 404, { message: 'Not found' });
+    }
+
+    if ((parts[1] === 'login' || parts[1] === 'refresh') && req.method === 'POST') {
+        return send(res, 200, { token: fakeToken(), role: 'Admin' });
+    }
+    if (parts[1] === 'bench' && parts[2] === 'bump' && req.method === 'POST') {
+        // Benchmark hook: raises the quantity of the item named by ?name= without announcing it
+        // on the change feed, as a write through another API instance would be, so only a
+        // refresh brings it to the app
+        const name = url.searchParams.get('name');
+        const item = items.find((candidate) => candidate.name === name);
+        if (!item) {
+            return send(res, 404, { message: 'Item not found' });
+        }
+        item.quantity++;
+        item.version++;
+        return send(res, 200, item);
+    }
+    if (parts[1] !== 'items') {
+        return send(res, 404, { message: 'Not found' });
+    }
+
+    if (parts.length === 2) {
+        if (req.method === 'GET') {
+            return send(res, 200, items);
+        }
+        if (req.method === 'POST') {
+            const body = await readBody(req);
+            const item = { _id: items.length.toString(16).padStart(24, '0'), code: body.code, name: body.name, quantity: body.quantity, version: 0 };
+            items.push(item);
+            recordChange('upsert', item);
+            return send(res, 201, item);
+        }
+    } else if (parts[2] === 'search' && req.method === 'GET') {
+        return send(res, 200, search(url));
+    } else if (parts[2] === 'changes' && req.method === 'GET') {
+        return streamChanges(req, res, url);
+    } else {
+        const index = items.findIndex((item) => item.code === decodeURIComponent(parts[2]));
+        if (index < 0) {
+            return send(res, 404, { message: 'Item not found' });
+        }
+        if (req.method === 'GET') {
+            return send(res, 200, items[index]);
+        }
+        if (req.method === 'PUT') {
+            const body = await readBody(req);
+            if (versionConflict(res, items[index], body.expectedVersion)) {
+                return;
+            }
+            Object.assign(items[index], { code: body.code, name: body.name, quantity: body.quantity });
+            items[index].version++;
+            recordChange('upsert', items[index]);
+            return send(res, 201, items[index]);
+        }
+        if (req.method === 'PATCH') {
+            // Same contract as the real API: relative quantity change, refused below zero
+            const body = await readBody(req);
+            const delta = body.delta || 0;
+            if (versionConflict(res, items[index], body.expectedVersion)) {
+                return;
+            }
+            if (items[index].quantity + delta < 0) {
+                return send(res, 409, { message: 'Quantity cannot go below 0', reason: 'quantity', item: items[index] });
+            }
+            items[index].version++;
+            items[index].quantity += delta;
+            if (body.name !== undefined) {
+                items[index].name = body.name;
+            }
+            recordChange('upsert', items[index]);
+            return send(res, 200, items[index]);
+        }
+        if (req.method === 'DELETE') {
+            if (versionConflict(res, items[index], url.searchParams.get('expectedVersion'))) {
+                return;
+            }
+            const [removed] = items.splice(index, 1);
+            recordChange('delete', removed);
+            return send(res, 204, removed);
+        }
+    }
+    return send(res, 405, { message: 'Method not allowed' });
+});
+
+server.listen(port, () => {
+    console.log(`Stand-in inventory API with ${items.length} items on http://127.0.0.1:${port}/api`);
+});
@@ -68,8 +68,27 @@ const login = (req, res) => {
     })(req, res);
 };
 
-// Export the register and login functions for use in routing
+// Refresh function: exchanges a still-valid token for a new one, so clients can renew
+// before expiry instead of sending the password again. The user is looked up again, so a
+// deleted user cannot renew and a changed role takes effect.
+const refresh = async (req, res) => {
+    try {
+        const user = await User.findByEmail(req.auth.email);
+        if (!user) {
+            return res.status(401).json({ message: 'User no longer exists' });  // Respond with 401 Unauthorized
+        }
+        const token = user.generateJwt();  // Generate a new JWT with a fresh expiry
+        return res.status(200).json({ token });  // Respond with 200 OK status and the new JWT token
+    } catch (err) {
+        // Catch any errors during the lookup or token generation
+        console.error('Token refresh error:', err);
+        return res.status(500).json({ message: 'Server error during token refresh', error: err.message });  // Respond with 500 Internal Server Error
+    }
+};
+
+// Export the register, login and refresh functions for use in routing
 module.exports = {
     register,
     login,
+    refresh,
 };
@@ -0,0 +1,109 @@
+// Change feed for the items API, streamed to clients as Server-Sent Events.
+// Every successful add, update, adjustment and delete is recorded here as an event
+// ("upsert" with the whole item, or "delete" with its _id and code) and pushed to every
+// connected client. Clients reconnecting with Last-Event-ID get the events they missed
+// replayed from a bounded in-memory log; if those are no longer available (the log moved
+// on, or the server restarted) they get a "reset" event and must re-read the catalog.
+// The log lives in this process, so with several API instances each streams its own
+// changes only; clients still converge through their polling fallback.
+
+const { EventEmitter } = require('events');
+
+// Most recent events kept for replay
+const LOG_SIZE = 1000;
+
+// Comment line sent periodically so proxies and clients do not time out an idle stream
+const HEARTBEAT_MS = 25000;
+
+// Suggested reconnect delay for clients, in milliseconds
+const RETRY_MS = 3000;
+
+// Event ids are "<epoch>-<sequence>"; the epoch changes on every restart, so ids from a
+// previous run are recognised as unresumable
+const epoch = Date.now().toString(36);
+let sequence = 0;
+const log = [];
+const emitter = new EventEmitter();
+emitter.setMaxListeners(0); // One listener per connected client
+
+// Serialises an item document (or plain object) to the fields clients store
+const toPayload = (item) => ({
+    _id: String(item._id),
+    code: item.code,
+    name: item.name,
+    quantity: item.quantity,
+    version: item.version || 0
+});
+
+// Records a change and pushes it to connected clients
+// type: 'upsert' or 'delete'; item: the item after the change (or as deleted)
+const record = (type, item) => {
+    const data = type === 'delete' ? { _id: String(item._id), code: item.code } : toPayload(item);
+    const event = { id: epoch + '-' + (++sequence), seq: sequence, type, data };
+    log.push(event);
+    if (log.length > LOG_SIZE) {
+        log.shift();
+    }
+    emitter.emit('change', event);
+};
+
+// Writes one event in the text/event-stream format
+const writeEvent = (res, event) => {
+    res.write(`id: ${event.id}\nevent: ${event.type}\ndata: ${JSON.stringify(event.data)}\n\n`);
+};
+
+// Returns the logged events after lastEventId, or null if they cannot all be replayed
+const eventsAfter = (lastEventId) => {
+    const [idEpoch, idSeq] = String(lastEventId).split('-');
+    const seq = parseInt(idSeq, 10);
+    if (idEpoch !== epoch || !Number.isInteger(seq) || seq > sequence) {
+        return null; // From a previous run, or malformed
+    }
+    if (seq === sequence) {
+        return [];
+    }
+    if (log.length === 0 || log[0].seq > seq + 1) {
+        return null; // Some of the missed events have already left the log
+    }
+    return log.filter((event) => event.seq > seq);
+};
+
+// GET: /items/changes - Streams item changes as Server-Sent Events
+// Resumes after the Last-Event-ID header (or lastEventId query parameter) when given
+const itemsChanges = (req, res) => {
+    res.writeHead(200, {
+        'Content-Type': 'text/event-stream',
+        'Cache-Control': 'no-cache',
+        'Connection': 'keep-alive',
+        'X-Accel-Buffering': 'no' // Stop nginx-style proxies from buffering the stream
+    });
+    res.write(`retry: ${RETRY_MS}\n\n`);
+
+    const lastEventId = req.get('Last-Event-ID') || req.query.lastEventId;
+    if (lastEventId) {
+        const missed = eventsAfter(lastEventId);
+        if (missed === null) {
+            // Tell the client to re-read the catalog; the id lets it resume from here next time
+            res.write(`id: ${epoch}-${sequence}\nevent: reset\ndata: {}\n\n`);
+        } else {
+            missed.forEach((event) => writeEvent(res, event));
+        }
+    } else {
+        // A fresh client has just read (or is about to read) the catalog; start from now
+        res.write(`id: ${epoch}-${sequence}\nevent: ready\ndata: {}\n\n`);
+    }
+
+    const onChange = (event) => writeEvent(res, event);
+    emitter.on('change', onChange);
+    const heartbeat = setInterval(() => res.write(': heartbeat\n\n'), HEARTBEAT_MS);
+
+    req.on('close', () => {
+        clearInterval(heartbeat);
+        emitter.removeListener('change', onChange);
+    });
+};
+
+module.exports = {
+    record,
+    itemsChanges
+};
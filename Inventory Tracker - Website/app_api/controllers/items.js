@@ -1,6 +1,42 @@
 const mongoose = require('mongoose');
 const Item = require('../models/items'); // Register Model for item schema
 const Model = mongoose.model('items'); // Access the 'items' model
+const changes = require('./changes'); // Change feed streamed to clients
+
+// Optimistic concurrency: PUT, PATCH and DELETE accept an expectedVersion (in the body, or
+// as a query parameter for DELETE). The change only applies if the item is still at that
+// version, and every change increments it. A mismatch is answered with 409 and the item's
+// current state, so the client can merge without another round trip.
+
+// Adds the version condition to a filter; items stored before versioning count as version 0
+const withExpectedVersion = (filter, expectedVersion) => {
+    if (expectedVersion !== undefined) {
+        filter.version = expectedVersion === 0 ? { $in: [0, null] } : expectedVersion;
+    }
+    return filter;
+};
+
+// Reads expectedVersion from a request; undefined when absent, null when malformed
+const readExpectedVersion = (value) => {
+    if (value === undefined || value === '') {
+        return undefined;
+    }
+    const version = Number(value);
+    return Number.isInteger(version) && version >= 0 ? version : null;
+};
+
+// Explains why a conditional change matched nothing: 404 if the item is gone, otherwise
+// 409 with the current item and the reason ('version' or 'quantity')
+const respondNoMatch = async (res, code, expectedVersion) => {
+    const current = await Model.findOne({ code }).exec();
+    if (!current) {
+        return res.status(404).json({ message: 'Item not found' });
+    }
+    if (expectedVersion !== undefined && (current.version || 0) !== expectedVersion) {
+        return res.status(409).json({ message: 'Item was changed by someone else', reason: 'version', item: current });
+    }
+    return res.status(409).json({ message: 'Quantity cannot go below 0', reason: 'quantity', item: current });
+};
 
 // GET: /items - lists all the items
 // This endpoint retrieves all items from the database
@@ -22,6 +58,41 @@ const itemsList = async (req, res) => {
     }
 };
 
+// GET: /items/search?q=&page=&pageSize= - server-side filtered and paged listing
+// Matches the query case-insensitively against item name or code and returns one page
+// as { items, total, page, pageSize }. Used by clients whose catalog is too large to filter locally.
+const itemsSearch = async (req, res) => {
+    try {
+        // Parse paging parameters, clamping to sane bounds
+        const query = (req.query.q || '').toString();
+        const page = Math.max(parseInt(req.query.page, 10) || 1, 1);
+        const pageSize = Math.min(Math.max(parseInt(req.query.pageSize, 10) || 10, 1), 100);
+
+        // Escape regex metacharacters so the query is treated as a literal substring
+        const filter = {};
+        if (query.length > 0) {
+            const pattern = new RegExp(query.replace(/[.*+?^${}()|[\]\\]/g, '\\$&'), 'i');
+            filter.$or = [{ name: pattern }, { code: pattern }];
+        }
+
+        // Count and fetch the requested page in parallel; sort by _id for a stable order
+        const [total, items] = await Promise.all([
+            Model.countDocuments(filter).exec(),
+            Model.find(filter)
+                .sort({ _id: 1 })
+                .skip((page - 1) * pageSize)
+                .limit(pageSize)
+                .exec()
+        ]);
+
+        // An empty page is a valid answer for search, so respond with 200 either way
+        return res.status(200).json({ items, total, page, pageSize });
+    } catch (err) {
+        // Catch any errors during the database operation and return 500 status with error message
+        return res.status(500).json({ message: 'Server error', error: err.message });
+    }
+};
+
 // GET: /items/:itemCode - lists a single item by code
 // This endpoint retrieves a specific item based on its unique code
 const itemsFindByCode = async (req, res) => {
@@ -63,6 +134,7 @@ const itemsAddItem = async (req, res) => {
 
         // Save the new item to the database
         const savedItem = await newItem.save();
+        changes.record('upsert', savedItem);
 
         // Return the saved item with 201 status (created)
         return res.status(201).json(savedItem);
@@ -84,18 +156,24 @@ const itemsUpdateItem = async (req, res) => {
             return res.status(400).json({ message: 'Missing required fields (code, name, quantity)' });
         }
 
-        // Find the item by its code and update it with the new values
+        const expectedVersion = readExpectedVersion(req.body.expectedVersion);
+        if (expectedVersion === null) {
+            return res.status(400).json({ message: 'expectedVersion must be a non-negative integer' });
+        }
+
+        // Find the item by its code (and version, if given) and update it with the new values
         const updatedItem = await Model.findOneAndUpdate(
-            { code: req.params.itemCode }, // Search for the item by code
-            { code, name, quantity },      // Fields to update
-            { new: true }                  // Return the updated item (default is the original)
+            withExpectedVersion({ code: req.params.itemCode }, expectedVersion), // Search for the item by code
+            { $set: { code, name, quantity }, $inc: { version: 1 } },           // Fields to update
+            { new: true }                                                        // Return the updated item (default is the original)
         ).exec();
 
-        // If item is not found, respond with 404 status
+        // If item is not found (or was changed since expectedVersion), respond with 404 or 409
         if (!updatedItem) {
-            return res.status(404).json({ message: 'Item not found' });
+            return respondNoMatch(res, req.params.itemCode, expectedVersion);
         } else {
             // Successfully updated the item, return the updated item with 200 status
+            changes.record('upsert', updatedItem);
             return res.status(200).json(updatedItem);
         }
     } catch (err) {
@@ -104,18 +182,78 @@ const itemsUpdateItem = async (req, res) => {
     }
 };
 
+// PATCH: /items/:itemCode - Applies a relative change { delta, name } atomically
+// The quantity is changed with $inc inside MongoDB rather than overwritten with a value the
+// client computed, so concurrent adjustments from several devices all apply instead of
+// losing each other. A decrement that would take the quantity below zero matches nothing
+// and is refused with 409. Either field may be omitted; the updated item is returned so
+// the client can converge on the server's values. Pure deltas commute, so expectedVersion
+// is optional here; clients send it for changes that do not, such as renames.
+const itemsAdjustItem = async (req, res) => {
+    try {
+        const { delta, name } = req.body;
+
+        // Validate: delta must be an integer if present, name a non-empty string if present
+        if (delta !== undefined && !Number.isInteger(delta)) {
+            return res.status(400).json({ message: 'delta must be an integer' });
+        }
+        if (name !== undefined && (typeof name !== 'string' || name.trim().length === 0)) {
+            return res.status(400).json({ message: 'name must be a non-empty string' });
+        }
+        if (!delta && name === undefined) {
+            return res.status(400).json({ message: 'Nothing to change (delta, name)' });
+        }
+        const expectedVersion = readExpectedVersion(req.body.expectedVersion);
+        if (expectedVersion === null) {
+            return res.status(400).json({ message: 'expectedVersion must be a non-negative integer' });
+        }
+
+        // Build one atomic update; the quantity guard and version condition are part of the match
+        const filter = withExpectedVersion({ code: req.params.itemCode }, expectedVersion);
+        const update = { $inc: { version: 1 } };
+        if (delta) {
+            update.$inc.quantity = delta;
+            if (delta < 0) {
+                filter.quantity = { $gte: -delta };
+            }
+        }
+        if (name !== undefined) {
+            update.$set = { name: name.trim() };
+        }
+
+        const updatedItem = await Model.findOneAndUpdate(filter, update, { new: true }).exec();
+        if (updatedItem) {
+            changes.record('upsert', updatedItem);
+            return res.status(200).json(updatedItem);
+        }
+
+        // Nothing matched: the item is gone, was changed, or the decrement would go below zero
+        return respondNoMatch(res, req.params.itemCode, expectedVersion);
+    } catch (err) {
+        // Input was validated above, so anything thrown here is a server or database error
+        return res.status(500).json({ message: 'Error adjusting item', error: err.message });
+    }
+};
+
 // DELETE: /items/:itemCode - Deletes an item by itemCode
 // This endpoint deletes an existing item from the inventory database by its unique code
 const itemsDeleteItem = async (req, res) => {
     try {
-        // Find the item by its code and delete it
-        const deletedItem = await Model.findOneAndDelete({ code: req.params.itemCode }).exec();
+        const expectedVersion = readExpectedVersion(req.query.expectedVersion);
+        if (expectedVersion === null) {
+            return res.status(400).json({ message: 'expectedVersion must be a non-negative integer' });
+        }
 
-        // If item is not found, respond with 404 status
+        // Find the item by its code (and version, if given) and delete it
+        const deletedItem = await Model.findOneAndDelete(
+            withExpectedVersion({ code: req.params.itemCode }, expectedVersion)).exec();
+
+        // If item is not found (or was changed since expectedVersion), respond with 404 or 409
         if (!deletedItem) {
-            return res.status(404).json({ message: 'Item not found' });
+            return respondNoMatch(res, req.params.itemCode, expectedVersion);
         } else {
             // Successfully deleted the item, return a success message with 200 status
+            changes.record('delete', deletedItem);
             return res.status(200).json({ message: 'Item deleted successfully' });
         }
     } catch (err) {
@@ -127,8 +265,10 @@ const itemsDeleteItem = async (req, res) => {
 // Export all the CRUD functions to be used in the routes
 module.exports = {
     itemsList,         // Export the list function
+    itemsSearch,       // Export the paged search function
     itemsFindByCode,   // Export the find function by item code
     itemsAddItem,      // Export the add item function
     itemsUpdateItem,   // Export the update item function
+    itemsAdjustItem,   // Export the atomic delta update function
     itemsDeleteItem    // Export the delete item function
 };
@@ -21,6 +21,13 @@ const itemSchema = new mongoose.Schema({
         type: Number,  // Specifies the type of data (number)
         required: true,  // Ensures this field is always provided
     },
+
+    // Version field: incremented by every change, so clients can make changes conditional
+    // on the version they last saw (optimistic concurrency) instead of silently overwriting
+    version: {
+        type: Number,  // Specifies the type of data (number)
+        default: 0,  // New items, and items stored before versioning, start at 0
+    },
 },
     {
         timestamps: true,  // Automatically adds 'createdAt' and 'updatedAt' fields for tracking
@@ -26,19 +26,20 @@ function authenticateJWT(req, res, next) {
     }
     // console.log(process.env.JWT_SECRET);
     // console.log(jwt.decode(token));
-    const verified = jwt.verify(token, process.env.JWT_SECRET, (err,
-        verified) => {
+    jwt.verify(token, process.env.JWT_SECRET, (err, verified) => {
         if (err) {
-            return res.sendStatus(401).json('Token Validation Error!');
+            // Stop here: an expired or forged token must not reach the route
+            return res.status(401).json('Token Validation Error!');
         }
         req.auth = verified; // Set the auth paramto the decoded object
+        next(); // We need to continue or this will hang forever
     });
-    next(); // We need to continue or this will hang forever
 }
 
 
 // This is where we import the controllers we will route
 const itemsController = require('../controllers/items');
+const changesController = require('../controllers/changes');
 const authController = require('../controllers/authentication')
 
 // define route for registration endpoint
@@ -50,16 +51,32 @@ router
     .route('/login')
     .post(authController.login);
 
+// define route for renewing a still-valid token before it expires
+router
+    .route('/refresh')
+    .post(authenticateJWT, authController.refresh);
+
 // define route for our items endpoint
 router
     .route("/items")
     .get(itemsController.itemsList)
     .post(authenticateJWT, itemsController.itemsAddItem); // corrected "I"
 
+// define route for server-side search; must precede "/items/:itemCode"
+router
+    .route("/items/search")
+    .get(itemsController.itemsSearch);
+
+// define route for the Server-Sent Events change feed; must precede "/items/:itemCode"
+router
+    .route("/items/changes")
+    .get(authenticateJWT, changesController.itemsChanges);
+
 router
     .route("/items/:itemCode")
     .get(itemsController.itemsFindByCode)
     .put(authenticateJWT, itemsController.itemsUpdateItem) // corrected "I"
+    .patch(authenticateJWT, itemsController.itemsAdjustItem) // atomic { delta, name } change
     .delete(authenticateJWT, itemsController.itemsDeleteItem); // corrected "I"
 
 module.exports = router;
\ No newline at end of file